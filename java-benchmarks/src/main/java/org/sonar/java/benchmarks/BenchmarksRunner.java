@@ -0,0 +1,67 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.java.checks.CheckList;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}, which accepts the same arguments as {@link Main} and additionally
+ * <ul>
+ *   <li>profiles allocations with {@link GCProfiler}</li>
+ *   <li>executes {@link ChecksBenchmark} for each check from {@link CheckList}, unless parameter {@code check} is specified</li>
+ * </ul>
+ */
+public final class BenchmarksRunner {
+
+  private BenchmarksRunner() {
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams()
+      || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+      Main.main(args);
+      return;
+    }
+    OptionsBuilder options = new OptionsBuilder();
+    options.parent(commandLineOptions);
+    options.addProfiler(GCProfiler.class);
+    if (!commandLineOptions.getParameter("check").hasValue()) {
+      List<String> checks = Lists.newArrayList(ChecksBenchmark.NO_CHECK);
+      for (Class<?> checkClass : CheckList.getChecks()) {
+        checks.add(checkClass.getSimpleName());
+      }
+      options.param("check", checks.toArray(new String[checks.size()]));
+    }
+    new Runner(options.build()).run();
+  }
+
+}
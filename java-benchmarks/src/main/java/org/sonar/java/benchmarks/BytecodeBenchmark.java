@@ -0,0 +1,83 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.base.Charsets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.InputFileUtils;
+import org.sonar.api.resources.Resource;
+import org.sonar.java.JavaAstScanner;
+import org.sonar.java.JavaConfiguration;
+import org.sonar.java.ast.AstScanner;
+import org.sonar.java.bytecode.BytecodeScanner;
+import org.sonar.java.bytecode.visitor.DependenciesVisitor;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.squidbridge.indexer.SquidIndex;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan of bytecode of project with computation of dependencies.
+ * Sources are scanned before each invocation, because bytecode scan adds classes to index of source code.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BytecodeBenchmark {
+
+  private SquidIndex index;
+  private CorpusResourceLocator javaResourceLocator;
+
+  @Setup(Level.Invocation)
+  public void scanSources(Corpus corpus) {
+    javaResourceLocator = new CorpusResourceLocator(corpus);
+    AstScanner astScanner = JavaAstScanner.create(new JavaConfiguration(Charsets.UTF_8));
+    astScanner.accept(new VisitorsBridge(javaResourceLocator));
+    astScanner.scan(InputFileUtils.create(corpus.getSourceDir(), corpus.getSourceFiles()));
+    index = (SquidIndex) astScanner.getIndex();
+  }
+
+  @Benchmark
+  public void scan(Corpus corpus, Blackhole blackhole) {
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    BytecodeScanner bytecodeScanner = new BytecodeScanner(index, javaResourceLocator);
+    bytecodeScanner.accept(new DependenciesVisitor(graph));
+    bytecodeScanner.scan(Collections.singleton(corpus.getBytecodeDir()));
+    blackhole.consume(graph);
+  }
+
+}
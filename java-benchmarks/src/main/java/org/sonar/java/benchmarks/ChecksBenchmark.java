@@ -0,0 +1,89 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.base.Charsets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.JavaConfiguration;
+import org.sonar.java.JavaSquid;
+import org.sonar.java.checks.CheckList;
+import org.sonar.squidbridge.api.CodeVisitor;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis of project with a single check, including parsing, semantic model and bytecode scan.
+ * Cost of a check is the difference with analysis without checks, which is measured for value {@value #NO_CHECK} of parameter {@link #check}.
+ * {@link BenchmarksRunner} executes this benchmark for each check from {@link CheckList}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChecksBenchmark {
+
+  static final String NO_CHECK = "none";
+
+  /**
+   * Simple name of class of check.
+   */
+  @Param(NO_CHECK)
+  public String check;
+
+  private Class<?> checkClass;
+
+  @Setup
+  public void setUp() {
+    checkClass = null;
+    if (!NO_CHECK.equals(check)) {
+      for (Class<?> c : CheckList.getChecks()) {
+        if (c.getSimpleName().equals(check)) {
+          checkClass = c;
+        }
+      }
+      if (checkClass == null) {
+        throw new IllegalArgumentException("Unknown check: " + check);
+      }
+    }
+  }
+
+  @Benchmark
+  public void scan(Corpus corpus, Blackhole blackhole) throws Exception {
+    CodeVisitor[] visitors = checkClass == null ? new CodeVisitor[0] : new CodeVisitor[] {(CodeVisitor) checkClass.newInstance()};
+    JavaSquid squid = new JavaSquid(new JavaConfiguration(Charsets.UTF_8), new CorpusResourceLocator(corpus), visitors);
+    squid.scanDirectories(Collections.singleton(corpus.getSourceDir()), Collections.singleton(corpus.getBytecodeDir()));
+    blackhole.consume(squid.getIndex());
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Project used as input of benchmarks: sources and bytecode unpacked by build of this module into {@code target/test-projects}.
+ * Another location can be specified by system property {@value #CORPUS_DIR_PROPERTY}.
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+
+  public static final String CORPUS_DIR_PROPERTY = "corpus.dir";
+
+  @Param({"commons-collections-3.2.1", "struts-core-1.3.9"})
+  public String project;
+
+  private File sourceDir;
+  private File bytecodeDir;
+  private List<File> sourceFiles;
+
+  @Setup
+  public void setUp() {
+    File projectDir = new File(System.getProperty(CORPUS_DIR_PROPERTY, "target/test-projects"), project);
+    sourceDir = new File(projectDir, "src");
+    bytecodeDir = new File(projectDir, "bin");
+    if (!sourceDir.isDirectory() || !bytecodeDir.isDirectory()) {
+      throw new IllegalStateException("Project not found: " + projectDir.getAbsolutePath());
+    }
+    List<File> files = Lists.newArrayList(FileUtils.listFiles(sourceDir, new String[] {"java"}, true));
+    // order of files affects caches, so it should not depend on file system
+    Collections.sort(files);
+    sourceFiles = ImmutableList.copyOf(files);
+  }
+
+  public File getSourceDir() {
+    return sourceDir;
+  }
+
+  public File getBytecodeDir() {
+    return bytecodeDir;
+  }
+
+  public List<File> getSourceFiles() {
+    return sourceFiles;
+  }
+
+}
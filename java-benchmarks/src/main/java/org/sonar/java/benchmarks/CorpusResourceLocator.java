@@ -0,0 +1,108 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Maps;
+import org.sonar.api.resources.Resource;
+import org.sonar.java.JavaFilesCache;
+import org.sonar.java.bytecode.visitor.ResourceMapping;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.java.api.SyntaxOnly;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counterpart of {@link org.sonar.java.DefaultJavaResourceLocator}, which doesn't require SonarQube project.
+ */
+@SyntaxOnly
+class CorpusResourceLocator implements JavaResourceLocator {
+
+  private final List<File> sourceDirs;
+  private final File bytecodeDir;
+  private final Map<String, Resource> resourcesByClass = Maps.newHashMap();
+  private final Map<String, String> sourceFileByClass = Maps.newHashMap();
+  private final Map<String, Integer> methodStartLines = Maps.newHashMap();
+  private final ResourceMapping resourceMapping = new ResourceMapping();
+
+  CorpusResourceLocator(Corpus corpus) {
+    this.sourceDirs = ImmutableList.of(corpus.getSourceDir());
+    this.bytecodeDir = corpus.getBytecodeDir();
+  }
+
+  @CheckForNull
+  @Override
+  public Resource findResourceByClassName(String className) {
+    return resourcesByClass.get(className.replace('.', '/'));
+  }
+
+  @Override
+  public String findSourceFileKeyByClassName(String className) {
+    return sourceFileByClass.get(className.replace('.', '/'));
+  }
+
+  @Override
+  public Collection<String> classKeys() {
+    return ImmutableSortedSet.copyOf(resourcesByClass.keySet());
+  }
+
+  @Override
+  public Collection<File> classFilesToAnalyze() {
+    ImmutableList.Builder<File> result = ImmutableList.builder();
+    for (String key : classKeys()) {
+      File classFile = new File(bytecodeDir, key + ".class");
+      if (classFile.isFile()) {
+        result.add(classFile);
+      }
+    }
+    return result.build();
+  }
+
+  @Override
+  public Integer getMethodStartLine(String fullyQualifiedMethodName) {
+    return methodStartLines.get(fullyQualifiedMethodName);
+  }
+
+  @Override
+  public ResourceMapping getResourceMapping() {
+    return resourceMapping;
+  }
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    JavaFilesCache javaFilesCache = new JavaFilesCache();
+    javaFilesCache.scanFile(context);
+    org.sonar.api.resources.File currentResource = org.sonar.api.resources.File.fromIOFile(context.getFile(), sourceDirs);
+    resourceMapping.addResource(currentResource, context.getFileKey());
+    for (String className : javaFilesCache.getResourcesCache().keySet()) {
+      resourcesByClass.put(className, currentResource);
+      sourceFileByClass.put(className, context.getFileKey());
+    }
+    methodStartLines.putAll(javaFilesCache.getMethodStartLines());
+  }
+
+}
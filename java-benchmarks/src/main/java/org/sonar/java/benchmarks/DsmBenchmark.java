@@ -0,0 +1,114 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.Dsm;
+import org.sonar.graph.DsmTopologicalSorter;
+import org.sonar.graph.Edge;
+import org.sonar.plugins.java.bridges.DsmSerializer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort and serialization of dependency structure matrix of a single package, whose files are generated:
+ * each file depends on {@link #dependencies} other files, and one percent of dependencies are feedback edges.
+ * {@link #dense} is the computation with {@link Dsm}, {@link #sparse} - with {@link DsmSerializer#serialize(org.sonar.graph.DirectedGraphAccessor, java.util.Collection, Set)}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DsmBenchmark {
+
+  @Param("1000")
+  public int files;
+
+  @Param("10")
+  public int dependencies;
+
+  private List<Resource> resources;
+  private DirectedGraph<Resource, Dependency> graph;
+  private Set<Edge> feedbackEdges;
+
+  @Setup
+  public void generatePackage() {
+    Random random = new Random(0);
+    resources = Lists.newArrayList();
+    for (int i = 0; i < files; i++) {
+      Resource resource = new Directory("file" + i);
+      resource.setId(i);
+      resources.add(resource);
+    }
+    List<Resource> topologicalOrder = Lists.newArrayList(resources);
+    Collections.shuffle(topologicalOrder, random);
+    graph = new DirectedGraph<Resource, Dependency>();
+    feedbackEdges = Sets.newHashSet();
+    long id = 0;
+    for (int from = 0; from < files; from++) {
+      for (int d = 0; d < dependencies; d++) {
+        int to = random.nextInt(files);
+        boolean feedback = random.nextInt(100) == 0;
+        if ((feedback ? to < from : to > from) && !graph.hasEdge(topologicalOrder.get(from), topologicalOrder.get(to))) {
+          Dependency dependency = new Dependency(topologicalOrder.get(from), topologicalOrder.get(to)).setId(id++).setWeight(1 + random.nextInt(10));
+          graph.addEdge(dependency);
+          if (feedback) {
+            feedbackEdges.add(dependency);
+          }
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public String dense() {
+    Dsm<Resource> dsm = new Dsm<Resource>(graph, resources, feedbackEdges);
+    DsmTopologicalSorter.sort(dsm);
+    return DsmSerializer.serialize(dsm);
+  }
+
+  @Benchmark
+  public String sparse() {
+    return DsmSerializer.serialize(graph, resources, feedbackEdges);
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.benchmarks;
+
+import com.google.common.collect.Lists;
+import com.sonar.sslr.api.AstNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.JavaTreeMaker;
+import org.sonar.java.resolve.BytecodeCache;
+import org.sonar.java.resolve.SemanticModel;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of semantic model for all files of project, with bytecode of project as classpath.
+ * Trees are created before each invocation, because semantic model is attached to them.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticModelBenchmark {
+
+  private List<AstNode> astNodes;
+  private List<CompilationUnitTree> trees;
+
+  @Setup
+  public void parse(Corpus corpus) {
+    astNodes = TreeMakerBenchmark.parse(corpus);
+  }
+
+  @Setup(Level.Invocation)
+  public void makeTrees() {
+    trees = Lists.newArrayList();
+    for (AstNode astNode : astNodes) {
+      trees.add(new JavaTreeMaker().compilationUnit(astNode));
+    }
+  }
+
+  @Benchmark
+  public void createFor(Corpus corpus, Blackhole blackhole) {
+    BytecodeCache bytecodeCache = new BytecodeCache(Collections.singletonList(corpus.getBytecodeDir()));
+    try {
+      for (CompilationUnitTree tree : trees) {
+        SemanticModel semanticModel = SemanticModel.createFor(tree, bytecodeCache);
+        semanticModel.done();
+        blackhole.consume(semanticModel);
+      }
+    } finally {
+      bytecodeCache.close();
+    }
+  }
+
+}
@@ -24,6 +24,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.Modifier;
@@ -33,6 +34,7 @@ import org.sonar.plugins.java.api.tree.Tree;
     key = AbstractClassNoFieldShouldBeInterfaceCheck.RULE_KEY,
     priority = Priority.MAJOR,
     tags = {"java8"})
+@SyntaxOnly
 public class AbstractClassNoFieldShouldBeInterfaceCheck extends BaseTreeVisitor implements JavaFileScanner {
 
 
@@ -25,6 +25,8 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
@@ -39,6 +41,8 @@ import java.util.List;
   key = AnonymousClassShouldBeLambdaCheck.RULE_KEY,
   priority = Priority.MAJOR,
   tags = {"java8"})
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.NEW_CLASS)
 public class AnonymousClassShouldBeLambdaCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "S1604";
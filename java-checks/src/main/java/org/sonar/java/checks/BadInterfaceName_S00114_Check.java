@@ -26,6 +26,7 @@ import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -37,6 +38,7 @@ import java.util.regex.Pattern;
   priority = Priority.MAJOR,
   tags={"convention"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class BadInterfaceName_S00114_Check extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "S00114";
@@ -25,6 +25,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.Tree.Kind;
 import org.sonar.plugins.java.api.tree.TypeParameterTree;
@@ -37,6 +38,7 @@ import java.util.regex.Pattern;
     priority = Priority.MAJOR,
     tags = {"convention"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class BadTypeParameterName_S00119_Check extends SubscriptionBaseVisitor {
 
   private static final String DEFAULT_FORMAT = "^[A-Z]$";
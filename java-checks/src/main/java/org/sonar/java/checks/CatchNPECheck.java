@@ -24,6 +24,8 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -37,6 +39,8 @@ import org.sonar.plugins.java.api.tree.UnionTypeTree;
     key = CatchNPECheck.RULE_KEY,
     priority = Priority.MAJOR,
     tags = {"error-handling"})
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.CATCH)
 public class CatchNPECheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "S1696";
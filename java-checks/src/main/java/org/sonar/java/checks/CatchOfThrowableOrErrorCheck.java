@@ -25,6 +25,8 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -39,6 +41,8 @@ import org.sonar.plugins.java.api.tree.UnionTypeTree;
   priority = Priority.BLOCKER,
   tags={"error-handling"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.BLOCKER)
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.CATCH)
 public class CatchOfThrowableOrErrorCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   private static final String ERROR = "Error";
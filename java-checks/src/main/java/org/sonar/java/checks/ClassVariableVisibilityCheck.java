@@ -25,6 +25,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.*;
 
 import java.util.ArrayDeque;
@@ -35,6 +36,7 @@ import java.util.List;
   key = ClassVariableVisibilityCheck.RULE_KEY,
   priority = Priority.MAJOR)
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class ClassVariableVisibilityCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "ClassVariableVisibilityCheck";
@@ -24,9 +24,11 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 
 @Rule(key = EmptyFileCheck.RULE_KEY, priority = Priority.MAJOR)
+@SyntaxOnly
 public final class EmptyFileCheck implements JavaFileScanner {
 
   public static final String RULE_KEY = "EmptyFile";
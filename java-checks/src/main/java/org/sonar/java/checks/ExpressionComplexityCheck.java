@@ -25,6 +25,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.util.Deque;
@@ -36,6 +37,7 @@ import java.util.List;
     priority = Priority.MAJOR,
     tags = {"brain-overload"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class ExpressionComplexityCheck extends SubscriptionBaseVisitor {
 
 
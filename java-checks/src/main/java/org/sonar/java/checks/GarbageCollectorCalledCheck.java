@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
@@ -35,6 +36,7 @@ import java.util.List;
     priority = Priority.CRITICAL,
     tags = {"bug"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.CRITICAL)
+@SyntaxOnly
 public class GarbageCollectorCalledCheck extends SubscriptionBaseVisitor {
 
 
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.util.List;
@@ -31,6 +32,7 @@ import java.util.List;
     key = "LabelsShouldNotBeUsedCheck",
     priority = Priority.MAJOR)
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class LabelsShouldNotBeUsedCheck extends SubscriptionBaseVisitor {
 
   @Override
@@ -26,6 +26,8 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
@@ -40,6 +42,8 @@ import java.util.List;
     tags = {"java8"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
 @Beta
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.LAMBDA_EXPRESSION)
 public class LambdaSingleExpressionCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "S1602";
@@ -24,6 +24,7 @@ import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -33,6 +34,7 @@ import java.util.List;
 @Rule(key = "MethodCyclomaticComplexity", priority = Priority.MAJOR,
     tags = {"brain-overload"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class MethodComplexityCheck extends SubscriptionBaseVisitor {
 
   private static final int DEFAULT_MAX = 10;
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -33,6 +34,7 @@ import java.util.List;
     priority = Priority.CRITICAL,
     tags = {"pitfall"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.CRITICAL)
+@SyntaxOnly
 public class MethodNamedHashcodeCheck extends SubscriptionBaseVisitor {
 
   @Override
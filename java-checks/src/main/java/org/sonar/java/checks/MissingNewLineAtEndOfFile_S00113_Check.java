@@ -24,6 +24,7 @@ import org.sonar.api.utils.SonarException;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.io.File;
@@ -33,6 +34,7 @@ import java.util.Collections;
 import java.util.List;
 
 @Rule(key = "S00113", priority = Priority.MINOR, tags = {"convention"})
+@SyntaxOnly
 public class MissingNewLineAtEndOfFile_S00113_Check extends SubscriptionBaseVisitor {
 
 
@@ -22,6 +22,7 @@ package org.sonar.java.checks;
 import com.google.common.collect.ImmutableList;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -30,6 +31,7 @@ import java.util.List;
 @Rule(
   key = "S1310",
   priority = Priority.MINOR)
+@SyntaxOnly
 public class NoPmdTagPresenceCheck extends SubscriptionBaseVisitor {
 
   private static final String PATTERN = "NOPMD";
@@ -22,6 +22,7 @@ package org.sonar.java.checks;
 import com.google.common.collect.ImmutableList;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -31,6 +32,7 @@ import java.util.List;
  * Note that {@link org.sonar.squidbridge.checks.AbstractNoSonarCheck} can't be used because of bug SSLRSQBR-16.
  */
 @Rule(key = "NoSonar", priority = Priority.INFO)
+@SyntaxOnly
 public class NoSonarCheck extends SubscriptionBaseVisitor {
 
   private static final String PATTERN = "NOSONAR";
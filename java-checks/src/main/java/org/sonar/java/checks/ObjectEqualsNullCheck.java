@@ -25,6 +25,7 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
@@ -35,6 +36,7 @@ import org.sonar.plugins.java.api.tree.Tree;
   key = ObjectEqualsNullCheck.KEY,
   priority = Priority.CRITICAL)
 @BelongsToProfile(title = "Sonar way", priority = Priority.CRITICAL)
+@SyntaxOnly
 public class ObjectEqualsNullCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String KEY = "S1318";
@@ -24,6 +24,8 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
@@ -35,6 +37,8 @@ import org.sonar.plugins.java.api.tree.Tree;
     key = ReplaceLambdaByMethodRefCheck.RULE_KEY,
     priority = Priority.MINOR,
     tags = {"java8"})
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.LAMBDA_EXPRESSION)
 public class ReplaceLambdaByMethodRefCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   public static final String RULE_KEY = "S1612";
@@ -25,9 +25,12 @@ import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
+import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TryStatementTree;
 
 import java.util.Deque;
@@ -38,6 +41,8 @@ import java.util.LinkedList;
     priority = Priority.BLOCKER,
     tags = {"bug"})
 @BelongsToProfile(title = "Sonar way", priority = Priority.BLOCKER)
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.TRY_STATEMENT)
 public class ReturnInFinallyCheck extends BaseTreeVisitor implements JavaFileScanner{
 
   public static final String RULE_KEY = "S1143";
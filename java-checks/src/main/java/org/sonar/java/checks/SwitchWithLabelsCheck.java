@@ -23,6 +23,8 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.LabeledStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
@@ -37,6 +39,8 @@ import static org.sonar.plugins.java.api.tree.Tree.Kind.LABELED_STATEMENT;
     key = "S1219",
     priority = Priority.CRITICAL)
 @BelongsToProfile(title = "Sonar way", priority = Priority.CRITICAL)
+@SyntaxOnly
+@RequiredKinds(Tree.Kind.LABELED_STATEMENT)
 public class SwitchWithLabelsCheck extends SubscriptionBaseVisitor {
 
   @Override
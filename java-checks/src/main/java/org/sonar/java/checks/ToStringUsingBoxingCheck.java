@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableSet;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodInvocationTree;
@@ -37,6 +38,7 @@ import java.util.Set;
     key = "S1158",
     priority = Priority.MAJOR)
 @BelongsToProfile(title = "Sonar way", priority = Priority.MAJOR)
+@SyntaxOnly
 public class ToStringUsingBoxingCheck extends SubscriptionBaseVisitor {
 
   private static final Set<String> PRIMITIVE_WRAPPERS = ImmutableSet.of(
@@ -23,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 import org.sonar.check.BelongsToProfile;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -32,6 +33,7 @@ import java.util.List;
     key = "S1135",
     priority = Priority.INFO)
 @BelongsToProfile(title = "Sonar way", priority = Priority.INFO)
+@SyntaxOnly
 public class TodoTagPresenceCheck extends SubscriptionBaseVisitor {
 
   private static final String PATTERN = "TODO";
@@ -30,6 +30,7 @@ import org.sonar.check.RuleProperty;
 import org.sonar.java.ast.visitors.PublicApiChecker;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
@@ -50,6 +51,7 @@ import java.util.regex.Pattern;
 
 @Rule(key = UndocumentedApiCheck.RULE_KEY, priority = Priority.MAJOR,
     tags = {"convention"})
+@SyntaxOnly
 public class UndocumentedApiCheck extends BaseTreeVisitor implements JavaFileScanner {
 
   private static final String DEFAULT_FOR_CLASSES = "**";
@@ -20,15 +20,14 @@
 package org.sonar.plugins.jacoco;
 
 import com.google.common.collect.Maps;
-import com.google.common.io.Closeables;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
 import org.apache.commons.lang.StringUtils;
-import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
 import org.jacoco.core.analysis.ICounter;
 import org.jacoco.core.analysis.ILine;
 import org.jacoco.core.analysis.ISourceFileCoverage;
 import org.jacoco.core.data.ExecutionData;
-import org.jacoco.core.data.ExecutionDataReader;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.component.ResourcePerspectives;
@@ -37,40 +36,34 @@ import org.sonar.api.measures.Measure;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
 import org.sonar.api.resources.ResourceUtils;
-import org.sonar.api.scan.filesystem.ModuleFileSystem;
-import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.test.MutableTestCase;
 import org.sonar.api.test.MutableTestPlan;
 import org.sonar.api.test.MutableTestable;
 import org.sonar.api.test.Testable;
-import org.sonar.api.utils.SonarException;
+import org.sonar.java.ParallelTasks;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.Callable;
 
 import static com.google.common.collect.Lists.newArrayList;
 
 public abstract class AbstractAnalyzer {
 
   private final ResourcePerspectives perspectives;
-  private final ModuleFileSystem fileSystem;
-  private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
+  private final JaCoCoAnalysisCache analysisCache;
 
-  private Map<String, File> classFilesCache;
-
-  public AbstractAnalyzer(ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver, JavaResourceLocator javaResourceLocator) {
+  public AbstractAnalyzer(ResourcePerspectives perspectives, JavaResourceLocator javaResourceLocator, JaCoCoAnalysisCache analysisCache) {
     this.perspectives = perspectives;
-    this.fileSystem = fileSystem;
-    this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
+    this.analysisCache = analysisCache;
   }
 
   private static String fullyQualifiedClassName(String packageName, String simpleClassName) {
@@ -78,8 +71,10 @@ public abstract class AbstractAnalyzer {
   }
 
   private Resource getResource(ISourceFileCoverage coverage, SensorContext context) {
-    String className = fullyQualifiedClassName(coverage.getPackageName(), coverage.getName());
+    return getResource(fullyQualifiedClassName(coverage.getPackageName(), coverage.getName()), context);
+  }
 
+  private Resource getResource(String className, SensorContext context) {
     Resource resourceInContext = context.getResource(javaResourceLocator.findResourceByClassName(className));
     if (resourceInContext == null) {
       // Do not save measures on resource which doesn't exist in the context
@@ -94,71 +89,20 @@ public abstract class AbstractAnalyzer {
   }
 
   public final void analyse(Project project, SensorContext context) {
-    classFilesCache = Maps.newHashMap();
-    for (File classesDir : fileSystem.binaryDirs()) {
-      populateClassFilesCache(classesDir, "");
-    }
-
-    if (classFilesCache.isEmpty()) {
+    if (analysisCache.getClassFiles().isEmpty()) {
       JaCoCoExtensions.LOG.info("No JaCoCo analysis of project coverage can be done since there is no class files.");
       return;
     }
-    String path = getReportPath(project);
-    File jacocoExecutionData = pathResolver.relativeFile(fileSystem.baseDir(), path);
-
-    try {
-      readExecutionData(jacocoExecutionData, context);
-    } catch (IOException e) {
-      throw new SonarException(e);
-    }
-
-    classFilesCache = null;
-  }
-
-  private void populateClassFilesCache(File dir, String path) {
-    File[] files = dir.listFiles();
-    if (files == null) {
-      return;
-    }
-    for (File file : files) {
-      if (file.isDirectory()) {
-        populateClassFilesCache(file, path + file.getName() + "/");
-      } else if (file.getName().endsWith(".class")) {
-        String className = path + StringUtils.removeEnd(file.getName(), ".class");
-        classFilesCache.put(className, file);
-      }
-    }
-  }
-
-  public final void readExecutionData(File jacocoExecutionData, SensorContext context) throws IOException {
-    ExecutionDataVisitor executionDataVisitor = new ExecutionDataVisitor();
-
-    if (jacocoExecutionData == null || !jacocoExecutionData.isFile()) {
+    JaCoCoAnalysisCache.Report report = getReport();
+    File jacocoExecutionData = analysisCache.getReportFile(report);
+    if (report != JaCoCoAnalysisCache.Report.OVERALL && (jacocoExecutionData == null || !jacocoExecutionData.isFile())) {
       JaCoCoExtensions.LOG.info("Project coverage is set to 0% as no JaCoCo execution data has been dumped: {}", jacocoExecutionData);
       jacocoExecutionData = null;
-    } else {
-      JaCoCoExtensions.LOG.info("Analysing {}", jacocoExecutionData);
-
-      InputStream inputStream = null;
-      try {
-        inputStream = new BufferedInputStream(new FileInputStream(jacocoExecutionData));
-        ExecutionDataReader reader = new ExecutionDataReader(inputStream);
-        reader.setSessionInfoVisitor(executionDataVisitor);
-        reader.setExecutionDataVisitor(executionDataVisitor);
-        reader.read();
-      } finally {
-        Closeables.closeQuietly(inputStream);
-      }
     }
 
-    boolean collectedCoveragePerTest = false;
-    for (Map.Entry<String, ExecutionDataStore> entry : executionDataVisitor.getSessions().entrySet()) {
-      if (analyzeLinesCoveredByTests(entry.getKey(), entry.getValue(), context)) {
-        collectedCoveragePerTest = true;
-      }
-    }
+    boolean collectedCoveragePerTest = analyzeLinesCoveredByTests(analysisCache.getSessions(report), context);
 
-    CoverageBuilder coverageBuilder = analyze(executionDataVisitor.getMerged());
+    CoverageBuilder coverageBuilder = analysisCache.takeCoverage(report);
     int analyzedResources = 0;
     for (ISourceFileCoverage coverage : coverageBuilder.getSourceFiles()) {
       Resource resource = getResource(coverage, context);
@@ -177,27 +121,45 @@ public abstract class AbstractAnalyzer {
     }
   }
 
-  private boolean analyzeLinesCoveredByTests(String sessionId, ExecutionDataStore executionDataStore, SensorContext context) {
-    int i = sessionId.indexOf(' ');
-    if (i < 0) {
-      return false;
+  /**
+   * Each class file is parsed once for all tests and analyzed once per distinct set of its executed probes or per executed probe,
+   * see {@link ClassLinesByProbe}, and coverage of tests is computed in parallel.
+   * Results are saved at the end, because {@link SensorContext} and {@link ResourcePerspectives} are not thread-safe.
+   */
+  private boolean analyzeLinesCoveredByTests(Map<String, ExecutionDataStore> sessions, SensorContext context) {
+    List<TestSession> testSessions = newArrayList();
+    for (Map.Entry<String, ExecutionDataStore> entry : sessions.entrySet()) {
+      String sessionId = entry.getKey();
+      int i = sessionId.indexOf(' ');
+      if (i >= 0) {
+        Resource testResource = context.getResource(javaResourceLocator.findResourceByClassName(sessionId.substring(0, i)));
+        if (testResource != null) {
+          testSessions.add(new TestSession(testResource, sessionId.substring(i + 1), entry.getValue()));
+        }
+      }
     }
-    String testClassName = sessionId.substring(0, i);
-    String testName = sessionId.substring(i + 1);
-    Resource testResource = context.getResource(javaResourceLocator.findResourceByClassName(testClassName));
-    if (testResource == null) {
-      // No such test class
+    if (testSessions.isEmpty()) {
       return false;
     }
 
+    final Map<String, ClassLinesByProbe> classes = analyzeClassesCoveredByTests(testSessions);
+    List<Callable<Map<String, SortedSet<Integer>>>> tasks = newArrayList();
+    for (final TestSession testSession : testSessions) {
+      tasks.add(new Callable<Map<String, SortedSet<Integer>>>() {
+        @Override
+        public Map<String, SortedSet<Integer>> call() {
+          return coveredLinesBySourceClass(classes, testSession.executionDataStore);
+        }
+      });
+    }
+    List<Map<String, SortedSet<Integer>>> coverageByTest = invokeAll(tasks);
+
     boolean result = false;
-    CoverageBuilder coverageBuilder = analyze2(executionDataStore);
-    for (ISourceFileCoverage coverage : coverageBuilder.getSourceFiles()) {
-      Resource resource = getResource(coverage, context);
-      if (resource != null) {
-        CoverageMeasuresBuilder builder = analyzeFile(resource, coverage);
-        List<Integer> coveredLines = getCoveredLines(builder);
-        if (!coveredLines.isEmpty() && addCoverage(resource, testResource, testName, coveredLines)) {
+    for (int i = 0; i < testSessions.size(); i++) {
+      TestSession testSession = testSessions.get(i);
+      for (Map.Entry<String, SortedSet<Integer>> entry : coverageByTest.get(i).entrySet()) {
+        Resource resource = getResource(entry.getKey(), context);
+        if (resource != null && addCoverage(resource, testSession.testResource, testSession.testName, newArrayList(entry.getValue()))) {
           result = true;
         }
       }
@@ -205,27 +167,83 @@ public abstract class AbstractAnalyzer {
     return result;
   }
 
-  private CoverageBuilder analyze2(ExecutionDataStore executionDataStore) {
-    CoverageBuilder coverageBuilder = new CoverageBuilder();
-    Analyzer analyzer = new Analyzer(executionDataStore, coverageBuilder);
-    for (ExecutionData data : executionDataStore.getContents()) {
-      String vmClassName = data.getName();
-      File classFile = classFilesCache.get(vmClassName);
-      if (classFile != null) {
-        analyzeClassFile(analyzer, classFile);
+  private Map<String, ClassLinesByProbe> analyzeClassesCoveredByTests(List<TestSession> testSessions) {
+    Map<String, File> classFiles = analysisCache.getClassFiles();
+    Map<String, List<ExecutionData>> executionsByClass = Maps.newHashMap();
+    for (TestSession testSession : testSessions) {
+      for (ExecutionData data : testSession.executionDataStore.getContents()) {
+        if (classFiles.containsKey(data.getName())) {
+          List<ExecutionData> executions = executionsByClass.get(data.getName());
+          if (executions == null) {
+            executions = newArrayList();
+            executionsByClass.put(data.getName(), executions);
+          }
+          executions.add(data);
+        }
       }
     }
-    return coverageBuilder;
+    List<String> classNames = newArrayList(executionsByClass.keySet());
+    List<Callable<ClassLinesByProbe>> tasks = newArrayList();
+    for (String className : classNames) {
+      final File classFile = classFiles.get(className);
+      final List<ExecutionData> executions = executionsByClass.get(className);
+      tasks.add(new Callable<ClassLinesByProbe>() {
+        @Override
+        public ClassLinesByProbe call() {
+          try {
+            return ClassLinesByProbe.analyze(Files.toByteArray(classFile), executions);
+          } catch (IOException e) {
+            JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+            return null;
+          }
+        }
+      });
+    }
+    List<ClassLinesByProbe> analyzedClasses = invokeAll(tasks);
+    Map<String, ClassLinesByProbe> result = Maps.newHashMap();
+    for (int i = 0; i < classNames.size(); i++) {
+      if (analyzedClasses.get(i) != null) {
+        result.put(classNames.get(i), analyzedClasses.get(i));
+      }
+    }
+    return result;
   }
 
-  private List<Integer> getCoveredLines(CoverageMeasuresBuilder builder) {
-    List<Integer> linesCover = newArrayList();
-    for (Map.Entry<Integer, Integer> hitsByLine : builder.getHitsByLine().entrySet()) {
-      if (hitsByLine.getValue() > 0) {
-        linesCover.add(hitsByLine.getKey());
+  private static Map<String, SortedSet<Integer>> coveredLinesBySourceClass(Map<String, ClassLinesByProbe> classes, ExecutionDataStore executionDataStore) {
+    Map<String, SortedSet<Integer>> result = Maps.newHashMap();
+    for (ExecutionData data : executionDataStore.getContents()) {
+      ClassLinesByProbe classLinesByProbe = classes.get(data.getName());
+      if (classLinesByProbe != null) {
+        SortedSet<Integer> lines = result.get(classLinesByProbe.getSourceClassName());
+        if (lines == null) {
+          lines = Sets.newTreeSet();
+          result.put(classLinesByProbe.getSourceClassName(), lines);
+        }
+        classLinesByProbe.addCoveredLines(data, lines);
       }
     }
-    return linesCover;
+    for (Iterator<SortedSet<Integer>> iterator = result.values().iterator(); iterator.hasNext();) {
+      if (iterator.next().isEmpty()) {
+        iterator.remove();
+      }
+    }
+    return result;
+  }
+
+  private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    return ParallelTasks.invokeAll(analysisCache.getThreads(), "jacoco-analyzer-%d", tasks);
+  }
+
+  private static class TestSession {
+    private final Resource testResource;
+    private final String testName;
+    private final ExecutionDataStore executionDataStore;
+
+    TestSession(Resource testResource, String testName, ExecutionDataStore executionDataStore) {
+      this.testResource = testResource;
+      this.testName = testName;
+      this.executionDataStore = executionDataStore;
+    }
   }
 
   private boolean addCoverage(Resource resource, Resource testFile, String testName, List<Integer> coveredLines) {
@@ -243,31 +261,6 @@ public abstract class AbstractAnalyzer {
     return result;
   }
 
-  private CoverageBuilder analyze(ExecutionDataStore executionDataStore) {
-    CoverageBuilder coverageBuilder = new CoverageBuilder();
-    Analyzer analyzer = new Analyzer(executionDataStore, coverageBuilder);
-    for (File classFile : classFilesCache.values()) {
-      analyzeClassFile(analyzer, classFile);
-    }
-    return coverageBuilder;
-  }
-
-  /**
-   * Caller must guarantee that {@code classFile} is actually class file.
-   */
-  private void analyzeClassFile(Analyzer analyzer, File classFile) {
-    InputStream inputStream = null;
-    try {
-      inputStream = new FileInputStream(classFile);
-      analyzer.analyzeClass(inputStream, classFile.getPath());
-    } catch (IOException e) {
-      // (Godin): in fact JaCoCo includes name into exception
-      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
-    } finally {
-      Closeables.closeQuietly(inputStream);
-    }
-  }
-
   private CoverageMeasuresBuilder analyzeFile(Resource resource, ISourceFileCoverage coverage) {
     CoverageMeasuresBuilder builder = CoverageMeasuresBuilder.create();
     for (int lineId = coverage.getFirstLine(); lineId <= coverage.getLastLine(); lineId++) {
@@ -301,6 +294,6 @@ public abstract class AbstractAnalyzer {
 
   protected abstract void saveMeasures(SensorContext context, Resource resource, Collection<Measure> measures);
 
-  protected abstract String getReportPath(Project project);
+  protected abstract JaCoCoAnalysisCache.Report getReport();
 
 }
@@ -0,0 +1,201 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2010 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import org.apache.commons.lang.StringUtils;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.objectweb.asm.ClassReader;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Lines of a class, which are covered by each of execution data recorded for it by tests.
+ * <p/>
+ * JaCoCo marks an instruction as covered, when it precedes an executed probe in control flow, and line is covered,
+ * when at least one of its instructions is covered. So lines covered by a set of executed probes are exactly
+ * the union of lines covered by each of them. Class is parsed once, and then analyzed either once per distinct set of executed probes,
+ * or once per probe executed by at least one test, whichever is fewer.
+ */
+class ClassLinesByProbe {
+
+  private final long classId;
+  private final String sourceClassName;
+  private final Map<Probes, int[]> linesByProbes;
+
+  private ClassLinesByProbe(long classId, String sourceClassName, Map<Probes, int[]> linesByProbes) {
+    this.classId = classId;
+    this.sourceClassName = sourceClassName;
+    this.linesByProbes = linesByProbes;
+  }
+
+  /**
+   * @param executions execution data recorded for class with this name by all tests, only those matching this version of class are analyzed
+   * @return null if class has no information about source file, so that its coverage can't be saved, or if none of executions matches it
+   */
+  @CheckForNull
+  static ClassLinesByProbe analyze(byte[] classBytes, Collection<ExecutionData> executions) {
+    ClassReader classReader = new ClassReader(classBytes);
+    IClassCoverage classCoverage = analyzeClass(classReader, null);
+    if (classCoverage == null) {
+      return null;
+    }
+    ExecutionData data = null;
+    Set<Probes> distinctProbes = Sets.newLinkedHashSet();
+    for (ExecutionData execution : executions) {
+      if (execution.getId() == classCoverage.getId()) {
+        data = execution;
+        distinctProbes.add(new Probes(execution.getProbes()));
+      }
+    }
+    if (data == null) {
+      return null;
+    }
+    int probesCount = data.getProbes().length;
+    boolean[] executedProbes = new boolean[probesCount];
+    int executedProbesCount = 0;
+    for (Probes probes : distinctProbes) {
+      for (int probe = 0; probe < probesCount; probe++) {
+        if (probes.probes[probe] && !executedProbes[probe]) {
+          executedProbes[probe] = true;
+          executedProbesCount++;
+        }
+      }
+    }
+
+    Map<Probes, int[]> linesByProbes = Maps.newHashMap();
+    if (distinctProbes.size() <= executedProbesCount) {
+      for (Probes probes : distinctProbes) {
+        linesByProbes.put(probes, coveredLines(analyzeClass(classReader, new ExecutionData(data.getId(), data.getName(), probes.probes))));
+      }
+    } else {
+      int[][] linesByProbe = new int[probesCount][];
+      for (int probe = 0; probe < probesCount; probe++) {
+        if (executedProbes[probe]) {
+          boolean[] probes = new boolean[probesCount];
+          probes[probe] = true;
+          linesByProbe[probe] = coveredLines(analyzeClass(classReader, new ExecutionData(data.getId(), data.getName(), probes)));
+        }
+      }
+      for (Probes probes : distinctProbes) {
+        SortedSet<Integer> lines = Sets.newTreeSet();
+        for (int probe = 0; probe < probesCount; probe++) {
+          if (probes.probes[probe]) {
+            lines.addAll(Ints.asList(linesByProbe[probe]));
+          }
+        }
+        linesByProbes.put(probes, Ints.toArray(lines));
+      }
+    }
+    return new ClassLinesByProbe(classCoverage.getId(), sourceClassName(classCoverage), linesByProbes);
+  }
+
+  @CheckForNull
+  private static IClassCoverage analyzeClass(ClassReader classReader, @Nullable ExecutionData data) {
+    ExecutionDataStore executionDataStore = new ExecutionDataStore();
+    if (data != null) {
+      executionDataStore.put(data);
+    }
+    CoverageBuilder coverageBuilder = new CoverageBuilder();
+    new Analyzer(executionDataStore, coverageBuilder).analyzeClass(classReader);
+    for (IClassCoverage classCoverage : coverageBuilder.getClasses()) {
+      if (classCoverage.getSourceFileName() != null) {
+        return classCoverage;
+      }
+    }
+    return null;
+  }
+
+  private static int[] coveredLines(IClassCoverage classCoverage) {
+    List<Integer> lines = newArrayList();
+    for (int lineId = classCoverage.getFirstLine(); lineId <= classCoverage.getLastLine(); lineId++) {
+      int status = classCoverage.getLine(lineId).getInstructionCounter().getStatus();
+      if (status == ICounter.FULLY_COVERED || status == ICounter.PARTLY_COVERED) {
+        lines.add(lineId);
+      }
+    }
+    return Ints.toArray(lines);
+  }
+
+  private static String sourceClassName(IClassCoverage classCoverage) {
+    String packageName = classCoverage.getPackageName();
+    String simpleClassName = StringUtils.substringBeforeLast(classCoverage.getSourceFileName(), ".");
+    return "".equals(packageName) ? simpleClassName : (packageName + "/" + simpleClassName);
+  }
+
+  /**
+   * @return name of class, which corresponds to source file of this class, as expected by {@link org.sonar.plugins.java.api.JavaResourceLocator}
+   */
+  String getSourceClassName() {
+    return sourceClassName;
+  }
+
+  /**
+   * Adds lines covered by given execution data, which must be one of given to {@link #analyze(byte[], Collection)},
+   * and which is ignored if it was recorded for another version of class.
+   */
+  void addCoveredLines(ExecutionData data, Collection<Integer> lines) {
+    int[] coveredLines = data.getId() == classId ? linesByProbes.get(new Probes(data.getProbes())) : null;
+    if (coveredLines != null) {
+      lines.addAll(Ints.asList(coveredLines));
+    }
+  }
+
+  /**
+   * Probes of execution data with value semantics, so that tests executing the same probes share results of analysis.
+   */
+  private static final class Probes {
+    private final boolean[] probes;
+    private final int hashCode;
+
+    Probes(boolean[] probes) {
+      this.probes = probes;
+      this.hashCode = Arrays.hashCode(probes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Probes && Arrays.equals(probes, ((Probes) obj).probes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
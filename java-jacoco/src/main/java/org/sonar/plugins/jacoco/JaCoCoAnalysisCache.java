@@ -0,0 +1,257 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2010 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import org.apache.commons.lang.StringUtils;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataReader;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.objectweb.asm.ClassReader;
+import org.sonar.api.BatchExtension;
+import org.sonar.api.scan.filesystem.ModuleFileSystem;
+import org.sonar.api.scan.filesystem.PathResolver;
+import org.sonar.api.utils.SonarException;
+
+import javax.annotation.CheckForNull;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class files and execution data of a module, which are loaded once and shared by {@link JaCoCoSensor}, {@link JaCoCoItSensor} and {@link JaCoCoOverallSensor}.
+ * <p/>
+ * Overall execution data is merged in memory from execution data of unit and integration tests.
+ * Class files are analyzed in a single pass for reports of unit and integration tests, which were found, so that each class file is read and parsed
+ * only once for both of them. Overall report is analyzed in a separate pass, when it is requested, so that at most two coverage models are held
+ * at once, rather than three. Results of analysis are released as soon as they are taken by a sensor.
+ */
+public class JaCoCoAnalysisCache implements BatchExtension {
+
+  public enum Report {
+    UNIT_TESTS, INTEGRATION_TESTS, OVERALL
+  }
+
+  private final JacocoConfiguration configuration;
+  private final ModuleFileSystem fileSystem;
+  private final PathResolver pathResolver;
+
+  private Map<String, File> classFiles;
+  private final Map<Report, ExecutionDataVisitor> executionData = Maps.newEnumMap(Report.class);
+  private ExecutionDataStore overallExecutionData;
+  private final Map<Report, CoverageBuilder> coverage = Maps.newEnumMap(Report.class);
+  private boolean analyzedFoundTestsReports = false;
+
+  public JaCoCoAnalysisCache(JacocoConfiguration configuration, ModuleFileSystem fileSystem, PathResolver pathResolver) {
+    this.configuration = configuration;
+    this.fileSystem = fileSystem;
+    this.pathResolver = pathResolver;
+  }
+
+  /**
+   * @return number of threads used by analyzers to compute coverage per test
+   */
+  public int getThreads() {
+    return configuration.getThreads();
+  }
+
+  /**
+   * @return class files from binary directories by names of classes
+   */
+  public Map<String, File> getClassFiles() {
+    if (classFiles == null) {
+      classFiles = Maps.newHashMap();
+      for (File classesDir : fileSystem.binaryDirs()) {
+        populateClassFiles(classesDir, "");
+      }
+    }
+    return classFiles;
+  }
+
+  private void populateClassFiles(File dir, String path) {
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        populateClassFiles(file, path + file.getName() + "/");
+      } else if (file.getName().endsWith(".class")) {
+        String className = path + StringUtils.removeEnd(file.getName(), ".class");
+        classFiles.put(className, file);
+      }
+    }
+  }
+
+  /**
+   * @return file of given report, or null for overall report, which is merged in memory
+   */
+  @CheckForNull
+  public File getReportFile(Report report) {
+    switch (report) {
+      case UNIT_TESTS:
+        return pathResolver.relativeFile(fileSystem.baseDir(), configuration.getReportPath());
+      case INTEGRATION_TESTS:
+        return pathResolver.relativeFile(fileSystem.baseDir(), configuration.getItReportPath());
+      default:
+        return null;
+    }
+  }
+
+  private boolean isFound(Report report) {
+    File reportFile = getReportFile(report);
+    return reportFile != null && reportFile.isFile();
+  }
+
+  /**
+   * @return execution data of each session of given report, empty for overall report
+   */
+  public Map<String, ExecutionDataStore> getSessions(Report report) {
+    if (report == Report.OVERALL) {
+      return ImmutableMap.of();
+    }
+    return getExecutionDataVisitor(report).getSessions();
+  }
+
+  /**
+   * @return execution data of all sessions of given report
+   */
+  public ExecutionDataStore getMergedExecutionData(Report report) {
+    if (report != Report.OVERALL) {
+      return getExecutionDataVisitor(report).getMerged();
+    }
+    if (overallExecutionData == null) {
+      overallExecutionData = new ExecutionDataStore();
+      for (Report testsReport : new Report[] {Report.UNIT_TESTS, Report.INTEGRATION_TESTS}) {
+        for (ExecutionData data : getMergedExecutionData(testsReport).getContents()) {
+          overallExecutionData.put(ExecutionDataVisitor.defensiveCopy(data));
+        }
+      }
+    }
+    return overallExecutionData;
+  }
+
+  private ExecutionDataVisitor getExecutionDataVisitor(Report report) {
+    ExecutionDataVisitor visitor = executionData.get(report);
+    if (visitor == null) {
+      visitor = new ExecutionDataVisitor();
+      File reportFile = getReportFile(report);
+      if (reportFile != null && reportFile.isFile()) {
+        JaCoCoExtensions.LOG.info("Analysing {}", reportFile);
+        read(reportFile, visitor);
+      }
+      executionData.put(report, visitor);
+    }
+    return visitor;
+  }
+
+  private static void read(File reportFile, ExecutionDataVisitor visitor) {
+    InputStream inputStream = null;
+    try {
+      inputStream = new BufferedInputStream(new FileInputStream(reportFile));
+      ExecutionDataReader reader = new ExecutionDataReader(inputStream);
+      reader.setSessionInfoVisitor(visitor);
+      reader.setExecutionDataVisitor(visitor);
+      reader.read();
+    } catch (IOException e) {
+      throw new SonarException(String.format("Unable to read %s", reportFile.getAbsolutePath()), e);
+    } finally {
+      Closeables.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * First call for unit or integration tests analyzes class files for both reports, which were found, subsequent calls take results of this analysis.
+   * Report, which was not found, and overall report are analyzed separately, the latter one doesn't need to keep results for the others,
+   * which are usually taken before it.
+   */
+  public CoverageBuilder takeCoverage(Report report) {
+    CoverageBuilder result = coverage.remove(report);
+    if (result == null) {
+      Set<Report> reports = EnumSet.of(report);
+      if (report != Report.OVERALL && !analyzedFoundTestsReports) {
+        analyzedFoundTestsReports = true;
+        for (Report other : new Report[] {Report.UNIT_TESTS, Report.INTEGRATION_TESTS}) {
+          if (isFound(other)) {
+            reports.add(other);
+          }
+        }
+      }
+      analyze(reports);
+      result = coverage.remove(report);
+    }
+    return result;
+  }
+
+  @VisibleForTesting
+  Set<Report> getCoverageToTake() {
+    return coverage.keySet();
+  }
+
+  private void analyze(Set<Report> reports) {
+    Map<Report, Analyzer> analyzers = Maps.newEnumMap(Report.class);
+    for (Report report : reports) {
+      CoverageBuilder coverageBuilder = new CoverageBuilder();
+      coverage.put(report, coverageBuilder);
+      analyzers.put(report, new Analyzer(getMergedExecutionData(report), coverageBuilder));
+    }
+    for (File classFile : getClassFiles().values()) {
+      ClassReader classReader = read(classFile);
+      if (classReader != null) {
+        for (Analyzer analyzer : analyzers.values()) {
+          analyzeClass(analyzer, classReader, classFile);
+        }
+      }
+    }
+  }
+
+  @CheckForNull
+  private static ClassReader read(File classFile) {
+    try {
+      return new ClassReader(Files.toByteArray(classFile));
+    } catch (IOException e) {
+      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+    } catch (RuntimeException e) {
+      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+    }
+    return null;
+  }
+
+  private static void analyzeClass(Analyzer analyzer, ClassReader classReader, File classFile) {
+    try {
+      analyzer.analyzeClass(classReader);
+    } catch (RuntimeException e) {
+      JaCoCoExtensions.LOG.warn("Exception during analysis of file " + classFile.getAbsolutePath(), e);
+    }
+  }
+
+}
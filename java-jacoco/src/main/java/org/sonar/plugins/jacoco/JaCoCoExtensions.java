@@ -39,6 +39,7 @@ public class JaCoCoExtensions {
     extensions.addAll(JacocoConfiguration.getPropertyDefinitions());
     extensions.add(
       JacocoConfiguration.class,
+      JaCoCoAnalysisCache.class,
       // Unit tests
       JaCoCoSensor.class,
       // Integration tests
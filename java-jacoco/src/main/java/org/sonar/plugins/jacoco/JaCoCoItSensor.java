@@ -39,14 +39,16 @@ public class JaCoCoItSensor implements Sensor {
   private final ModuleFileSystem fileSystem;
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
+  private final JaCoCoAnalysisCache analysisCache;
 
   public JaCoCoItSensor(JacocoConfiguration configuration, ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-                        JavaResourceLocator javaResourceLocator) {
+                        JavaResourceLocator javaResourceLocator, JaCoCoAnalysisCache analysisCache) {
     this.configuration = configuration;
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
+    this.analysisCache = analysisCache;
   }
 
   public boolean shouldExecuteOnProject(Project project) {
@@ -65,12 +67,12 @@ public class JaCoCoItSensor implements Sensor {
 
   class ITAnalyzer extends AbstractAnalyzer {
     public ITAnalyzer(ResourcePerspectives perspectives) {
-      super(perspectives, fileSystem, pathResolver, javaResourceLocator);
+      super(perspectives, javaResourceLocator, analysisCache);
     }
 
     @Override
-    protected String getReportPath(Project project) {
-      return configuration.getItReportPath();
+    protected JaCoCoAnalysisCache.Report getReport() {
+      return JaCoCoAnalysisCache.Report.INTEGRATION_TESTS;
     }
 
     @Override
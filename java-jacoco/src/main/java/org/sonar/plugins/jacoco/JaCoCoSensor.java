@@ -40,14 +40,16 @@ public class JaCoCoSensor implements Sensor {
   private final ModuleFileSystem fileSystem;
   private final PathResolver pathResolver;
   private final JavaResourceLocator javaResourceLocator;
+  private final JaCoCoAnalysisCache analysisCache;
 
   public JaCoCoSensor(JacocoConfiguration configuration, ResourcePerspectives perspectives, ModuleFileSystem fileSystem, PathResolver pathResolver,
-                      JavaResourceLocator javaResourceLocator) {
+                      JavaResourceLocator javaResourceLocator, JaCoCoAnalysisCache analysisCache) {
     this.configuration = configuration;
     this.perspectives = perspectives;
     this.fileSystem = fileSystem;
     this.pathResolver = pathResolver;
     this.javaResourceLocator = javaResourceLocator;
+    this.analysisCache = analysisCache;
   }
 
   /**
@@ -74,12 +76,12 @@ public class JaCoCoSensor implements Sensor {
 
   class UnitTestsAnalyzer extends AbstractAnalyzer {
     public UnitTestsAnalyzer(ResourcePerspectives perspectives) {
-      super(perspectives, fileSystem, pathResolver, javaResourceLocator);
+      super(perspectives, javaResourceLocator, analysisCache);
     }
 
     @Override
-    protected String getReportPath(Project project) {
-      return configuration.getReportPath();
+    protected JaCoCoAnalysisCache.Report getReport() {
+      return JaCoCoAnalysisCache.Report.UNIT_TESTS;
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Qualifiers;
+import org.sonar.java.ParallelTasks;
 
 import java.util.List;
 
@@ -55,6 +56,13 @@ public class JacocoConfiguration implements BatchExtension {
     return fileSystem.hasFiles(fileSystem.predicates().hasLanguage("java"));
   }
 
+  /**
+   * @return number of threads used to compute coverage per test
+   */
+  public int getThreads() {
+    return ParallelTasks.threads(settings);
+  }
+
   public String getReportPath() {
     return settings.getString(REPORT_PATH_PROPERTY);
   }
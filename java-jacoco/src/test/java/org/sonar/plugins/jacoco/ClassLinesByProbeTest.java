@@ -0,0 +1,135 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2010 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataReader;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonar.test.TestUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ClassLinesByProbeTest {
+
+  private byte[] classBytes;
+  private ExecutionData data;
+
+  @Before
+  public void setUp() throws IOException {
+    classBytes = Files.toByteArray(TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCoSensorTest2/org/example/App.class.toCopy"));
+    ExecutionDataVisitor visitor = new ExecutionDataVisitor();
+    InputStream in = new FileInputStream(TestUtils.getResource("/org/sonar/plugins/jacoco/JaCoCoSensorTest2/jacoco.exec"));
+    try {
+      ExecutionDataReader reader = new ExecutionDataReader(in);
+      reader.setSessionInfoVisitor(visitor);
+      reader.setExecutionDataVisitor(visitor);
+      reader.read();
+    } finally {
+      in.close();
+    }
+    data = find(visitor.getMerged(), "org/example/App");
+  }
+
+  private static ExecutionData find(ExecutionDataStore store, String name) {
+    for (ExecutionData executionData : store.getContents()) {
+      if (executionData.getName().equals(name)) {
+        return executionData;
+      }
+    }
+    throw new IllegalStateException(name);
+  }
+
+  @Test
+  public void should_give_same_lines_as_analysis_of_class_when_analyzed_per_probe() throws IOException {
+    int probesCount = data.getProbes().length;
+    assertThat(probesCount).isGreaterThan(1);
+    List<ExecutionData> executions = Lists.newArrayList(execution(new boolean[probesCount]), data);
+    for (int probe = 0; probe < probesCount; probe++) {
+      boolean[] probes = new boolean[probesCount];
+      probes[probe] = true;
+      probes[(probe + 1) % probesCount] = true;
+      executions.add(execution(probes));
+    }
+    assertSameLinesAsAnalysisOfClass(executions);
+  }
+
+  @Test
+  public void should_give_same_lines_as_analysis_of_class_when_analyzed_per_execution() throws IOException {
+    assertSameLinesAsAnalysisOfClass(ImmutableList.of(data, execution(data.getProbes()), execution(new boolean[data.getProbes().length])));
+  }
+
+  private void assertSameLinesAsAnalysisOfClass(List<ExecutionData> executions) throws IOException {
+    ClassLinesByProbe classLinesByProbe = ClassLinesByProbe.analyze(classBytes, executions);
+    assertThat(classLinesByProbe.getSourceClassName()).isEqualTo("org/example/App");
+    for (ExecutionData execution : executions) {
+      Set<Integer> lines = Sets.newTreeSet();
+      classLinesByProbe.addCoveredLines(execution(execution.getProbes().clone()), lines);
+      assertThat(lines).isEqualTo(analyzeClass(execution));
+    }
+  }
+
+  private ExecutionData execution(boolean[] probes) {
+    return new ExecutionData(data.getId(), data.getName(), probes);
+  }
+
+  @Test
+  public void should_ignore_execution_data_of_another_version_of_class() {
+    ClassLinesByProbe classLinesByProbe = ClassLinesByProbe.analyze(classBytes, ImmutableList.of(data));
+    Set<Integer> lines = Sets.newTreeSet();
+    classLinesByProbe.addCoveredLines(new ExecutionData(data.getId() + 1, data.getName(), data.getProbes()), lines);
+    assertThat(lines).isEmpty();
+
+    assertThat(ClassLinesByProbe.analyze(classBytes, ImmutableList.of(new ExecutionData(data.getId() + 1, data.getName(), data.getProbes())))).isNull();
+  }
+
+  private Set<Integer> analyzeClass(ExecutionData execution) throws IOException {
+    ExecutionDataStore store = new ExecutionDataStore();
+    store.put(execution);
+    CoverageBuilder coverageBuilder = new CoverageBuilder();
+    new Analyzer(store, coverageBuilder).analyzeClass(classBytes, data.getName());
+    Set<Integer> lines = Sets.newTreeSet();
+    for (IClassCoverage classCoverage : coverageBuilder.getClasses()) {
+      for (int line = classCoverage.getFirstLine(); line <= classCoverage.getLastLine(); line++) {
+        int status = classCoverage.getLine(line).getInstructionCounter().getStatus();
+        if (status == ICounter.FULLY_COVERED || status == ICounter.PARTLY_COVERED) {
+          lines.add(line);
+        }
+      }
+    }
+    return lines;
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2010 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.jacoco;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.ICounter;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonar.api.scan.filesystem.ModuleFileSystem;
+import org.sonar.api.scan.filesystem.PathResolver;
+import org.sonar.test.TestUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JaCoCoAnalysisCacheTest {
+
+  private JaCoCoAnalysisCache cache;
+
+  @Before
+  public void before() throws IOException {
+    File outputDir = TestUtils.getResource(JaCoCoOverallSensorTest.class, ".");
+    Files.copy(TestUtils.getResource("HelloWorld.class.toCopy"), new File(outputDir, "HelloWorld.class"));
+
+    JacocoConfiguration configuration = mock(JacocoConfiguration.class);
+    when(configuration.getReportPath()).thenReturn("ut.exec");
+    when(configuration.getItReportPath()).thenReturn("it.exec");
+    ModuleFileSystem fileSystem = mock(ModuleFileSystem.class);
+    when(fileSystem.binaryDirs()).thenReturn(ImmutableList.of(outputDir));
+    PathResolver pathResolver = mock(PathResolver.class);
+    when(pathResolver.relativeFile(any(File.class), eq("ut.exec"))).thenReturn(new File(outputDir, "ut.exec"));
+    when(pathResolver.relativeFile(any(File.class), eq("it.exec"))).thenReturn(new File(outputDir, "it.exec"));
+
+    cache = new JaCoCoAnalysisCache(configuration, fileSystem, pathResolver);
+  }
+
+  @Test
+  public void should_merge_overall_execution_data_in_memory() {
+    assertThat(cache.getReportFile(JaCoCoAnalysisCache.Report.OVERALL)).isNull();
+    assertThat(cache.getSessions(JaCoCoAnalysisCache.Report.OVERALL)).isEmpty();
+    assertThat(cache.getSessions(JaCoCoAnalysisCache.Report.UNIT_TESTS)).isNotEmpty();
+    assertThat(cache.getMergedExecutionData(JaCoCoAnalysisCache.Report.OVERALL).getContents()).isNotEmpty();
+  }
+
+  @Test
+  public void should_analyze_tests_reports_at_once_and_overall_report_separately() {
+    CoverageBuilder unitTests = cache.takeCoverage(JaCoCoAnalysisCache.Report.UNIT_TESTS);
+    assertThat(cache.getCoverageToTake()).containsOnly(JaCoCoAnalysisCache.Report.INTEGRATION_TESTS);
+    CoverageBuilder integrationTests = cache.takeCoverage(JaCoCoAnalysisCache.Report.INTEGRATION_TESTS);
+    assertThat(cache.getCoverageToTake()).isEmpty();
+    CoverageBuilder overall = cache.takeCoverage(JaCoCoAnalysisCache.Report.OVERALL);
+    assertThat(cache.getCoverageToTake()).isEmpty();
+
+    assertThat(missedLines(unitTests)).isEqualTo(6);
+    assertThat(missedLines(integrationTests)).isEqualTo(5);
+    assertThat(missedLines(overall)).isEqualTo(2);
+
+    assertThat(cache.takeCoverage(JaCoCoAnalysisCache.Report.OVERALL)).isNotSameAs(overall);
+  }
+
+  @Test
+  public void should_not_keep_results_for_tests_reports_when_overall_report_is_taken_first() {
+    CoverageBuilder overall = cache.takeCoverage(JaCoCoAnalysisCache.Report.OVERALL);
+    assertThat(cache.getCoverageToTake()).isEmpty();
+    CoverageBuilder unitTests = cache.takeCoverage(JaCoCoAnalysisCache.Report.UNIT_TESTS);
+    assertThat(cache.getCoverageToTake()).containsOnly(JaCoCoAnalysisCache.Report.INTEGRATION_TESTS);
+
+    assertThat(missedLines(overall)).isEqualTo(2);
+    assertThat(missedLines(unitTests)).isEqualTo(6);
+  }
+
+  private static int missedLines(CoverageBuilder coverageBuilder) {
+    ICounter lineCounter = coverageBuilder.getBundle("").getLineCounter();
+    return lineCounter.getMissedCount();
+  }
+
+}
@@ -81,7 +81,8 @@ public class JaCoCoSensorTest {
 
     configuration = mock(JacocoConfiguration.class);
     perspectives = mock(ResourcePerspectives.class);
-    sensor = new JaCoCoSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator);
+    sensor = new JaCoCoSensor(configuration, perspectives, fileSystem, pathResolver, javaResourceLocator,
+      new JaCoCoAnalysisCache(configuration, fileSystem, pathResolver));
   }
 
   @Test
@@ -0,0 +1,349 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates wall time, CPU time and allocated bytes of phases of analysis, of each check and of each file.
+ * CPU time and allocated bytes are measured for current thread, so a measure must be started and stopped by the same thread,
+ * and they are not available (equal to -1) when not supported by JVM.
+ * <p/>
+ * Thread-safe, because files are parsed in parallel.
+ */
+public class AnalysisProfiler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisProfiler.class);
+
+  public static final String PHASE = "phase";
+  public static final String JAVA_FILE_SCANNER = "scanner";
+  public static final String BYTECODE_VISITOR = "bytecode visitor";
+
+  public static final String PARSE = "parse";
+  public static final String TREE_BUILD = "tree build";
+  public static final String SEMANTIC_MODEL = "semantic model";
+  public static final String NODE_KINDS = "node kinds";
+  public static final String BYTECODE_LOAD = "bytecode load";
+
+  private final ThreadMXBean threadMXBean;
+  private final boolean cpuTimeSupported;
+  private final Method threadAllocatedBytes;
+  private final boolean allocatedBytesSupported;
+  private final ConcurrentMap<String, ConcurrentMap<String, Counter>> counters = Maps.newConcurrentMap();
+  private final ConcurrentMap<String, Counter> files = Maps.newConcurrentMap();
+
+  public AnalysisProfiler() {
+    threadMXBean = ManagementFactory.getThreadMXBean();
+    cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled();
+    threadAllocatedBytes = threadAllocatedBytesMethod(threadMXBean);
+    allocatedBytesSupported = threadAllocatedBytes != null;
+  }
+
+  /**
+   * {@code com.sun.management.ThreadMXBean} is not part of Java API, so it is accessed by reflection.
+   */
+  @CheckForNull
+  private static Method threadAllocatedBytesMethod(ThreadMXBean threadMXBean) {
+    try {
+      Class<?> sunThreadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+      if (sunThreadMXBean.isInstance(threadMXBean)
+        && (Boolean) sunThreadMXBean.getMethod("isThreadAllocatedMemorySupported").invoke(threadMXBean)
+        && (Boolean) sunThreadMXBean.getMethod("isThreadAllocatedMemoryEnabled").invoke(threadMXBean)) {
+        return sunThreadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+      }
+    } catch (Exception e) {
+      LOG.debug("Allocated bytes are not supported by JVM", e);
+    }
+    return null;
+  }
+
+  public Measure start() {
+    return new Measure(System.nanoTime(), cpuTime(), allocatedBytes());
+  }
+
+  /**
+   * @param category {@link #PHASE}, {@link #JAVA_FILE_SCANNER} or {@link #BYTECODE_VISITOR}
+   * @param name name of phase or class of check
+   */
+  public void stop(Measure measure, String category, String name) {
+    add(countersOf(category), name, measure);
+  }
+
+  /**
+   * Counts execution of given check on a file, which was skipped, because file doesn't contain required kinds of nodes.
+   */
+  public void skip(String category, String name) {
+    counter(countersOf(category), name).skip();
+  }
+
+  /**
+   * Same as {@link #stop(Measure, String, String)}, but additionally time is attributed to given file.
+   */
+  public void stop(Measure measure, String category, String name, File file) {
+    stop(measure, category, name);
+    add(files, file.getPath(), measure);
+  }
+
+  private void add(ConcurrentMap<String, Counter> map, String name, Measure measure) {
+    counter(map, name).add(
+      System.nanoTime() - measure.wallTime,
+      cpuTimeSupported ? cpuTime() - measure.cpuTime : -1,
+      allocatedBytesSupported ? allocatedBytes() - measure.allocatedBytes : -1);
+  }
+
+  private ConcurrentMap<String, Counter> countersOf(String category) {
+    ConcurrentMap<String, Counter> countersOfCategory = counters.get(category);
+    if (countersOfCategory == null) {
+      counters.putIfAbsent(category, Maps.<String, Counter>newConcurrentMap());
+      countersOfCategory = counters.get(category);
+    }
+    return countersOfCategory;
+  }
+
+  private static Counter counter(ConcurrentMap<String, Counter> map, String name) {
+    Counter counter = map.get(name);
+    if (counter == null) {
+      map.putIfAbsent(name, new Counter(name));
+      counter = map.get(name);
+    }
+    return counter;
+  }
+
+  private long cpuTime() {
+    return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : -1;
+  }
+
+  private long allocatedBytes() {
+    if (!allocatedBytesSupported) {
+      return -1;
+    }
+    try {
+      return (Long) threadAllocatedBytes.invoke(threadMXBean, Thread.currentThread().getId());
+    } catch (IllegalAccessException e) {
+      return -1;
+    } catch (InvocationTargetException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * @return counters of given category sorted by decreasing wall time
+   */
+  public List<Counter> getCounters(String category) {
+    Map<String, Counter> countersOfCategory = counters.get(category);
+    return countersOfCategory == null ? Collections.<Counter>emptyList() : sorted(countersOfCategory);
+  }
+
+  /**
+   * @return counters of files sorted by decreasing wall time
+   */
+  public List<Counter> getFiles() {
+    return sorted(files);
+  }
+
+  private static List<Counter> sorted(Map<String, Counter> map) {
+    List<Counter> result = Lists.newArrayList(map.values());
+    Collections.sort(result, new Comparator<Counter>() {
+      @Override
+      public int compare(Counter c1, Counter c2) {
+        long t1 = c1.getWallTime();
+        long t2 = c2.getWallTime();
+        return t1 < t2 ? 1 : (t1 == t2 ? c1.getName().compareTo(c2.getName()) : -1);
+      }
+    });
+    return result;
+  }
+
+  public void log(int top) {
+    for (String category : new String[] {PHASE, JAVA_FILE_SCANNER, BYTECODE_VISITOR}) {
+      log("Slowest " + category + "s", getCounters(category), top);
+    }
+    log("Slowest files", getFiles(), top);
+  }
+
+  private static void log(String title, List<Counter> counters, int top) {
+    if (counters.isEmpty()) {
+      return;
+    }
+    StringBuilder sb = new StringBuilder(title).append(':');
+    for (Counter counter : counters.subList(0, Math.min(top, counters.size()))) {
+      sb.append("\n  ").append(counter.getName()).append(": ").append(TimeUnit.NANOSECONDS.toMillis(counter.getWallTime())).append(" ms");
+      if (counter.getCpuTime() >= 0) {
+        sb.append(", cpu ").append(TimeUnit.NANOSECONDS.toMillis(counter.getCpuTime())).append(" ms");
+      }
+      if (counter.getAllocatedBytes() >= 0) {
+        sb.append(", allocated ").append(counter.getAllocatedBytes() / 1024 / 1024).append(" MB");
+      }
+      if (counter.getSkipped() > 0) {
+        sb.append(", executed ").append(counter.getCount()).append(" times, skipped ").append(counter.getSkipped()).append(" times");
+      }
+    }
+    LOG.info(sb.toString());
+  }
+
+  public void save(File file) {
+    Writer writer = null;
+    try {
+      writer = new OutputStreamWriter(new FileOutputStream(file), Charsets.UTF_8);
+      writer.write("{");
+      for (String category : new String[] {PHASE, JAVA_FILE_SCANNER, BYTECODE_VISITOR}) {
+        write(writer, category, getCounters(category));
+        writer.write(",");
+      }
+      write(writer, "file", getFiles());
+      writer.write("\n}\n");
+      writer.close();
+    } catch (IOException e) {
+      LOG.warn("Unable to write profiling report " + file.getAbsolutePath(), e);
+    } finally {
+      IOUtils.closeQuietly(writer);
+    }
+  }
+
+  private static void write(Writer writer, String name, List<Counter> counters) throws IOException {
+    writer.write("\n  " + quote(name) + ": [");
+    for (int i = 0; i < counters.size(); i++) {
+      Counter counter = counters.get(i);
+      writer.write(i == 0 ? "\n    {" : ",\n    {");
+      writer.write("\"name\": " + quote(counter.getName()));
+      writer.write(", \"count\": " + counter.getCount());
+      writer.write(", \"wallTimeMs\": " + TimeUnit.NANOSECONDS.toMillis(counter.getWallTime()));
+      writer.write(", \"cpuTimeMs\": " + (counter.getCpuTime() < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(counter.getCpuTime())));
+      writer.write(", \"allocatedBytes\": " + counter.getAllocatedBytes());
+      writer.write(", \"skipped\": " + counter.getSkipped());
+      writer.write("}");
+    }
+    writer.write("\n  ]");
+  }
+
+  private static String quote(String s) {
+    StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < ' ') {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  public static final class Measure {
+    private final long wallTime;
+    private final long cpuTime;
+    private final long allocatedBytes;
+
+    private Measure(long wallTime, long cpuTime, long allocatedBytes) {
+      this.wallTime = wallTime;
+      this.cpuTime = cpuTime;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  public static final class Counter {
+    private final String name;
+    private long count;
+    private long wallTime;
+    private long cpuTime;
+    private long allocatedBytes;
+    private long skipped;
+
+    private Counter(String name) {
+      this.name = name;
+    }
+
+    private synchronized void add(long wallTime, long cpuTime, long allocatedBytes) {
+      this.count++;
+      this.wallTime += wallTime;
+      this.cpuTime = cpuTime < 0 ? -1 : this.cpuTime + cpuTime;
+      this.allocatedBytes = allocatedBytes < 0 ? -1 : this.allocatedBytes + allocatedBytes;
+    }
+
+    private synchronized void skip() {
+      this.skipped++;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return number of measures, for instance number of files on which check was executed
+     */
+    public synchronized long getCount() {
+      return count;
+    }
+
+    /**
+     * @return nanoseconds
+     */
+    public synchronized long getWallTime() {
+      return wallTime;
+    }
+
+    /**
+     * @return nanoseconds, or -1 if not supported
+     */
+    public synchronized long getCpuTime() {
+      return cpuTime;
+    }
+
+    /**
+     * @return bytes, or -1 if not supported
+     */
+    public synchronized long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /**
+     * @return number of files, on which check was skipped
+     */
+    public synchronized long getSkipped() {
+      return skipped;
+    }
+  }
+
+}
@@ -34,12 +34,14 @@ import org.sonar.java.bytecode.visitor.ResourceMapping;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.java.api.SyntaxOnly;
 
 import java.io.File;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
+@SyntaxOnly
 public class DefaultJavaResourceLocator implements JavaResourceLocator, JavaFileScanner {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaResourceLocator.class);
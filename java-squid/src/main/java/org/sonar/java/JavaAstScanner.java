@@ -19,6 +19,7 @@
  */
 package org.sonar.java;
 
+import com.google.common.collect.Lists;
 import com.sonar.sslr.impl.Parser;
 import org.sonar.api.resources.InputFile;
 import org.sonar.api.resources.InputFileUtils;
@@ -37,6 +38,7 @@ import java.io.File;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public final class JavaAstScanner {
 
@@ -68,9 +70,12 @@ public final class JavaAstScanner {
   }
 
   public static AstScanner create(JavaConfiguration conf, SquidAstVisitor<LexerlessGrammar>... visitors) {
-    final Parser parser = JavaParser.createParser(conf.getCharset(), conf.getVerifyAssertions());
+    List<Parser<LexerlessGrammar>> parsers = Lists.newArrayList();
+    for (int i = 0; i < Math.max(1, conf.getParsingThreads()); i++) {
+      parsers.add(JavaParser.createParser(conf.getCharset(), conf.getVerifyAssertions()));
+    }
 
-    AstScanner builder = new AstScanner(parser);
+    AstScanner builder = new AstScanner(parsers, conf.getCharset());
 
     /* Files */
     builder.withSquidAstVisitor(new FileVisitor());
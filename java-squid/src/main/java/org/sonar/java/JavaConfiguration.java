@@ -19,6 +19,9 @@
  */
 package org.sonar.java;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
 import java.nio.charset.Charset;
 
 public class JavaConfiguration {
@@ -26,6 +29,11 @@ public class JavaConfiguration {
   private final Charset charset;
   private boolean analyzePropertyAccessors = true;
   private boolean verifyAssertions = true;
+  private int parsingThreads = 1;
+  private File workDir;
+  private boolean incremental = false;
+  private boolean profiling = false;
+  private boolean symbolHighlighting = true;
 
   public JavaConfiguration(Charset charset) {
     this.charset = charset;
@@ -51,4 +59,60 @@ public class JavaConfiguration {
     this.verifyAssertions = verifyAssertions;
   }
 
+  public int getParsingThreads() {
+    return parsingThreads;
+  }
+
+  /**
+   * @param parsingThreads number of threads used to parse source files and to read bytecode, files are parsed sequentially when equal to 1
+   */
+  public void setParsingThreads(int parsingThreads) {
+    this.parsingThreads = parsingThreads;
+  }
+
+  @Nullable
+  public File getWorkDir() {
+    return workDir;
+  }
+
+  /**
+   * @param workDir directory, where data to be reused by next analysis can be stored, for instance index of classpath
+   */
+  public void setWorkDir(@Nullable File workDir) {
+    this.workDir = workDir;
+  }
+
+  public boolean isIncremental() {
+    return incremental;
+  }
+
+  /**
+   * @param incremental if true and work directory is set, then results of previous analysis are reused for files, which were not changed
+   */
+  public void setIncremental(boolean incremental) {
+    this.incremental = incremental;
+  }
+
+  public boolean isProfiling() {
+    return profiling;
+  }
+
+  /**
+   * @param profiling if true, then time and allocations of phases of analysis, of checks and of files are measured and reported
+   */
+  public void setProfiling(boolean profiling) {
+    this.profiling = profiling;
+  }
+
+  public boolean isSymbolHighlighting() {
+    return symbolHighlighting;
+  }
+
+  /**
+   * @param symbolHighlighting if false, then symbol table is not saved, so that semantic model is not built when all active rules are syntactic
+   */
+  public void setSymbolHighlighting(boolean symbolHighlighting) {
+    this.symbolHighlighting = symbolHighlighting;
+  }
+
 }
@@ -57,10 +57,16 @@ public class JavaSquid implements SourceCodeSearchEngine {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaSquid.class);
 
+  private static final String ANALYSIS_CACHE_FILE = "squid-analysis.cache";
+  public static final String PROFILING_REPORT_FILE = "squid-profiling.json";
+  private static final int PROFILING_TOP = 10;
+
   private final SquidIndex squidIndex;
   private final AstScanner astScanner;
   private final AstScanner astScannerForTests;
   private final BytecodeScanner bytecodeScanner;
+  private final AnalysisProfiler profiler;
+  private final File workDir;
   private final DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
 
   private boolean bytecodeScanned = false;
@@ -75,6 +81,9 @@ public class JavaSquid implements SourceCodeSearchEngine {
                    JavaResourceLocator javaResourceLocator, CodeVisitor... visitors) {
 
     astScanner = JavaAstScanner.create(conf);
+    profiler = conf.isProfiling() ? new AnalysisProfiler() : null;
+    workDir = conf.getWorkDir();
+    astScanner.setProfiler(profiler);
 
     Iterable<CodeVisitor> visitorsToBridge = Iterables.concat(Arrays.asList(javaResourceLocator), Arrays.asList(visitors));
     if(measurer != null) {
@@ -90,17 +99,26 @@ public class JavaSquid implements SourceCodeSearchEngine {
     VisitorsBridge visitorsBridge = new VisitorsBridge(visitorsToBridge, sonarComponents);
     visitorsBridge.setCharset(conf.getCharset());
     visitorsBridge.setAnalyseAccessors(conf.isAnalysePropertyAccessors());
+    visitorsBridge.setSymbolHighlighting(conf.isSymbolHighlighting());
+    visitorsBridge.setWorkDir(conf.getWorkDir());
+    visitorsBridge.setProfiler(profiler);
+    if (conf.isIncremental() && conf.getWorkDir() != null) {
+      visitorsBridge.setAnalysisCacheFile(new File(conf.getWorkDir(), ANALYSIS_CACHE_FILE));
+    }
     astScanner.accept(visitorsBridge);
 
     if (sonarComponents != null) {
-      astScanner.accept(new FileLinesVisitor(sonarComponents, conf.getCharset()));
-      astScanner.accept(new SyntaxHighlighterVisitor(sonarComponents, conf.getCharset()));
+      astScanner.accept(new FileLinesVisitor(sonarComponents));
+      astScanner.accept(new SyntaxHighlighterVisitor(sonarComponents));
     }
 
     // TODO unchecked cast
     squidIndex = (SquidIndex) astScanner.getIndex();
 
     bytecodeScanner = new BytecodeScanner(squidIndex, javaResourceLocator);
+    bytecodeScanner.setWorkDir(conf.getWorkDir());
+    bytecodeScanner.setProfiler(profiler);
+    bytecodeScanner.setThreads(conf.getParsingThreads());
     bytecodeScanner.accept(new DependenciesVisitor(graph));
 
     // External visitors (typically Check ones):
@@ -129,6 +147,18 @@ public class JavaSquid implements SourceCodeSearchEngine {
     scanSources(sourceFiles);
     scanBytecode(bytecodeFilesOrDirectories);
     scanTests(testFiles);
+    if (profiler != null) {
+      reportProfiling();
+    }
+  }
+
+  private void reportProfiling() {
+    profiler.log(PROFILING_TOP);
+    if (workDir != null) {
+      File report = new File(workDir, PROFILING_REPORT_FILE);
+      profiler.save(report);
+      LOG.info("Profiling report written to " + report.getAbsolutePath());
+    }
   }
 
   private void scanSources(Collection<InputFile> sourceFiles) {
@@ -19,9 +19,7 @@
  */
 package org.sonar.java;
 
-import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.Files;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.Measure;
@@ -36,19 +34,20 @@ import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
 import org.sonar.java.ast.visitors.PublicApiChecker;
 import org.sonar.java.ast.visitors.StatementVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.model.InternalJavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
-import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 
-public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor {
+@SyntaxOnly
+public class Measurer extends SubscriptionVisitor {
 
   private static final Number[] LIMITS_COMPLEXITY_METHODS = {1, 2, 4, 6, 8, 10, 12};
   private static final Number[] LIMITS_COMPLEXITY_FILES = {0, 5, 10, 20, 30, 60, 90};
@@ -64,7 +63,6 @@ public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor
 
   private final Deque<ClassTree> classTrees = new LinkedList<ClassTree>();
   private final AccessorVisitor accessorVisitor;
-  private Charset charset;
   private double classes;
 
   public Measurer(Project project, SensorContext context, boolean analyseAccessors) {
@@ -112,19 +110,10 @@ public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor
 
     RangeDistributionBuilder fileComplexityDistribution = new RangeDistributionBuilder(CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION, LIMITS_COMPLEXITY_FILES);
     sensorContext.saveMeasure(sonarFile, fileComplexityDistribution.add(fileComplexity).build(true).setPersistenceMode(PersistenceMode.MEMORY));
-    saveLinesMetric();
+    saveMetricOnFile(CoreMetrics.LINES, ((InternalJavaFileScannerContext) context).getFileContent().getNumberOfLines());
 
   }
 
-  private void saveLinesMetric() {
-    try {
-      String content = Files.toString(context.getFile(), charset);
-      saveMetricOnFile(CoreMetrics.LINES, content.split("(\r)?\n|\r", -1).length);
-    } catch (IOException e) {
-      Throwables.propagate(e);
-    }
-  }
-
   @Override
   public void visitNode(Tree tree) {
     if (tree.is(Tree.Kind.CLASS) || tree.is(Tree.Kind.INTERFACE) || tree.is(Tree.Kind.ENUM) || tree.is(Tree.Kind.ANNOTATION_TYPE)) {
@@ -163,9 +152,4 @@ public class Measurer extends SubscriptionVisitor implements CharsetAwareVisitor
 
   }
 
-
-  @Override
-  public void setCharset(Charset charset) {
-    this.charset = charset;
-  }
 }
@@ -0,0 +1,118 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.sonar.api.config.Settings;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Execution of independent tasks by a pool of daemon threads, whose results are consumed in order of tasks,
+ * so that results of analysis don't depend on number of threads.
+ */
+public final class ParallelTasks {
+
+  /**
+   * Number of threads used by all parallel steps of analysis.
+   */
+  public static final String THREADS_PROPERTY = "sonar.squid.parsing.threads";
+
+  private ParallelTasks() {
+  }
+
+  /**
+   * @return number of threads configured by {@link #THREADS_PROPERTY}, at least 1
+   */
+  public static int threads(Settings settings) {
+    return Math.max(1, settings.getInt(THREADS_PROPERTY));
+  }
+
+  /**
+   * Creates pool of given number of daemon threads, which must be shut down by caller.
+   *
+   * @param nameFormat format of names of threads, e.g. {@code "java-parser-%d"}
+   */
+  public static ExecutorService newExecutor(int threads, String nameFormat) {
+    return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+  }
+
+  /**
+   * Executes tasks by at most given number of threads and returns their results in order of tasks.
+   * Tasks are executed by current thread, when there is only one thread or only one task, so that no pool is created in vain.
+   * Exception thrown by a task is rethrown as is, when unchecked, and propagated otherwise.
+   *
+   * @param nameFormat format of names of threads, e.g. {@code "java-parser-%d"}
+   */
+  public static <T> List<T> invokeAll(int threads, String nameFormat, List<? extends Callable<T>> tasks) {
+    List<T> result = Lists.newArrayListWithCapacity(tasks.size());
+    if (threads <= 1 || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        result.add(call(task));
+      }
+      return result;
+    }
+    ExecutorService executor = newExecutor(Math.min(threads, tasks.size()), nameFormat);
+    try {
+      List<Future<T>> futures = Lists.newArrayListWithCapacity(tasks.size());
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<T> future : futures) {
+        result.add(get(future, "tasks executed by threads " + nameFormat));
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits for result of task. Exception thrown by task is rethrown as is, when unchecked, and propagated otherwise.
+   *
+   * @param task describes awaited task in message of exception in case of interruption of current thread
+   */
+  public static <T> T get(Future<T> future, Object task) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + task, e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private static <T> T call(Callable<T> task) {
+    try {
+      return task.call();
+    } catch (Exception e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+}
@@ -19,8 +19,9 @@
  */
 package org.sonar.java.ast;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
-import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.AuditListener;
 import com.sonar.sslr.api.Grammar;
 import com.sonar.sslr.api.RecognitionException;
@@ -29,6 +30,7 @@ import com.sonar.sslr.impl.ast.AstWalker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.resources.InputFile;
+import org.sonar.java.AnalysisProfiler;
 import org.sonar.java.ProgressReport;
 import org.sonar.java.ast.visitors.VisitorContext;
 import org.sonar.squidbridge.CommentAnalyser;
@@ -40,7 +42,10 @@ import org.sonar.squidbridge.api.SourceProject;
 import org.sonar.squidbridge.indexer.SquidIndex;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -52,20 +57,42 @@ public class AstScanner {
   private final SquidIndex index;
   private final List<SquidAstVisitor<LexerlessGrammar>> visitors = Lists.newArrayList();
   private final List<AuditListener> auditListeners = Lists.newArrayList();
-  private final Parser<LexerlessGrammar> parser;
+  private final List<Parser<LexerlessGrammar>> parsers;
+  private final Charset charset;
   private CommentAnalyser commentAnalyser;
+  private AnalysisProfiler profiler;
+
+  public AstScanner(Parser<LexerlessGrammar> parser, Charset charset) {
+    this(ImmutableList.of(parser), charset);
+  }
 
-  public AstScanner(Parser<LexerlessGrammar> parser) {
-    this.parser = parser;
+  /**
+   * When more than one parser is given, files are parsed in parallel - one thread per parser,
+   * whereas visitors are still notified sequentially and in order of files.
+   * Each file is read only once using given charset, and its content is available to visitors via {@link VisitorContext#getFileContent()}.
+   */
+  public AstScanner(List<Parser<LexerlessGrammar>> parsers, Charset charset) {
+    Preconditions.checkArgument(!parsers.isEmpty(), "At least one parser is required");
+    this.parsers = ImmutableList.copyOf(parsers);
+    this.charset = charset;
     this.index = new SquidIndex();
   }
 
   /**
-   * Takes parser and index from another instance of {@link AstScanner}
+   * Takes parsers, charset and index from another instance of {@link AstScanner}
    */
   public AstScanner(AstScanner astScanner) {
-    this.parser = astScanner.parser;
+    this.parsers = astScanner.parsers;
+    this.charset = astScanner.charset;
     this.index = astScanner.index;
+    this.profiler = astScanner.profiler;
+  }
+
+  /**
+   * @param profiler to measure parsing of files, or null to not measure
+   */
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
   }
 
   public void scan(Collection<InputFile> files) {
@@ -94,25 +121,21 @@ public class AstScanner {
 
     ProgressReport progressReport = new ProgressReport("Report about progress of Java AST analyzer", TimeUnit.SECONDS.toMillis(10));
     progressReport.start(files.size() + " source files to be analyzed");
-    int count = 0;
-    for (InputFile inputFile : files) {
-      File file = inputFile.getFile();
-
-      progressReport.message(count + "/" + files.size() + " files analyzed, current is " + file.getAbsolutePath());
-      count++;
-
-      context.setFile(file);
+    ParallelParser parallelParser = parsers.size() > 1 ? new ParallelParser(parsers, charset, toFiles(files), profiler) : null;
+    try {
+      int count = 0;
+      for (InputFile inputFile : files) {
+        File file = inputFile.getFile();
 
-      try {
-        AstNode ast = parser.parse(file);
-        astWalker.walkAndVisit(ast);
-      } catch (RecognitionException e) {
-        LOG.error("Unable to parse source file : " + file.getAbsolutePath());
-        LOG.error(e.getMessage());
+        progressReport.message(count + "/" + files.size() + " files analyzed, current is " + file.getAbsolutePath());
+        count++;
 
-        parseErrorWalkAndVisit(e, file);
-      } catch (Exception e) {
-        throw new AnalysisException(getAnalyisExceptionMessage(file), e);
+        context.setFile(file);
+        scanFile(parallelParser, astWalker, context, file);
+      }
+    } finally {
+      if (parallelParser != null) {
+        parallelParser.stop();
       }
     }
     progressReport.stop(files.size() + "/" + files.size() + " source files analyzed");
@@ -122,6 +145,29 @@ public class AstScanner {
     }
   }
 
+  private static List<File> toFiles(Collection<InputFile> inputFiles) {
+    List<File> files = Lists.newArrayListWithCapacity(inputFiles.size());
+    for (InputFile inputFile : inputFiles) {
+      files.add(inputFile.getFile());
+    }
+    return files;
+  }
+
+  private void scanFile(@Nullable ParallelParser parallelParser, AstWalker astWalker, VisitorContext context, File file) {
+    try {
+      ParsedFile parsedFile = parallelParser == null ? ParsedFile.parse(parsers.get(0), file, charset, profiler) : parallelParser.parse(file);
+      context.setFileContent(parsedFile.getContent());
+      astWalker.walkAndVisit(parsedFile.getAst());
+    } catch (RecognitionException e) {
+      LOG.error("Unable to parse source file : " + file.getAbsolutePath());
+      LOG.error(e.getMessage());
+
+      parseErrorWalkAndVisit(e, file);
+    } catch (Exception e) {
+      throw new AnalysisException(getAnalyisExceptionMessage(file), e);
+    }
+  }
+
   private void parseErrorWalkAndVisit(RecognitionException e, File file) {
     try {
       // Process the exception
@@ -0,0 +1,111 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.google.common.base.Preconditions;
+import com.sonar.sslr.impl.Parser;
+import org.sonar.java.AnalysisProfiler;
+import org.sonar.java.ParallelTasks;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Reads and parses files ahead of their visit by {@link AstScanner}, using one thread per parser, because parsers are not thread-safe.
+ * Results are returned in order of files, so that visitors observe exactly the same sequence of files as in sequential mode.
+ * Number of parsed, but not yet visited files is bounded to limit memory consumption.
+ */
+class ParallelParser {
+
+  private static final int FILES_AHEAD_PER_PARSER = 2;
+
+  private final BlockingQueue<Parser<LexerlessGrammar>> availableParsers;
+  private final ExecutorService executor;
+  private final Iterator<File> filesToSubmit;
+  private final Deque<ParseTask> pendingTasks = new ArrayDeque<ParseTask>();
+  private final int maxPendingTasks;
+  private final Charset charset;
+  private final AnalysisProfiler profiler;
+
+  ParallelParser(List<Parser<LexerlessGrammar>> parsers, Charset charset, Iterable<File> files, @Nullable AnalysisProfiler profiler) {
+    this.charset = charset;
+    this.profiler = profiler;
+    this.availableParsers = new ArrayBlockingQueue<Parser<LexerlessGrammar>>(parsers.size(), false, parsers);
+    this.executor = ParallelTasks.newExecutor(parsers.size(), "java-parser-%d");
+    this.filesToSubmit = files.iterator();
+    this.maxPendingTasks = parsers.size() * FILES_AHEAD_PER_PARSER;
+    submitTasks();
+  }
+
+  /**
+   * @param file must be the next file in order of files given to constructor
+   */
+  ParsedFile parse(File file) {
+    ParseTask task = pendingTasks.poll();
+    Preconditions.checkState(task != null && task.file.equals(file), "Files must be parsed in order of submission: " + file);
+    submitTasks();
+    return ParallelTasks.get(task.future, file);
+  }
+
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  private void submitTasks() {
+    while (pendingTasks.size() < maxPendingTasks && filesToSubmit.hasNext()) {
+      final File file = filesToSubmit.next();
+      Future<ParsedFile> future = executor.submit(new Callable<ParsedFile>() {
+        @Override
+        public ParsedFile call() throws InterruptedException {
+          Parser<LexerlessGrammar> parser = availableParsers.take();
+          try {
+            return ParsedFile.parse(parser, file, charset, profiler);
+          } finally {
+            availableParsers.add(parser);
+          }
+        }
+      });
+      pendingTasks.add(new ParseTask(file, future));
+    }
+  }
+
+  private static class ParseTask {
+    private final File file;
+    private final Future<ParsedFile> future;
+
+    ParseTask(File file, Future<ParsedFile> future) {
+      this.file = file;
+      this.future = future;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.impl.Parser;
+import org.sonar.java.AnalysisProfiler;
+import org.sonar.java.ast.visitors.FileContent;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Result of parsing of a file: its content, which is read only once, and either its AST, either parse error.
+ */
+class ParsedFile {
+
+  private final FileContent content;
+  private final AstNode ast;
+  private final RecognitionException parseError;
+
+  private ParsedFile(@Nullable FileContent content, @Nullable AstNode ast, @Nullable RecognitionException parseError) {
+    this.content = content;
+    this.ast = ast;
+    this.parseError = parseError;
+  }
+
+  static ParsedFile parse(Parser<LexerlessGrammar> parser, File file, Charset charset, @Nullable AnalysisProfiler profiler) {
+    AnalysisProfiler.Measure measure = profiler == null ? null : profiler.start();
+    try {
+      return parse(parser, file, charset);
+    } finally {
+      if (measure != null) {
+        profiler.stop(measure, AnalysisProfiler.PHASE, AnalysisProfiler.PARSE, file);
+      }
+    }
+  }
+
+  private static ParsedFile parse(Parser<LexerlessGrammar> parser, File file, Charset charset) {
+    FileContent content;
+    try {
+      content = FileContent.read(file, charset);
+    } catch (IOException e) {
+      // same as Parser#parse(File)
+      return new ParsedFile(null, null, new RecognitionException(0, e.getMessage(), e));
+    }
+    try {
+      return new ParsedFile(content, parser.parse(content.getContent()), null);
+    } catch (RecognitionException e) {
+      return new ParsedFile(content, null, e);
+    }
+  }
+
+  @Nullable
+  FileContent getContent() {
+    return content;
+  }
+
+  /**
+   * @throws RecognitionException in case of parse error
+   */
+  AstNode getAst() {
+    if (parseError != null) {
+      throw parseError;
+    }
+    return ast;
+  }
+
+}
@@ -19,6 +19,7 @@
  */
 package org.sonar.java.ast.parser;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.BiMap;
@@ -63,6 +64,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
@@ -172,6 +174,10 @@ public class ActionParser extends Parser {
     }
   }
 
+  /**
+   * Sets parent, token and indexes of nodes after replacement of untyped nodes by typed ones.
+   * Fields are written only when they differ, and lists of children are trimmed, because this tree is kept in memory during whole analysis of file.
+   */
   private void setAstNodeFields(AstNode astNode, @Nullable AstNode parent, int childIndex, Set<AstNode> ancestors) {
     if (verifyAssertions && parent != null) {
       if (AstNodeHacks.getChildIndex(astNode) != childIndex) {
@@ -182,7 +188,9 @@ public class ActionParser extends Parser {
           + "\n" + AstXmlPrinter.print(parent));
       }
     }
-    AstNodeHacks.setParent(astNode, parent);
+    if (astNode.getParent() != parent) {
+      AstNodeHacks.setParent(astNode, parent);
+    }
 
     List<AstNode> children = astNode.getChildren();
     if (!children.isEmpty()) {
@@ -195,7 +203,9 @@ public class ActionParser extends Parser {
       }
       for (int i = 0; i < children.size(); i++) {
         AstNode child = children.get(i);
-        Preconditions.checkState(!ancestors.contains(child), "Cycle in AstNode on node: " + child);
+        if (verifyAssertions) {
+          Preconditions.checkState(!ancestors.contains(child), "Cycle in AstNode on node: " + child);
+        }
         setAstNodeFields(child, astNode, i, ancestors);
 
         if (token == null && child.hasToken()) {
@@ -211,8 +221,13 @@ public class ActionParser extends Parser {
       if (verifyAssertions) {
         ancestors.remove(astNode);
       }
+      if (children instanceof ArrayList) {
+        ((ArrayList<AstNode>) children).trimToSize();
+      }
 
-      AstNodeHacks.setToken(astNode, token);
+      if (astNode.getToken() != token) {
+        AstNodeHacks.setToken(astNode, token);
+      }
       astNode.setFromIndex(fromIndex);
       astNode.setToIndex(toIndex);
     }
@@ -429,16 +444,26 @@ public class ActionParser extends Parser {
 
     AstNode parent = n.getParent();
     if (parent != null) {
-      List<AstNode> children = parent.getChildren();
-      // TODO Replace iteration by childIndex
+      replaceChild(parent.getChildren(), AstNodeHacks.getChildIndex(n), o, n);
+    } else {
+      rootNode = n;
+    }
+  }
+
+  /**
+   * Replaced node is expected at its child index, and searched among other children only when this index is stale.
+   */
+  @VisibleForTesting
+  static void replaceChild(List<AstNode> children, int childIndex, AstNode o, AstNode n) {
+    if (childIndex >= 0 && childIndex < children.size() && children.get(childIndex) == o) {
+      children.set(childIndex, n);
+    } else {
       for (int i = 0; i < children.size(); i++) {
         if (o.equals(children.get(i))) {
           children.set(i, n);
           break;
         }
       }
-    } else {
-      rootNode = n;
     }
   }
 
@@ -21,15 +21,20 @@ package org.sonar.java.ast.visitors;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class ComplexityVisitor extends SubscriptionVisitor {
 
@@ -38,6 +43,12 @@ public class ComplexityVisitor extends SubscriptionVisitor {
   private Deque<ClassTree> classTrees = new LinkedList<ClassTree>();
   private boolean analyseAccessors;
 
+  private boolean memoizing = false;
+  private final Deque<Integer> complexityBeforeNode = new LinkedList<Integer>();
+  private final Map<Tree, Integer> complexities = Maps.newIdentityHashMap();
+  private final Map<Tree, ClassTree> enclosingClasses = Maps.newIdentityHashMap();
+  private final Set<Tree> uncountedAccessors = Sets.newIdentityHashSet();
+
   public ComplexityVisitor(boolean analyseAccessors) {
     this.analyseAccessors = analyseAccessors;
   }
@@ -80,11 +91,57 @@ public class ComplexityVisitor extends SubscriptionVisitor {
     return complexity;
   }
 
+  /**
+   * Computes in a single pass complexity of compilation unit and of all its classes and methods,
+   * which are then returned by {@link #getComplexity(Tree)} and {@link #getMethodComplexity(ClassTree, MethodTree)} without scanning them again.
+   * Complexity of a node is the difference between complexity of compilation unit counted after and before its subtree.
+   */
+  public void memoize(CompilationUnitTree tree) {
+    complexities.clear();
+    enclosingClasses.clear();
+    uncountedAccessors.clear();
+    complexityBeforeNode.clear();
+    memoizing = true;
+    try {
+      complexities.put(tree, scan(tree));
+    } finally {
+      memoizing = false;
+    }
+  }
+
+  /**
+   * Same as {@link #scan(Tree)}, but reads memoized complexity of compilation unit, classes and methods.
+   */
+  public int getComplexity(Tree tree) {
+    Integer result = complexities.get(tree);
+    if (result == null) {
+      return scan(tree);
+    }
+    // alone, a method is never considered as an accessor
+    return uncountedAccessors.contains(tree) ? (result + 1) : result;
+  }
+
+  /**
+   * Same as {@link #scan(ClassTree, MethodTree)}, but reads memoized complexity when the method was memoized with the same enclosing class.
+   */
+  public int getMethodComplexity(ClassTree classTree, MethodTree tree) {
+    if (complexities.containsKey(tree) && enclosingClasses.get(tree) == classTree) {
+      return complexities.get(tree);
+    }
+    return scan(classTree, tree);
+  }
+
   @Override
   public void visitNode(Tree tree) {
+    if (memoizing && (isClass(tree) || isMethod(tree))) {
+      complexityBeforeNode.push(complexity);
+    }
     if (isClass(tree)) {
       classTrees.push((ClassTree) tree);
     } else if (isMethod(tree)) {
+      if (memoizing) {
+        enclosingClasses.put(tree, classTrees.peek());
+      }
       computeMethodComplexity((MethodTree) tree);
     } else if (tree.is(Tree.Kind.CASE_LABEL)) {
       CaseLabelTree caseLabelTree = (CaseLabelTree) tree;
@@ -111,6 +168,8 @@ public class ComplexityVisitor extends SubscriptionVisitor {
     if (block != null) {
       if (classTrees.isEmpty() || !isAccessor(methodTree)) {
         complexity++;
+      } else if (memoizing) {
+        uncountedAccessors.add(methodTree);
       }
       if (!block.body().isEmpty() && Iterables.getLast(block.body()).is(Tree.Kind.RETURN_STATEMENT)) {
         //minus one because we are going to count the return with +1
@@ -129,5 +188,8 @@ public class ComplexityVisitor extends SubscriptionVisitor {
     if (isClass(tree)) {
       classTrees.pop();
     }
+    if (memoizing && (isClass(tree) || isMethod(tree))) {
+      complexities.put(tree, complexity - complexityBeforeNode.pop());
+    }
   }
 }
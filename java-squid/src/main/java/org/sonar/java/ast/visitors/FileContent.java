@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Content of analyzed file, which is read and decoded only once and then shared by parser and visitors.
+ * Lines are separated by "\n", "\r\n" or "\r".
+ */
+public class FileContent {
+
+  private final String content;
+  private final int[] lineStarts;
+
+  public FileContent(String content) {
+    this.content = content;
+    int[] starts = new int[16];
+    int lines = 1;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '\n' || c == '\r' && (i + 1 == content.length() || content.charAt(i + 1) != '\n')) {
+        if (lines == starts.length) {
+          starts = Arrays.copyOf(starts, lines * 2);
+        }
+        starts[lines] = i + 1;
+        lines++;
+      }
+    }
+    this.lineStarts = Arrays.copyOf(starts, lines);
+  }
+
+  public static FileContent read(File file, Charset charset) throws IOException {
+    return new FileContent(Files.toString(file, charset));
+  }
+
+  public String getContent() {
+    return content;
+  }
+
+  /**
+   * Empty last line is counted, i.e. content "a\n" has two lines.
+   */
+  public int getNumberOfLines() {
+    return lineStarts.length;
+  }
+
+  /**
+   * @param line starts from 1
+   * @return length of line without line separator
+   */
+  public int getLineLength(int line) {
+    int end = line < lineStarts.length ? lineStarts[line] : content.length();
+    while (end > lineStarts[line - 1] && isLineSeparator(content.charAt(end - 1))) {
+      end--;
+    }
+    return end - lineStarts[line - 1];
+  }
+
+  private static boolean isLineSeparator(char c) {
+    return c == '\n' || c == '\r';
+  }
+
+  /**
+   * @param line starts from 1
+   * @param column starts from 0
+   */
+  public int getOffset(int line, int column) {
+    return lineStarts[line - 1] + column;
+  }
+
+}
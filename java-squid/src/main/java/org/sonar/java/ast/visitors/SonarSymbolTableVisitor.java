@@ -19,6 +19,7 @@
  */
 package org.sonar.java.ast.visitors;
 
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 import org.sonar.api.source.Symbol;
 import org.sonar.api.source.Symbolizable;
@@ -36,18 +37,41 @@ import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
+import java.util.Collection;
+import java.util.List;
+
 public class SonarSymbolTableVisitor extends BaseTreeVisitor {
 
   private SemanticModel semanticModel;
   private Symbolizable symbolizable;
-  private Symbolizable.SymbolTableBuilder symbolTableBuilder;
+  private final List<int[]> symbols = Lists.newArrayList();
   private CompilationUnitTree outerClass;
 
 
   public SonarSymbolTableVisitor(Symbolizable symbolizable, SemanticModel semanticModel) {
     this.symbolizable = symbolizable;
     this.semanticModel = semanticModel;
-    this.symbolTableBuilder = symbolizable.newSymbolTableBuilder();
+  }
+
+  /**
+   * @return for each symbol - its start offset, its end offset and offsets of its references
+   */
+  public List<int[]> getSymbols() {
+    return symbols;
+  }
+
+  /**
+   * @param symbols as returned by {@link #getSymbols()}
+   */
+  public static void saveSymbolTable(Symbolizable symbolizable, List<int[]> symbols) {
+    Symbolizable.SymbolTableBuilder symbolTableBuilder = symbolizable.newSymbolTableBuilder();
+    for (int[] offsets : symbols) {
+      Symbol symbol = symbolTableBuilder.newSymbol(offsets[0], offsets[1]);
+      for (int i = 2; i < offsets.length; i++) {
+        symbolTableBuilder.newReference(symbol, offsets[i]);
+      }
+    }
+    symbolizable.setSymbolTable(symbolTableBuilder.build());
   }
 
   @Override
@@ -58,7 +82,7 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
     super.visitCompilationUnit(tree);
 
     if (tree.equals(outerClass)) {
-      symbolizable.setSymbolTable(symbolTableBuilder.build());
+      saveSymbolTable(symbolizable, symbols);
     }
   }
 
@@ -107,10 +131,16 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
   }
 
   private void createSymbol(Tree tree, IdentifierTree identifier) {
-    Symbol symbol = symbolTableBuilder.newSymbol(startOffsetFor(identifier), endOffsetFor(identifier));
-    for (IdentifierTree usage : semanticModel.getUsages(semanticModel.getSymbol(tree))) {
-      symbolTableBuilder.newReference(symbol, startOffsetFor(usage));
+    Collection<IdentifierTree> usages = semanticModel.getUsages(semanticModel.getSymbol(tree));
+    int[] offsets = new int[2 + usages.size()];
+    offsets[0] = startOffsetFor(identifier);
+    offsets[1] = endOffsetFor(identifier);
+    int i = 2;
+    for (IdentifierTree usage : usages) {
+      offsets[i] = startOffsetFor(usage);
+      i++;
     }
+    symbols.add(offsets);
   }
 
   private int startOffsetFor(IdentifierTree tree) {
@@ -0,0 +1,150 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Visits a file on behalf of several {@link SubscriptionVisitor}s with a single traversal of tree and a single iteration over tokens,
+ * instead of one traversal per visitor.
+ * Nodes are dispatched using a table of subscribed visitors per {@link Tree.Kind}, which is built only once.
+ * <p/>
+ * For each visitor sequence of calls is the same as in {@link SubscriptionVisitor#scanFile(JavaFileScannerContext)}.
+ */
+public class SubscriptionDispatcher implements JavaFileScanner {
+
+  private static final SubscriptionVisitor[] NO_VISITORS = new SubscriptionVisitor[0];
+  private static final Set<String> OVERRIDABLE_STEPS = ImmutableSet.of("scanFile", "scanTree", "visitTokens", "isSubscribed");
+
+  private final List<SubscriptionVisitor> visitors;
+  private final SubscriptionVisitor[][] visitorsByKind;
+  private final SubscriptionVisitor[] tokenVisitors;
+  private final SubscriptionVisitor[] triviaVisitors;
+
+  public SubscriptionDispatcher(List<SubscriptionVisitor> visitors) {
+    this.visitors = ImmutableList.copyOf(visitors);
+    Tree.Kind[] kinds = Tree.Kind.values();
+    visitorsByKind = new SubscriptionVisitor[kinds.length][];
+    for (Tree.Kind kind : kinds) {
+      visitorsByKind[kind.ordinal()] = subscribedTo(kind);
+    }
+    List<SubscriptionVisitor> tokens = Lists.newArrayList();
+    for (SubscriptionVisitor visitor : visitors) {
+      if (visitor.nodesToVisit().contains(Tree.Kind.TOKEN) || visitor.nodesToVisit().contains(Tree.Kind.TRIVIA)) {
+        tokens.add(visitor);
+      }
+    }
+    tokenVisitors = tokens.toArray(new SubscriptionVisitor[tokens.size()]);
+    triviaVisitors = subscribedTo(Tree.Kind.TRIVIA);
+  }
+
+  private SubscriptionVisitor[] subscribedTo(Tree.Kind kind) {
+    List<SubscriptionVisitor> result = Lists.newArrayList();
+    for (SubscriptionVisitor visitor : visitors) {
+      if (visitor.nodesToVisit().contains(kind)) {
+        result.add(visitor);
+      }
+    }
+    return result.isEmpty() ? NO_VISITORS : result.toArray(new SubscriptionVisitor[result.size()]);
+  }
+
+  /**
+   * Visitors, which override some steps of visit of a file, for instance to initialize their state, are not dispatched,
+   * but should be visited as usual.
+   */
+  public static boolean canDispatch(Object scanner) {
+    if (!(scanner instanceof SubscriptionVisitor)) {
+      return false;
+    }
+    for (Class<?> c = scanner.getClass(); c != SubscriptionVisitor.class; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        if (OVERRIDABLE_STEPS.contains(method.getName())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    for (SubscriptionVisitor visitor : visitors) {
+      visitor.setContext(context);
+    }
+    visit(context.getTree());
+    visitTokens(context.getTree());
+  }
+
+  private void visit(Tree tree) {
+    Tree.Kind kind = ((JavaTree) tree).getKind();
+    SubscriptionVisitor[] subscribed = kind == null ? NO_VISITORS : visitorsByKind[kind.ordinal()];
+    for (SubscriptionVisitor visitor : subscribed) {
+      visitor.visitNode(tree);
+    }
+    JavaTree javaTree = (JavaTree) tree;
+    if (!javaTree.isLeaf()) {
+      for (Iterator<Tree> iter = javaTree.childrenIterator(); iter.hasNext(); ) {
+        Tree next = iter.next();
+        if (next != null) {
+          visit(next);
+        }
+      }
+    }
+    for (SubscriptionVisitor visitor : subscribed) {
+      visitor.leaveNode(tree);
+    }
+  }
+
+  private void visitTokens(CompilationUnitTree compilationUnitTree) {
+    if (tokenVisitors.length == 0) {
+      return;
+    }
+    List<SyntaxToken> tokens = compilationUnitTree.tokens();
+    for (int i = 0; i < tokens.size(); i++) {
+      SyntaxToken syntaxToken = tokens.get(i);
+      for (SubscriptionVisitor visitor : tokenVisitors) {
+        visitor.visitToken(syntaxToken);
+      }
+      if (triviaVisitors.length > 0) {
+        List<SyntaxTrivia> trivias = syntaxToken.trivias();
+        for (int j = 0; j < trivias.size(); j++) {
+          for (SubscriptionVisitor visitor : triviaVisitors) {
+            visitor.visitTrivia(trivias.get(j));
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -19,8 +19,6 @@
  */
 package org.sonar.java.ast.visitors;
 
-import com.sonar.sslr.api.Token;
-import org.sonar.java.model.InternalSyntaxToken;
 import org.sonar.java.model.JavaTree;
 import org.sonar.java.resolve.SemanticModel;
 import org.sonar.plugins.java.api.JavaFileScanner;
@@ -62,26 +60,33 @@ public abstract class SubscriptionVisitor implements JavaFileScanner, CodeVisito
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    this.context = context;
-    semanticModel = (SemanticModel) context.getSemanticModel();
+    setContext(context);
     scanTree(context.getTree());
     visitTokens(context.getTree());
   }
 
+  void setContext(JavaFileScannerContext context) {
+    this.context = context;
+    semanticModel = (SemanticModel) context.getSemanticModel();
+  }
+
   protected void scanTree(Tree tree) {
     nodesToVisit = nodesToVisit();
     visit(tree);
   }
 
   protected void visitTokens(CompilationUnitTree compilationUnitTree) {
-    if (nodesToVisit().contains(Tree.Kind.TOKEN) || nodesToVisit().contains(Tree.Kind.TRIVIA)) {
-      //FIXME relying on ASTNode to iterate over tokens.
-      for (Token token : ((JavaTree) compilationUnitTree).getAstNode().getTokens()) {
-        SyntaxToken syntaxToken = new InternalSyntaxToken(token);
+    List<Tree.Kind> kinds = nodesToVisit();
+    boolean visitTrivias = kinds.contains(Tree.Kind.TRIVIA);
+    if (kinds.contains(Tree.Kind.TOKEN) || visitTrivias) {
+      List<SyntaxToken> tokens = compilationUnitTree.tokens();
+      for (int i = 0; i < tokens.size(); i++) {
+        SyntaxToken syntaxToken = tokens.get(i);
         visitToken(syntaxToken);
-        if (nodesToVisit().contains(Tree.Kind.TRIVIA)) {
-          for (SyntaxTrivia syntaxTrivia : syntaxToken.trivias()) {
-            visitTrivia(syntaxTrivia);
+        if (visitTrivias) {
+          List<SyntaxTrivia> trivias = syntaxToken.trivias();
+          for (int j = 0; j < trivias.size(); j++) {
+            visitTrivia(trivias.get(j));
           }
         }
       }
@@ -30,6 +30,8 @@ import org.sonar.squidbridge.api.SourceFile;
 import org.sonar.squidbridge.api.SourceProject;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.util.Stack;
 
@@ -41,6 +43,7 @@ public class VisitorContext extends SquidAstVisitorContext<LexerlessGrammar> {
   private final Stack<SourceCode> sourceCodeStack = new Stack<SourceCode>();
   private final SourceProject project;
   private File file;
+  private FileContent fileContent;
   private CommentAnalyser commentAnalyser;
 
   public VisitorContext(SourceProject project) {
@@ -83,6 +86,19 @@ public class VisitorContext extends SquidAstVisitorContext<LexerlessGrammar> {
   public void setFile(File file) {
     popTillSourceProject();
     this.file = file;
+    this.fileContent = null;
+  }
+
+  public void setFileContent(@Nullable FileContent fileContent) {
+    this.fileContent = fileContent;
+  }
+
+  /**
+   * @return content of current file, or null if it can't be read
+   */
+  @Nullable
+  public FileContent getFileContent() {
+    return fileContent;
   }
 
   private void popTillSourceProject() {
@@ -19,6 +19,9 @@
  */
 package org.sonar.java.bytecode;
 
+import org.objectweb.asm.tree.ClassNode;
+import org.sonar.java.AnalysisProfiler;
+import org.sonar.java.ParallelTasks;
 import org.sonar.java.bytecode.asm.AsmClass;
 import org.sonar.java.bytecode.asm.AsmClassProvider;
 import org.sonar.java.bytecode.asm.AsmClassProvider.DETAIL_LEVEL;
@@ -31,23 +34,54 @@ import org.sonar.squidbridge.api.CodeScanner;
 import org.sonar.squidbridge.api.CodeVisitor;
 import org.sonar.squidbridge.indexer.SquidIndex;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class BytecodeScanner extends CodeScanner<BytecodeVisitor> {
 
+  private static final int CLASSES_AHEAD_PER_THREAD = 16;
+
   private final SquidIndex indexer;
   private JavaResourceLocator javaResourceLocator;
+  private File workDir;
+  private AnalysisProfiler profiler;
+  private int threads = 1;
 
   public BytecodeScanner(SquidIndex indexer, JavaResourceLocator javaResourceLocator) {
     this.indexer = indexer;
     this.javaResourceLocator = javaResourceLocator;
   }
 
+  public void setWorkDir(@Nullable File workDir) {
+    this.workDir = workDir;
+  }
+
+  /**
+   * @param profiler to measure loading of bytecode and each visitor, or null to not measure
+   */
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  /**
+   * @param threads number of threads used to read and parse bytecode ahead of its loading, bytecode is read when needed when equal to 1
+   */
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
   public BytecodeScanner scan(Collection<File> bytecodeFilesOrDirectories) {
-    ClassLoader classLoader = ClassLoaderBuilder.create(bytecodeFilesOrDirectories);
+    ClassLoader classLoader = ClassLoaderBuilder.create(bytecodeFilesOrDirectories, workDir);
     scanClasses(javaResourceLocator.classKeys(), new AsmClassProviderImpl(classLoader));
     // TODO unchecked cast
     ((SquidClassLoader) classLoader).close();
@@ -59,8 +93,12 @@ public class BytecodeScanner extends CodeScanner<BytecodeVisitor> {
   }
 
   protected BytecodeScanner scanClasses(Collection<String> classes, AsmClassProvider classProvider) {
+    AnalysisProfiler.Measure measure = profiler == null ? null : profiler.start();
     loadByteCodeInformation(classes, classProvider);
     linkVirtualMethods(classes, classProvider);
+    if (measure != null) {
+      profiler.stop(measure, AnalysisProfiler.PHASE, AnalysisProfiler.BYTECODE_LOAD);
+    }
     notifyBytecodeVisitors(classes, classProvider);
     return this;
   }
@@ -79,14 +117,46 @@ public class BytecodeScanner extends CodeScanner<BytecodeVisitor> {
     BytecodeVisitor[] visitorArray = getVisitors().toArray(new BytecodeVisitor[getVisitors().size()]);
     for (String key : keys) {
       AsmClass asmClass = classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS);
-      BytecodeVisitorNotifier visitorNotifier = new BytecodeVisitorNotifier(asmClass, visitorArray);
+      BytecodeVisitorNotifier visitorNotifier = new BytecodeVisitorNotifier(asmClass, visitorArray, profiler);
       visitorNotifier.notifyVisitors(indexer, javaResourceLocator);
     }
   }
 
   private void loadByteCodeInformation(Collection<String> keys, AsmClassProvider classProvider) {
-    for (String key : keys) {
-      classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS);
+    if (threads > 1 && classProvider instanceof AsmClassProviderImpl) {
+      loadByteCodeInformationInParallel(keys, (AsmClassProviderImpl) classProvider);
+    } else {
+      for (String key : keys) {
+        classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS);
+      }
+    }
+  }
+
+  /**
+   * Bytecode of classes is read, decompressed and parsed by several threads ahead of decoration of classes, which is done in order of keys
+   * by the current thread, because it modifies shared classes, so that the resulting model doesn't depend on number of threads.
+   * Number of classes parsed in advance is bounded to limit memory consumption.
+   */
+  private void loadByteCodeInformationInParallel(Collection<String> keys, final AsmClassProviderImpl classProvider) {
+    ExecutorService executor = ParallelTasks.newExecutor(threads, "bytecode-parser-%d");
+    try {
+      Deque<Future<ClassNode>> pending = new ArrayDeque<Future<ClassNode>>();
+      Iterator<String> keysToSubmit = keys.iterator();
+      int maxPending = threads * CLASSES_AHEAD_PER_THREAD;
+      for (String key : keys) {
+        while (pending.size() < maxPending && keysToSubmit.hasNext()) {
+          final String keyToSubmit = keysToSubmit.next();
+          pending.add(executor.submit(new Callable<ClassNode>() {
+            @Override
+            public ClassNode call() {
+              return classProvider.readClass(keyToSubmit);
+            }
+          }));
+        }
+        classProvider.getClass(key, DETAIL_LEVEL.STRUCTURE_AND_CALLS, ParallelTasks.get(pending.poll(), key));
+      }
+    } finally {
+      executor.shutdownNow();
     }
   }
 
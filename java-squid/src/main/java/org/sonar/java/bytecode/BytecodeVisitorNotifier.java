@@ -19,6 +19,7 @@
  */
 package org.sonar.java.bytecode;
 
+import org.sonar.java.AnalysisProfiler;
 import org.sonar.java.bytecode.asm.AsmClass;
 import org.sonar.java.bytecode.asm.AsmEdge;
 import org.sonar.java.bytecode.asm.AsmField;
@@ -28,15 +29,27 @@ import org.sonar.java.bytecode.visitor.BytecodeVisitor;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.squidbridge.indexer.SquidIndex;
 
+import javax.annotation.Nullable;
+
 public class BytecodeVisitorNotifier {
 
   private final AsmClass asmClass;
   private final BytecodeVisitor[] bytecodeVisitors;
+  private final AnalysisProfiler profiler;
 
   public BytecodeVisitorNotifier(AsmClass asmClass, BytecodeVisitor[] bytecodeVisitors) {
+    this(asmClass, bytecodeVisitors, null);
+  }
+
+  /**
+   * @param profiler to measure each visitor, in which case visitors are notified one after another
+   * instead of being notified of each element of class in turn, whereas sequence of calls observed by each visitor is the same
+   */
+  public BytecodeVisitorNotifier(AsmClass asmClass, BytecodeVisitor[] bytecodeVisitors, @Nullable AnalysisProfiler profiler) {
     this.asmClass = asmClass;
     this.bytecodeVisitors = new BytecodeVisitor[bytecodeVisitors.length];
     System.arraycopy(bytecodeVisitors, 0, this.bytecodeVisitors, 0, bytecodeVisitors.length);
+    this.profiler = profiler;
   }
 
   public void notifyVisitors(SquidIndex indexer, JavaResourceLocator javaResourceLocator) {
@@ -44,51 +57,63 @@ public class BytecodeVisitorNotifier {
       visitor.setSquidIndex(indexer);
       visitor.setJavaResourceLocator(javaResourceLocator);
     }
-    callVisitClass();
-    callVisitMethodAndFieldAndEdge();
-    callLeaveClass();
+    if (profiler == null) {
+      notifyVisitors(bytecodeVisitors);
+    } else {
+      for (BytecodeVisitor visitor : bytecodeVisitors) {
+        AnalysisProfiler.Measure measure = profiler.start();
+        notifyVisitors(new BytecodeVisitor[] {visitor});
+        profiler.stop(measure, AnalysisProfiler.BYTECODE_VISITOR, visitor.getClass().getName());
+      }
+    }
   }
 
-  private void callVisitMethodAndFieldAndEdge() {
-    callVisitEdgeForSpecificAsmResource(asmClass);
+  private void notifyVisitors(BytecodeVisitor[] visitors) {
+    callVisitClass(visitors);
+    callVisitMethodAndFieldAndEdge(visitors);
+    callLeaveClass(visitors);
+  }
+
+  private void callVisitMethodAndFieldAndEdge(BytecodeVisitor[] visitors) {
+    callVisitEdgeForSpecificAsmResource(visitors, asmClass);
     for (AsmMethod method : asmClass.getMethods()) {
-      callVisitMethod(method);
-      callVisitEdgeForSpecificAsmResource(method);
+      callVisitMethod(visitors, method);
+      callVisitEdgeForSpecificAsmResource(visitors, method);
     }
     for (AsmField field : asmClass.getFields()) {
-      callVisitField(field);
-      callVisitEdgeForSpecificAsmResource(field);
+      callVisitField(visitors, field);
+      callVisitEdgeForSpecificAsmResource(visitors, field);
     }
   }
 
-  private void callVisitEdgeForSpecificAsmResource(AsmResource resource) {
+  private static void callVisitEdgeForSpecificAsmResource(BytecodeVisitor[] visitors, AsmResource resource) {
     for (AsmEdge edge : resource.getOutgoingEdges()) {
-      for (BytecodeVisitor visitor : bytecodeVisitors) {
+      for (BytecodeVisitor visitor : visitors) {
         visitor.visitEdge(edge);
       }
     }
   }
 
-  private void callVisitMethod(AsmMethod asmMethod) {
-    for (BytecodeVisitor visitor : bytecodeVisitors) {
+  private static void callVisitMethod(BytecodeVisitor[] visitors, AsmMethod asmMethod) {
+    for (BytecodeVisitor visitor : visitors) {
       visitor.visitMethod(asmMethod);
     }
   }
 
-  private void callVisitField(AsmField asmField) {
-    for (BytecodeVisitor visitor : bytecodeVisitors) {
+  private static void callVisitField(BytecodeVisitor[] visitors, AsmField asmField) {
+    for (BytecodeVisitor visitor : visitors) {
       visitor.visitField(asmField);
     }
   }
 
-  private void callVisitClass() {
-    for (BytecodeVisitor visitor : bytecodeVisitors) {
+  private void callVisitClass(BytecodeVisitor[] visitors) {
+    for (BytecodeVisitor visitor : visitors) {
       visitor.visitClass(asmClass);
     }
   }
 
-  private void callLeaveClass() {
-    for (BytecodeVisitor visitor : bytecodeVisitors) {
+  private void callLeaveClass(BytecodeVisitor[] visitors) {
+    for (BytecodeVisitor visitor : visitors) {
       visitor.leaveClass(asmClass);
     }
   }
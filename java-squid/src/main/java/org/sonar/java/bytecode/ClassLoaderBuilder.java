@@ -24,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.java.bytecode.loader.SquidClassLoader;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
@@ -33,11 +35,20 @@ public final class ClassLoaderBuilder {
 
   private static final Logger LOG = LoggerFactory.getLogger(ClassLoaderBuilder.class);
 
+  private static final String CLASSPATH_INDEX_FILE = "squid-classpath.idx";
+
   private ClassLoaderBuilder() {
     // only static methods
   }
 
   public static ClassLoader create(Collection<File> bytecodeFilesOrDirectories) {
+    return create(bytecodeFilesOrDirectories, null);
+  }
+
+  /**
+   * @param workDir directory to store index of JAR files, so that it can be reused by next analysis, or null
+   */
+  public static ClassLoader create(Collection<File> bytecodeFilesOrDirectories, @Nullable File workDir) {
     List<File> files = Lists.newArrayList();
     for (File file : bytecodeFilesOrDirectories) {
       if (file.isFile() && file.getPath().endsWith(".class")) {
@@ -56,7 +67,7 @@ public final class ClassLoaderBuilder {
     }
 
     try {
-      return new SquidClassLoader(files);
+      return new SquidClassLoader(files, workDir == null ? null : new File(workDir, CLASSPATH_INDEX_FILE));
     } catch (Exception e) {
       throw new IllegalStateException("Can not create ClassLoader", e);
     }
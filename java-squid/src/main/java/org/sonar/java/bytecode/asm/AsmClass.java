@@ -106,7 +106,7 @@ public class AsmClass extends AsmResource {
 
   void setSuperClass(AsmClass superClass) {
     this.superClass = superClass;
-    addEdge(new AsmEdge(this, superClass, SourceCodeEdgeUsage.EXTENDS));
+    addEdge(superClass, SourceCodeEdgeUsage.EXTENDS, 0);
   }
 
   public AsmClass getSuperClass() {
@@ -114,7 +114,7 @@ public class AsmClass extends AsmResource {
   }
 
   void addInterface(AsmClass implementedInterface) {
-    addEdge(new AsmEdge(this, implementedInterface, SourceCodeEdgeUsage.IMPLEMENTS));
+    addEdge(implementedInterface, SourceCodeEdgeUsage.IMPLEMENTS, 0);
   }
 
   Set<AsmClass> getInterfaces() {
@@ -21,20 +21,29 @@ package org.sonar.java.bytecode.asm;
 
 import org.apache.commons.io.IOUtils;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Cache of classes can be shared between threads, and bytecode can be read and parsed concurrently by {@link #readClass(String)},
+ * however decoration of classes by {@link #getClass(String, DETAIL_LEVEL)} must be done by a single thread,
+ * because it modifies referenced classes.
+ */
 public class AsmClassProviderImpl extends AsmClassProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(AsmClassProviderImpl.class);
 
   private final ClassLoader classLoader;
-  private final Map<String, AsmClass> asmClassCache = new HashMap<String, AsmClass>();
+  private final ConcurrentMap<String, AsmClass> asmClassCache = new ConcurrentHashMap<String, AsmClass>();
 
   public AsmClassProviderImpl() {
     this.classLoader = Thread.currentThread().getContextClassLoader();
@@ -46,34 +55,71 @@ public class AsmClassProviderImpl extends AsmClassProvider {
 
   @Override
   public AsmClass getClass(String internalName, DETAIL_LEVEL level) {
+    return getClass(internalName, level, null);
+  }
+
+  /**
+   * @param classNode class read and parsed in advance by {@link #readClass(String)}, or null to read it when needed
+   */
+  public AsmClass getClass(String internalName, DETAIL_LEVEL level, @Nullable ClassNode classNode) {
     if (internalName == null) {
       // TODO Godin: I believe that we should throw IllegalArgumentException instead
       throw new IllegalStateException("You can try to load a class whose internalName = 'null'");
     }
     AsmClass asmClass = getAsmClassFromCacheOrCreateIt(internalName);
     if (level.isGreaterThan(asmClass.getDetailLevel())) {
-      decoracteAsmClassFromBytecode(asmClass, level);
+      decoracteAsmClassFromBytecode(asmClass, level, classNode);
     }
     return asmClass;
   }
 
+  /**
+   * Thread-safe, because parsing of bytecode into {@link ClassNode} doesn't touch classes of this provider.
+   *
+   * @return parsed bytecode of given class, or null if class is not accessible through the ClassLoader or can't be parsed,
+   * in which case the error is reported during its decoration
+   */
+  @Nullable
+  public ClassNode readClass(String internalName) {
+    InputStream input = classLoader.getResourceAsStream(internalName + ".class");
+    if (input == null) {
+      return null;
+    }
+    try {
+      ClassNode classNode = new ClassNode(Opcodes.ASM5);
+      new ClassReader(input).accept(classNode, 0);
+      return classNode;
+    } catch (Exception e) {
+      return null;
+    } finally {
+      IOUtils.closeQuietly(input);
+    }
+  }
+
   private AsmClass getAsmClassFromCacheOrCreateIt(String internalName) {
     AsmClass asmClass = asmClassCache.get(internalName);
     if (asmClass == null) {
       asmClass = new AsmClass(internalName, DETAIL_LEVEL.NOTHING);
-      asmClassCache.put(internalName, asmClass);
+      AsmClass previous = asmClassCache.putIfAbsent(internalName, asmClass);
+      if (previous != null) {
+        asmClass = previous;
+      }
     }
     return asmClass;
   }
 
-  private void decoracteAsmClassFromBytecode(AsmClass asmClass, DETAIL_LEVEL level) {
+  private void decoracteAsmClassFromBytecode(AsmClass asmClass, DETAIL_LEVEL level, @Nullable ClassNode classNode) {
     InputStream input = null;
     try {
 
       AsmClassVisitor classVisitor = new AsmClassVisitor(this, asmClass, level);
-      input = classLoader.getResourceAsStream(asmClass.getInternalName() + ".class");
-      ClassReader asmReader = new ClassReader(input);
-      asmReader.accept(classVisitor, 0);
+      if (classNode == null) {
+        input = classLoader.getResourceAsStream(asmClass.getInternalName() + ".class");
+        ClassReader asmReader = new ClassReader(input);
+        asmReader.accept(classVisitor, 0);
+      } else {
+        classNode.accept(classVisitor);
+      }
     } catch (IOException e) {
       LOG.warn("Class '" + asmClass.getInternalName() + "' is not accessible through the ClassLoader.");
     } catch (SecurityException e) {
@@ -30,7 +30,6 @@ public class AsmEdge {
     this.from = from;
     this.to = to;
     this.usage = usage;
-    to.setUsed(true);
   }
 
   AsmEdge(AsmResource from, AsmResource to, SourceCodeEdgeUsage usage, int sourceLineNumber) {
@@ -52,16 +52,16 @@ public class AsmMethod extends AsmResource {
 
   void addThrowsOfClasses(AsmClass[] asmClasses) {
     for (AsmClass asmClass : asmClasses) {
-      addEdge(new AsmEdge(this, asmClass, SourceCodeEdgeUsage.THROWS));
+      addEdge(asmClass, SourceCodeEdgeUsage.THROWS, 0);
     }
   }
 
   public List<AsmClass> getThrows() {
     ImmutableList.Builder<AsmClass> builder = ImmutableList.builder();
 
-    for (AsmEdge edge : getOutgoingEdges()) {
-      if (edge.getUsage() == SourceCodeEdgeUsage.THROWS) {
-        builder.add((AsmClass) edge.getTo());
+    for (int i = 0; i < getOutgoingEdgesCount(); i++) {
+      if (getEdgeUsage(i) == SourceCodeEdgeUsage.THROWS) {
+        builder.add((AsmClass) getEdgeTarget(i));
       }
     }
 
@@ -93,9 +93,9 @@ public class AsmMethod extends AsmResource {
 
   public List<AsmField> getCallsToField() {
     List<AsmField> callsToField = new ArrayList<AsmField>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.CALLS_FIELD) {
-        callsToField.add((AsmField) usage.getTo());
+    for (int i = 0; i < getOutgoingEdgesCount(); i++) {
+      if (getEdgeUsage(i) == SourceCodeEdgeUsage.CALLS_FIELD) {
+        callsToField.add((AsmField) getEdgeTarget(i));
       }
     }
     return callsToField;
@@ -103,9 +103,9 @@ public class AsmMethod extends AsmResource {
 
   public List<AsmMethod> getCallsToMethod() {
     List<AsmMethod> callsToMethod = new ArrayList<AsmMethod>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.CALLS_METHOD) {
-        callsToMethod.add((AsmMethod) usage.getTo());
+    for (int i = 0; i < getOutgoingEdgesCount(); i++) {
+      if (getEdgeUsage(i) == SourceCodeEdgeUsage.CALLS_METHOD) {
+        callsToMethod.add((AsmMethod) getEdgeTarget(i));
       }
     }
     return callsToMethod;
@@ -19,10 +19,10 @@
  */
 package org.sonar.java.bytecode.asm;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 public class AsmResource {
@@ -30,7 +30,20 @@ public class AsmResource {
   private int accessFlags;
   AsmClass parent;
   boolean used = false;
-  private final List<AsmEdge> outgoingEdges = new ArrayList<AsmEdge>();
+
+  private static final AsmResource[] NO_TARGETS = new AsmResource[0];
+  private static final byte[] NO_USAGES = new byte[0];
+  private static final int[] NO_LINES = new int[0];
+  private static final SourceCodeEdgeUsage[] USAGES = SourceCodeEdgeUsage.values();
+
+  /**
+   * Outgoing edges are stored in columns rather than as {@link AsmEdge} objects, because bytecode model of whole project is kept in memory,
+   * and instances of {@link AsmEdge} are created only during iteration over {@link #getOutgoingEdges()}.
+   */
+  private int edgesCount = 0;
+  private AsmResource[] edgeTargets = NO_TARGETS;
+  private byte[] edgeUsages = NO_USAGES;
+  private int[] edgeLines = NO_LINES;
 
   void setAccessFlags(int accessFlags) {
     this.accessFlags = accessFlags;
@@ -38,15 +51,15 @@ public class AsmResource {
 
   void addUsesOfClasses(AsmClass[] asmClasses) {
     for (AsmClass asmClass : asmClasses) {
-      addEdge(new AsmEdge(this, asmClass, SourceCodeEdgeUsage.USES));
+      addEdge(asmClass, SourceCodeEdgeUsage.USES, 0);
     }
   }
 
   public Set<AsmClass> getDistinctUsedAsmClasses() {
     Set<AsmClass> distinctUsedAsmClasses = new HashSet<AsmClass>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.USES) {
-        distinctUsedAsmClasses.add((AsmClass) usage.getTo());
+    for (int i = 0; i < edgesCount; i++) {
+      if (getEdgeUsage(i) == SourceCodeEdgeUsage.USES) {
+        distinctUsedAsmClasses.add((AsmClass) edgeTargets[i]);
       }
     }
     return distinctUsedAsmClasses;
@@ -54,24 +67,72 @@ public class AsmResource {
 
   public Set<AsmClass> getImplementedInterfaces() {
     Set<AsmClass> implementedInterfaces = new HashSet<AsmClass>();
-    for (AsmEdge usage : getOutgoingEdges()) {
-      if (usage.getUsage() == SourceCodeEdgeUsage.IMPLEMENTS) {
-        implementedInterfaces.add((AsmClass) usage.getTo());
+    for (int i = 0; i < edgesCount; i++) {
+      if (getEdgeUsage(i) == SourceCodeEdgeUsage.IMPLEMENTS) {
+        implementedInterfaces.add((AsmClass) edgeTargets[i]);
       }
     }
     return implementedInterfaces;
   }
 
+  /**
+   * @param edge must go from this resource
+   */
   public void addEdge(AsmEdge edge) {
-    outgoingEdges.add(edge);
+    addEdge(edge.getTo(), edge.getUsage(), edge.getSourceLineNumber());
+  }
+
+  void addEdge(AsmResource to, SourceCodeEdgeUsage usage, int sourceLineNumber) {
+    to.setUsed(true);
+    if (edgesCount == edgeTargets.length) {
+      int capacity = edgesCount + (edgesCount >> 1) + 2;
+      edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+      edgeUsages = Arrays.copyOf(edgeUsages, capacity);
+      edgeLines = Arrays.copyOf(edgeLines, capacity);
+    }
+    edgeTargets[edgesCount] = to;
+    edgeUsages[edgesCount] = (byte) usage.ordinal();
+    edgeLines[edgesCount] = sourceLineNumber;
+    edgesCount++;
   }
 
   public void clearOutogingEdges() {
-    outgoingEdges.clear();
+    edgesCount = 0;
+    edgeTargets = NO_TARGETS;
+    edgeUsages = NO_USAGES;
+    edgeLines = NO_LINES;
   }
 
+  /**
+   * @return view of outgoing edges, which creates a new {@link AsmEdge} on each access to an element
+   */
   public Collection<AsmEdge> getOutgoingEdges() {
-    return outgoingEdges;
+    return new AbstractList<AsmEdge>() {
+      @Override
+      public AsmEdge get(int index) {
+        if (index >= edgesCount) {
+          throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + edgesCount);
+        }
+        return new AsmEdge(AsmResource.this, edgeTargets[index], getEdgeUsage(index), edgeLines[index]);
+      }
+
+      @Override
+      public int size() {
+        return edgesCount;
+      }
+    };
+  }
+
+  int getOutgoingEdgesCount() {
+    return edgesCount;
+  }
+
+  AsmResource getEdgeTarget(int index) {
+    return edgeTargets[index];
+  }
+
+  SourceCodeEdgeUsage getEdgeUsage(int index) {
+    return USAGES[edgeUsages[index]];
   }
 
   public AsmClass getParent() {
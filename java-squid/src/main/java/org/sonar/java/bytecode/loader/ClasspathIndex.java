@@ -0,0 +1,173 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.bytecode.loader;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of resources contained in JAR files of a classpath: for each resource name - position of the first JAR file, which contains it.
+ * <p/>
+ * Lists of entries of JAR files can be saved into a file and loaded back by next analysis,
+ * so that JAR files, which were not modified since then, don't even need to be opened until some resource is requested from them.
+ */
+class ClasspathIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClasspathIndex.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final Map<String, Integer> positions = Maps.newHashMap();
+  private final Map<String, JarEntries> jars = Maps.newLinkedHashMap();
+  private boolean modified = false;
+
+  /**
+   * @param position of JAR file in classpath, JAR files must be added in order of their positions
+   * @param entryNames names of entries of JAR file
+   * @param listed true if entries were listed from JAR file, and false if they were taken from saved index
+   */
+  void addJar(int position, File jar, List<String> entryNames, boolean listed) {
+    for (String name : entryNames) {
+      if (!positions.containsKey(name)) {
+        positions.put(name, position);
+      }
+    }
+    jars.put(jar.getAbsolutePath(), new JarEntries(jar.length(), jar.lastModified(), entryNames));
+    modified |= listed;
+  }
+
+  /**
+   * @return position of the first JAR file, which contains given resource, or -1 if there is no such JAR file
+   */
+  int find(String name) {
+    Integer position = positions.get(name);
+    return position == null ? -1 : position;
+  }
+
+  /**
+   * @return entries of given JAR file, or null if it was not indexed or was modified since
+   */
+  @Nullable
+  List<String> getEntryNames(File jar) {
+    JarEntries entries = jars.get(jar.getAbsolutePath());
+    if (entries != null && entries.length == jar.length() && entries.lastModified == jar.lastModified()) {
+      return entries.names;
+    }
+    return null;
+  }
+
+  /**
+   * Returns empty index in case of any problem with reading of file, because index is nothing else than a cache.
+   */
+  static ClasspathIndex load(File file) {
+    ClasspathIndex index = new ClasspathIndex();
+    if (!file.isFile()) {
+      return index;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != FORMAT_VERSION) {
+        return index;
+      }
+      int jarsCount = in.readInt();
+      for (int i = 0; i < jarsCount; i++) {
+        String path = in.readUTF();
+        long length = in.readLong();
+        long lastModified = in.readLong();
+        int namesCount = in.readInt();
+        List<String> names = Lists.newArrayListWithCapacity(namesCount);
+        for (int j = 0; j < namesCount; j++) {
+          names.add(in.readUTF());
+        }
+        index.jars.put(path, new JarEntries(length, lastModified, names));
+      }
+    } catch (IOException e) {
+      LOG.warn("Unable to read classpath index " + file.getAbsolutePath(), e);
+      return new ClasspathIndex();
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+    return index;
+  }
+
+  /**
+   * Saves lists of entries of JAR files, only if some of them were listed from JAR files.
+   */
+  void save(File file) {
+    if (!modified) {
+      return;
+    }
+    File tmpFile = new File(file.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(jars.size());
+      for (Map.Entry<String, JarEntries> jar : jars.entrySet()) {
+        out.writeUTF(jar.getKey());
+        out.writeLong(jar.getValue().length);
+        out.writeLong(jar.getValue().lastModified);
+        out.writeInt(jar.getValue().names.size());
+        for (String name : jar.getValue().names) {
+          out.writeUTF(name);
+        }
+      }
+      out.close();
+      if (file.exists() && !file.delete() || !tmpFile.renameTo(file)) {
+        LOG.warn("Unable to write classpath index " + file.getAbsolutePath());
+      }
+      modified = false;
+    } catch (IOException e) {
+      LOG.warn("Unable to write classpath index " + file.getAbsolutePath(), e);
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  private static class JarEntries {
+    private final long length;
+    private final long lastModified;
+    private final List<String> names;
+
+    JarEntries(long length, long lastModified, List<String> names) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.names = names;
+    }
+  }
+
+}
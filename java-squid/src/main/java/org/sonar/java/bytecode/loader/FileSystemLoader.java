@@ -19,6 +19,7 @@
  */
 package org.sonar.java.bytecode.loader;
 
+import com.google.common.collect.ImmutableSet;
 import org.apache.commons.io.IOUtils;
 
 import java.io.File;
@@ -27,11 +28,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 class FileSystemLoader implements Loader {
 
   private File baseDir;
 
+  /**
+   * Names of files for each directory relative to base directory, so that absence of resource can be detected without access to file system.
+   */
+  private final ConcurrentMap<String, Set<String>> directoryListings = new ConcurrentHashMap<String, Set<String>>();
+
   public FileSystemLoader(File baseDir) {
     if (baseDir == null) {
       throw new IllegalArgumentException("baseDir can't be null");
@@ -43,8 +52,11 @@ class FileSystemLoader implements Loader {
     if (baseDir == null) {
       throw new IllegalStateException("Loader closed");
     }
+    if (!isListed(name)) {
+      return null;
+    }
     File file = new File(baseDir, name);
-    if (file.exists() && file.isFile()) {
+    if (file.isFile()) {
       try {
         return file.toURI().toURL();
       } catch (MalformedURLException e) {
@@ -58,10 +70,10 @@ class FileSystemLoader implements Loader {
     if (baseDir == null) {
       throw new IllegalStateException("Loader closed");
     }
-    File file = new File(baseDir, name);
-    if (!file.exists()) {
+    if (!isListed(name)) {
       return null;
     }
+    File file = new File(baseDir, name);
     InputStream is = null;
     try {
       is = new FileInputStream(file);
@@ -73,6 +85,21 @@ class FileSystemLoader implements Loader {
     }
   }
 
+  /**
+   * Comparison of names is case-sensitive even on case-insensitive file systems.
+   */
+  private boolean isListed(String name) {
+    int separatorIndex = name.lastIndexOf('/');
+    String directory = separatorIndex == -1 ? "" : name.substring(0, separatorIndex);
+    Set<String> fileNames = directoryListings.get(directory);
+    if (fileNames == null) {
+      String[] list = new File(baseDir, directory).list();
+      fileNames = list == null ? ImmutableSet.<String>of() : ImmutableSet.copyOf(list);
+      directoryListings.put(directory, fileNames);
+    }
+    return fileNames.contains(name.substring(separatorIndex + 1));
+  }
+
   public void close() {
     baseDir = null;
   }
@@ -19,6 +19,7 @@
  */
 package org.sonar.java.bytecode.loader;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.io.IOUtils;
 
 import java.io.File;
@@ -28,31 +29,76 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.util.Enumeration;
+import java.util.List;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 
 class JarLoader implements Loader {
 
-  private final JarFile jarFile;
+  private final File file;
   private final URL jarUrl;
+  private JarFile jarFile;
+  private boolean closed = false;
 
   /**
    * @throws IllegalStateException if an I/O error has occurred
    */
   public JarLoader(File file) {
+    this(file, false);
+  }
+
+  /**
+   * @param lazy if true, then file will be opened only on first access to its entries
+   * @throws IllegalStateException if an I/O error has occurred
+   */
+  JarLoader(File file, boolean lazy) {
     if (file == null) {
       throw new IllegalArgumentException("file can't be null");
     }
+    this.file = file;
     try {
-      jarFile = new JarFile(file);
       jarUrl = new URL("jar", "", -1, file.getAbsolutePath() + "!/");
-    } catch (IOException e) {
+    } catch (MalformedURLException e) {
       throw new IllegalStateException("Unable to open " + file.getAbsolutePath(), e);
     }
+    if (!lazy) {
+      getJarFile();
+    }
+  }
+
+  private synchronized JarFile getJarFile() {
+    if (closed) {
+      throw new IllegalStateException("zip file closed");
+    }
+    if (jarFile == null) {
+      try {
+        jarFile = new JarFile(file);
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to open " + file.getAbsolutePath(), e);
+      }
+    }
+    return jarFile;
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  /**
+   * @return names of all entries of this file
+   */
+  List<String> entryNames() {
+    List<String> result = Lists.newArrayList();
+    Enumeration<? extends ZipEntry> entries = getJarFile().entries();
+    while (entries.hasMoreElements()) {
+      result.add(entries.nextElement().getName());
+    }
+    return result;
   }
 
   public URL findResource(String name) {
-    ZipEntry entry = jarFile.getEntry(name);
+    ZipEntry entry = getJarFile().getEntry(name);
     if (entry != null) {
       try {
         return new URL(jarUrl, name, new JarEntryHandler(entry));
@@ -66,12 +112,15 @@ class JarLoader implements Loader {
   public byte[] loadBytes(String name) {
     InputStream is = null;
     try {
-      ZipEntry entry = jarFile.getEntry(name);
+      JarFile jar = getJarFile();
+      ZipEntry entry = jar.getEntry(name);
       if (entry == null) {
         return null;
       }
-      is = jarFile.getInputStream(entry);
-      return IOUtils.toByteArray(is);
+      is = jar.getInputStream(entry);
+      // size is known for almost all entries, so that bytes can be read without intermediate buffers
+      long size = entry.getSize();
+      return size >= 0 ? IOUtils.toByteArray(is, size) : IOUtils.toByteArray(is);
     } catch (IOException e) {
       // TODO Godin: not sure that we should silently ignore exception here,
       // e.g. it can be thrown if file corrupted
@@ -81,11 +130,14 @@ class JarLoader implements Loader {
     }
   }
 
-  public void close() {
-    try {
-      jarFile.close();
-    } catch (IOException e) {
-      // ignore
+  public synchronized void close() {
+    closed = true;
+    if (jarFile != null) {
+      try {
+        jarFile.close();
+      } catch (IOException e) {
+        // ignore
+      }
     }
   }
 
@@ -112,7 +164,7 @@ class JarLoader implements Loader {
 
         @Override
         public InputStream getInputStream() throws IOException {
-          return jarFile.getInputStream(entry);
+          return getJarFile().getInputStream(entry);
         }
       };
     }
@@ -21,6 +21,8 @@ package org.sonar.java.bytecode.loader;
 
 import com.google.common.collect.Iterators;
 
+import javax.annotation.Nullable;
+
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
@@ -34,29 +36,63 @@ import java.util.List;
  */
 public class SquidClassLoader extends ClassLoader implements Closeable {
 
+  /**
+   * Parent of this class loader, which is used to check whether resource would be loaded by it instead of JAR files.
+   */
+  private static final ClassLoader BOOTSTRAP_CLASS_LOADER = new ClassLoader(null) {
+  };
+
   private final List<Loader> loaders;
+  private final ClasspathIndex index;
 
   /**
    * @param files ordered list of files and directories from which to load classes and resources
    */
   public SquidClassLoader(List<File> files) {
+    this(files, null);
+  }
+
+  /**
+   * @param files ordered list of files and directories from which to load classes and resources
+   * @param indexFile file to load index of JAR files from and to save it to, or null if index should not be persisted
+   */
+  public SquidClassLoader(List<File> files, @Nullable File indexFile) {
     super(null);
     loaders = new ArrayList<Loader>();
+    index = indexFile == null ? new ClasspathIndex() : ClasspathIndex.load(indexFile);
     for (File file : files) {
       if (file.exists()) {
         if (file.isDirectory()) {
           loaders.add(new FileSystemLoader(file));
         } else if (file.getName().endsWith(".jar")) {
-          loaders.add(new JarLoader(file));
+          addJar(file);
         }
       }
     }
+    if (indexFile != null) {
+      index.save(indexFile);
+    }
+  }
+
+  private void addJar(File file) {
+    List<String> entryNames = index.getEntryNames(file);
+    JarLoader loader;
+    if (entryNames == null) {
+      loader = new JarLoader(file);
+      entryNames = loader.entryNames();
+      index.addJar(loaders.size(), file, entryNames, true);
+    } else {
+      loader = new JarLoader(file, true);
+      index.addJar(loaders.size(), file, entryNames, false);
+    }
+    loaders.add(loader);
   }
 
   @Override
   protected Class findClass(String name) throws ClassNotFoundException {
     String resourceName = name.replace('.', '/') + ".class";
-    for (Loader loader : loaders) {
+    Loader loader = findLoader(resourceName);
+    if (loader != null) {
       byte[] classBytes = loader.loadBytes(resourceName);
       if (classBytes != null) {
         // TODO Godin: definePackage ?
@@ -68,12 +104,39 @@ public class SquidClassLoader extends ClassLoader implements Closeable {
 
   @Override
   public URL findResource(String name) {
-    for (Loader loader : loaders) {
-      URL url = loader.findResource(name);
-      if (url != null) {
-        return url;
+    Loader loader = findLoader(name);
+    return loader == null ? null : loader.findResource(name);
+  }
+
+  /**
+   * Only directories are searched one by one, because location of resource among JAR files is known from index.
+   *
+   * @return first loader, which contains given resource, or null if there is no such loader
+   */
+  @Nullable
+  private Loader findLoader(String name) {
+    int jarPosition = index.find(name);
+    int end = jarPosition == -1 ? loaders.size() : jarPosition;
+    for (int i = 0; i < end; i++) {
+      Loader loader = loaders.get(i);
+      if (!(loader instanceof JarLoader) && loader.findResource(name) != null) {
+        return loader;
       }
     }
+    return jarPosition == -1 ? null : loaders.get(jarPosition);
+  }
+
+  /**
+   * Unlike {@link #getResource(String)}, does not open JAR file, which was indexed by previous analysis.
+   *
+   * @return JAR file, from which given resource would be loaded, or null if it would be loaded from directory, by parent class loader or not found at all
+   */
+  @Nullable
+  public File findJar(String name) {
+    Loader loader = findLoader(name);
+    if (loader instanceof JarLoader && BOOTSTRAP_CLASS_LOADER.getResource(name) == null) {
+      return ((JarLoader) loader).getFile();
+    }
     return null;
   }
 
@@ -0,0 +1,208 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.incremental;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.squidbridge.api.CheckMessage;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of analysis of files from previous analysis, which are valid only if fingerprint of analysis was not changed,
+ * see {@link AnalysisFingerprint}.
+ * <p/>
+ * Only results of files, which were analysed or replayed by current analysis, are saved, so that removed files are evicted.
+ */
+public class AnalysisCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisCache.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final String fingerprint;
+  private final Map<String, CachedFile> previousFiles;
+  private final Map<String, CachedFile> currentFiles = Maps.newLinkedHashMap();
+  private int replayed = 0;
+
+  private AnalysisCache(String fingerprint, Map<String, CachedFile> previousFiles) {
+    this.fingerprint = fingerprint;
+    this.previousFiles = previousFiles;
+  }
+
+  /**
+   * Returns empty cache if file doesn't exist, can't be read or was created with another fingerprint.
+   */
+  public static AnalysisCache load(File file, String fingerprint) {
+    Map<String, CachedFile> files = Maps.newHashMap();
+    if (file.isFile()) {
+      DataInputStream in = null;
+      try {
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() == FORMAT_VERSION && fingerprint.equals(in.readUTF())) {
+          int filesCount = in.readInt();
+          for (int i = 0; i < filesCount; i++) {
+            files.put(in.readUTF(), readFile(in));
+          }
+        } else {
+          LOG.info("Analysis cache is outdated, all files will be analysed");
+        }
+      } catch (IOException e) {
+        LOG.warn("Unable to read analysis cache " + file.getAbsolutePath(), e);
+        files.clear();
+      } finally {
+        IOUtils.closeQuietly(in);
+      }
+    }
+    return new AnalysisCache(fingerprint, files);
+  }
+
+  /**
+   * @return results of previous analysis of given file, or null if there are no results or content of file was changed since
+   */
+  @Nullable
+  public CachedFile get(File file, String contentHash) {
+    String path = file.getAbsolutePath();
+    CachedFile cachedFile = previousFiles.get(path);
+    if (cachedFile == null || !cachedFile.getContentHash().equals(contentHash)) {
+      return null;
+    }
+    currentFiles.put(path, cachedFile);
+    replayed++;
+    return cachedFile;
+  }
+
+  public void put(File file, CachedFile cachedFile) {
+    currentFiles.put(file.getAbsolutePath(), cachedFile);
+  }
+
+  /**
+   * @return number of files, for which results were taken from this cache
+   */
+  public int getReplayed() {
+    return replayed;
+  }
+
+  public void save(File file) {
+    File tmpFile = new File(file.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(fingerprint);
+      out.writeInt(currentFiles.size());
+      for (Map.Entry<String, CachedFile> entry : currentFiles.entrySet()) {
+        out.writeUTF(entry.getKey());
+        writeFile(out, entry.getValue());
+      }
+      out.close();
+      if (file.exists() && !file.delete() || !tmpFile.renameTo(file)) {
+        LOG.warn("Unable to write analysis cache " + file.getAbsolutePath());
+      }
+    } catch (IOException e) {
+      LOG.warn("Unable to write analysis cache " + file.getAbsolutePath(), e);
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  private static CachedFile readFile(DataInputStream in) throws IOException {
+    String contentHash = in.readUTF();
+    int issuesCount = in.readInt();
+    List<CheckMessage> issues = Lists.newArrayListWithCapacity(issuesCount);
+    for (int i = 0; i < issuesCount; i++) {
+      CheckMessage issue = new CheckMessage(RuleKey.parse(in.readUTF()), readString(in));
+      int line = in.readInt();
+      if (line > 0) {
+        issue.setLine(line);
+      }
+      issue.setBypassExclusion(in.readBoolean());
+      issues.add(issue);
+    }
+    List<int[]> symbols = null;
+    int symbolsCount = in.readInt();
+    if (symbolsCount >= 0) {
+      symbols = Lists.newArrayListWithCapacity(symbolsCount);
+      for (int i = 0; i < symbolsCount; i++) {
+        int[] offsets = new int[in.readInt()];
+        for (int j = 0; j < offsets.length; j++) {
+          offsets[j] = in.readInt();
+        }
+        symbols.add(offsets);
+      }
+    }
+    return new CachedFile(contentHash, issues, symbols);
+  }
+
+  private static void writeFile(DataOutputStream out, CachedFile cachedFile) throws IOException {
+    out.writeUTF(cachedFile.getContentHash());
+    out.writeInt(cachedFile.getIssues().size());
+    for (CheckMessage issue : cachedFile.getIssues()) {
+      out.writeUTF(issue.getCheck().toString());
+      writeString(out, issue.getDefaultMessage());
+      out.writeInt(issue.getLine() == null ? -1 : issue.getLine());
+      out.writeBoolean(issue.isBypassExclusion());
+    }
+    List<int[]> symbols = cachedFile.getSymbols();
+    if (symbols == null) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(symbols.size());
+      for (int[] offsets : symbols) {
+        out.writeInt(offsets.length);
+        for (int offset : offsets) {
+          out.writeInt(offset);
+        }
+      }
+    }
+  }
+
+  /**
+   * Unlike {@link DataOutputStream#writeUTF(String)}, not limited in length.
+   */
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(Charsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+}
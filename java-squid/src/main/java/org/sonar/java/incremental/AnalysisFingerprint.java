@@ -0,0 +1,216 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.incremental;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.sonar.check.RuleProperty;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Fingerprint of everything, which can affect results of analysis of a file except its own content:
+ * version of plugin, settings of analysis, active checks together with values of their properties and classpath.
+ * <p/>
+ * Results of analysis of a file depend on other files only through their bytecode,
+ * which is used to build semantic model. So only non-private declarations of classes in directories are taken into account,
+ * and changes in bodies of methods of other files do not invalidate results.
+ * JAR files are identified by their path, size and date of last modification.
+ */
+public final class AnalysisFingerprint {
+
+  private AnalysisFingerprint() {
+    // only static methods
+  }
+
+  /**
+   * @param version see {@link #pluginVersion()}
+   * @param settings values of settings, which affect results of checks or saved symbol table
+   */
+  public static String compute(String version, List<String> settings, List<?> checks, List<File> classpath) {
+    MessageDigest digest = newDigest();
+    update(digest, version);
+    for (String setting : settings) {
+      update(digest, setting);
+    }
+    for (Object check : checks) {
+      update(digest, check.getClass().getName());
+      for (Field field : ruleProperties(check.getClass())) {
+        update(digest, field.getName());
+        update(digest, String.valueOf(getValue(check, field)));
+      }
+    }
+    for (File file : classpath) {
+      update(digest, file.getAbsolutePath());
+      if (file.isDirectory()) {
+        for (File classFile : sorted(FileUtils.listFiles(file, new String[] {"class"}, true))) {
+          update(digest, classFile.getPath());
+          updateWithDeclarations(digest, classFile);
+        }
+      } else {
+        update(digest, file.length() + ":" + file.lastModified());
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * @return version of plugin together with time of its build, so that snapshots built from different sources are distinguished
+   */
+  public static String pluginVersion() {
+    InputStream in = AnalysisFingerprint.class.getResourceAsStream("version.properties");
+    if (in == null) {
+      throw new IllegalStateException("Version of plugin is not available");
+    }
+    try {
+      Properties properties = new Properties();
+      properties.load(in);
+      return properties.getProperty("version") + " " + properties.getProperty("buildTimestamp");
+    } catch (IOException e) {
+      throw Throwables.propagate(e);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * @return MD5 of given content
+   */
+  public static String hash(String content) {
+    MessageDigest digest = newDigest();
+    digest.update(content.getBytes(Charsets.UTF_8));
+    return toHex(digest.digest());
+  }
+
+  private static List<Field> ruleProperties(Class<?> checkClass) {
+    List<Field> result = Lists.newArrayList();
+    for (Class<?> c = checkClass; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (field.isAnnotationPresent(RuleProperty.class)) {
+          result.add(field);
+        }
+      }
+    }
+    Collections.sort(result, new Comparator<Field>() {
+      @Override
+      public int compare(Field f1, Field f2) {
+        return f1.getName().compareTo(f2.getName());
+      }
+    });
+    return result;
+  }
+
+  private static Object getValue(Object check, Field field) {
+    try {
+      field.setAccessible(true);
+      return field.get(check);
+    } catch (IllegalAccessException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  private static List<File> sorted(Iterable<File> files) {
+    List<File> result = Lists.newArrayList(files);
+    Collections.sort(result);
+    return result;
+  }
+
+  private static void updateWithDeclarations(final MessageDigest digest, File classFile) {
+    InputStream in = null;
+    try {
+      in = new FileInputStream(classFile);
+      new ClassReader(in).accept(new ClassVisitor(Opcodes.ASM5) {
+        @Override
+        public void visit(int version, int access, String name, @Nullable String signature, @Nullable String superName, @Nullable String[] interfaces) {
+          update(digest, access + " " + name + " " + signature + " " + superName + " " + Arrays.toString(interfaces));
+        }
+
+        @Override
+        public void visitInnerClass(String name, @Nullable String outerName, @Nullable String innerName, int access) {
+          update(digest, access + " " + name + " " + outerName + " " + innerName);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, @Nullable String signature, @Nullable Object value) {
+          if ((access & Opcodes.ACC_PRIVATE) == 0) {
+            update(digest, access + " " + name + " " + desc + " " + signature + " " + value);
+          }
+          return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, @Nullable String signature, @Nullable String[] exceptions) {
+          if ((access & Opcodes.ACC_PRIVATE) == 0) {
+            update(digest, access + " " + name + " " + desc + " " + signature + " " + Arrays.toString(exceptions));
+          }
+          return null;
+        }
+      }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    } catch (IOException e) {
+      // file can't be used to build semantic model as well
+      update(digest, "unreadable");
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  private static void update(MessageDigest digest, String s) {
+    digest.update(s.getBytes(Charsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return sb.toString();
+  }
+
+}
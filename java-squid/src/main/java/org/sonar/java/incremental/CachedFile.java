@@ -0,0 +1,61 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.incremental;
+
+import com.google.common.collect.ImmutableList;
+import org.sonar.squidbridge.api.CheckMessage;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Results of analysis of a file, which can be replayed instead of analysing file again if its content was not changed.
+ */
+public class CachedFile {
+
+  private final String contentHash;
+  private final List<CheckMessage> issues;
+  private final List<int[]> symbols;
+
+  /**
+   * @param issues reported by checks, {@link CheckMessage#getCheck()} must be a {@link org.sonar.api.rule.RuleKey}
+   * @param symbols see {@link org.sonar.java.ast.visitors.SonarSymbolTableVisitor#getSymbols()}, null if symbol table was not saved
+   */
+  public CachedFile(String contentHash, List<CheckMessage> issues, @Nullable List<int[]> symbols) {
+    this.contentHash = contentHash;
+    this.issues = ImmutableList.copyOf(issues);
+    this.symbols = symbols == null ? null : ImmutableList.copyOf(symbols);
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public List<CheckMessage> getIssues() {
+    return issues;
+  }
+
+  @Nullable
+  public List<int[]> getSymbols() {
+    return symbols;
+  }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.model;
+
+import org.sonar.java.ast.visitors.FileContent;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+
+/**
+ * Context provided by {@link VisitorsBridge} to scanners of this plugin, which exposes internals not part of {@link JavaFileScannerContext}.
+ */
+public interface InternalJavaFileScannerContext extends JavaFileScannerContext {
+
+  /**
+   * @return content of file, which is read only once for all scanners
+   */
+  FileContent getFileContent();
+
+}
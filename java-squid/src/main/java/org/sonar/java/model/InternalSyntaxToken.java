@@ -20,6 +20,7 @@
 package org.sonar.java.model;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.AstNodeType;
@@ -43,7 +44,6 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
     // Must pass token to super's constructor
     super(astNodeType, token);
     this.token = token;
-    this.trivias = createTrivias(token);
     setFromIndex(fromIndex);
     setToIndex(toIndex);
   }
@@ -51,13 +51,11 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
   private InternalSyntaxToken(AstNode astNode) {
     super(astNode);
     this.token = astNode.getToken();
-    this.trivias = createTrivias(token);
   }
 
   public InternalSyntaxToken(Token token) {
     super((AstNode)null);
     this.token = token;
-    this.trivias = createTrivias(token);
   }
 
   @Override
@@ -67,12 +65,19 @@ public class InternalSyntaxToken extends JavaTree implements SyntaxToken {
 
   @Override
   public List<SyntaxTrivia> trivias() {
+    if (trivias == null) {
+      trivias = createTrivias(token);
+    }
     return trivias;
   }
 
-  private List<SyntaxTrivia> createTrivias(Token token) {
-    List<SyntaxTrivia> result = Lists.newArrayList();
-    for (Trivia trivia : token.getTrivia()) {
+  private static List<SyntaxTrivia> createTrivias(Token token) {
+    List<Trivia> tokenTrivias = token.getTrivia();
+    if (tokenTrivias.isEmpty()) {
+      return ImmutableList.of();
+    }
+    List<SyntaxTrivia> result = Lists.newArrayListWithCapacity(tokenTrivias.size());
+    for (Trivia trivia : tokenTrivias) {
       result.add(InternalSyntaxTrivia.create(trivia.getToken().getValue(), trivia.getToken().getLine()));
     }
     return result;
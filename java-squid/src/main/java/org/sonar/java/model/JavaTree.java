@@ -20,6 +20,7 @@
 package org.sonar.java.model;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.AstNodeType;
@@ -45,6 +46,7 @@ import org.sonar.plugins.java.api.tree.WildcardTree;
 
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -65,6 +67,9 @@ public abstract class JavaTree extends AstNode implements Tree {
 
   private final AstNode astNode;
 
+  @Nullable
+  private JavaTree parentTree;
+
   public JavaTree(AstNodeType type) {
     super(type, type.toString(), null);
     this.astNode = this;
@@ -87,16 +92,25 @@ public abstract class JavaTree extends AstNode implements Tree {
     return astNode != this;
   }
 
-  private void prependChild(AstNode astNode) {
+  /**
+   * Inserts given nodes before existing children at once, so that indexes of existing children are updated only once.
+   * Result is the same as prepending nodes one by one starting from the last one.
+   */
+  public void prependChildren(AstNode... astNodes) {
     Preconditions.checkState(getAstNode() == this, "Legacy strongly typed node");
 
-    List<AstNode> children = getChildren();
-    if (children.isEmpty()) {
+    int remaining = astNodes.length;
+    while (remaining > 0 && getChildren().isEmpty()) {
       // addChild() will take care of everything
-      addChild(astNode);
-    } else {
-      AstNodeHacks.setParent(astNode, this);
-      children.add(0, astNode);
+      remaining--;
+      addChild(astNodes[remaining]);
+    }
+    if (remaining > 0) {
+      List<AstNode> children = getChildren();
+      children.addAll(0, Arrays.asList(astNodes).subList(0, remaining));
+      for (int i = 0; i < remaining; i++) {
+        AstNodeHacks.setParent(astNodes[i], this);
+      }
 
       // Reset the childIndex field of all children
       for (int i = 0; i < children.size(); i++) {
@@ -105,12 +119,6 @@ public abstract class JavaTree extends AstNode implements Tree {
     }
   }
 
-  public void prependChildren(AstNode... astNodes) {
-    for (int i = astNodes.length - 1; i >= 0; i--) {
-      prependChild(astNodes[i]);
-    }
-  }
-
   public void prependChildren(List<? extends AstNode> astNodes) {
     prependChildren(astNodes.toArray(new AstNode[astNodes.size()]));
   }
@@ -125,6 +133,21 @@ public abstract class JavaTree extends AstNode implements Tree {
     return astNode;
   }
 
+  /**
+   * Parent of this node in strongly typed tree, which is set only during construction of semantic model by
+   * {@link org.sonar.java.resolve.SemanticModel#createFor(CompilationUnitTree, java.util.List)}.
+   * So it is null for the root and for all nodes of a file analyzed without semantic model, in which case {@link #getParent()} should be used.
+   * Unlike {@link #getParent()}, never points to a legacy or intermediate {@link AstNode}.
+   */
+  @Nullable
+  public JavaTree getParentTree() {
+    return parentTree;
+  }
+
+  public void setParentTree(@Nullable JavaTree parentTree) {
+    this.parentTree = parentTree;
+  }
+
   public int getLine() {
     return astNode.getTokenLine();
   }
@@ -161,6 +184,7 @@ public abstract class JavaTree extends AstNode implements Tree {
     private final List<ImportTree> imports;
     private final List<Tree> types;
     private final List<AnnotationTree> packageAnnotations;
+    private List<SyntaxToken> tokens;
 
     public CompilationUnitTreeImpl(AstNode astNode, @Nullable ExpressionTree packageName, List<ImportTree> imports, List<Tree> types, List<AnnotationTree> packageAnnotations) {
       super(astNode);
@@ -196,6 +220,19 @@ public abstract class JavaTree extends AstNode implements Tree {
       return types;
     }
 
+    @Override
+    public List<SyntaxToken> tokens() {
+      if (tokens == null) {
+        List<Token> astTokens = getAstNode().getTokens();
+        SyntaxToken[] syntaxTokens = new SyntaxToken[astTokens.size()];
+        for (int i = 0; i < syntaxTokens.length; i++) {
+          syntaxTokens[i] = new InternalSyntaxToken(astTokens.get(i));
+        }
+        tokens = ImmutableList.copyOf(syntaxTokens);
+      }
+      return tokens;
+    }
+
     @Override
     public void accept(TreeVisitor visitor) {
       visitor.visitCompilationUnit(this);
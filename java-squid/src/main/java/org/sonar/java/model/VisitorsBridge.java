@@ -23,17 +23,33 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.sonar.sslr.api.AstNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.check.Rule;
+import org.sonar.java.AnalysisProfiler;
 import org.sonar.java.CharsetAwareVisitor;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.ast.visitors.ComplexityVisitor;
+import org.sonar.java.ast.visitors.FileContent;
 import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
+import org.sonar.java.ast.visitors.SubscriptionDispatcher;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.ast.visitors.VisitorContext;
+import org.sonar.java.incremental.AnalysisCache;
+import org.sonar.java.incremental.AnalysisFingerprint;
+import org.sonar.java.incremental.CachedFile;
+import org.sonar.java.resolve.BytecodeCache;
+import org.sonar.java.resolve.BytecodeCompleter;
 import org.sonar.java.resolve.SemanticModel;
+import org.sonar.java.resolve.Symbols;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
@@ -47,7 +63,11 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -56,12 +76,28 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
   private static final Logger LOG = LoggerFactory.getLogger(VisitorsBridge.class);
 
   private final JavaTreeMaker treeMaker = new JavaTreeMaker();
-  private final List<JavaFileScanner> scanners;
+  private final List<JavaFileScanner> allScanners;
+  private final List<JavaFileScanner> checks;
+  private final List<JavaFileScanner> allScannersWithoutChecks;
+  private List<JavaFileScanner> scanners;
+  private List<JavaFileScanner> scannersWithoutChecks;
+  private final List<JavaFileScanner> dispatchedScanners;
+  private final List<JavaFileScanner> dispatchedScannersWithoutChecks;
 
   private SemanticModel semanticModel;
   private final SonarComponents sonarComponents;
   private List<File> projectClasspath;
+  private BytecodeCache bytecodeCache;
+  private Symbols symbols;
+  private File workDir;
   private boolean analyseAccessors;
+  private boolean symbolHighlighting = true;
+  private final boolean scannersRequireSemantic;
+  private final Map<JavaFileScanner, Set<Tree.Kind>> requiredKinds = Maps.newIdentityHashMap();
+  private Set<Tree.Kind> presentKinds;
+  private File analysisCacheFile;
+  private AnalysisCache analysisCache;
+  private AnalysisProfiler profiler;
 
   @VisibleForTesting
   public VisitorsBridge(JavaFileScanner visitor){
@@ -75,13 +111,33 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
   }
 
   public VisitorsBridge(Iterable visitors, @Nullable SonarComponents sonarComponents) {
-    ImmutableList.Builder<JavaFileScanner> scannersBuilder = ImmutableList.builder();
+    ImmutableList.Builder<JavaFileScanner> allScannersBuilder = ImmutableList.builder();
+    ImmutableList.Builder<JavaFileScanner> checksBuilder = ImmutableList.builder();
+    ImmutableList.Builder<JavaFileScanner> scannersWithoutChecksBuilder = ImmutableList.builder();
     for (Object visitor : visitors) {
       if (visitor instanceof JavaFileScanner) {
-        scannersBuilder.add((JavaFileScanner) visitor);
+        allScannersBuilder.add((JavaFileScanner) visitor);
+        if (visitor.getClass().isAnnotationPresent(Rule.class)) {
+          checksBuilder.add((JavaFileScanner) visitor);
+        } else {
+          scannersWithoutChecksBuilder.add((JavaFileScanner) visitor);
+        }
+      }
+    }
+    this.allScanners = allScannersBuilder.build();
+    this.checks = checksBuilder.build();
+    this.allScannersWithoutChecks = scannersWithoutChecksBuilder.build();
+    this.scannersRequireSemantic = requireSemantic(allScanners);
+    for (JavaFileScanner scanner : allScanners) {
+      Set<Tree.Kind> kinds = requiredKinds(scanner);
+      if (kinds != null) {
+        requiredKinds.put(scanner, kinds);
       }
     }
-    this.scanners = scannersBuilder.build();
+    this.dispatchedScanners = dispatchSubscriptionVisitors(allScanners);
+    this.dispatchedScannersWithoutChecks = dispatchSubscriptionVisitors(allScannersWithoutChecks);
+    this.scanners = dispatchedScanners;
+    this.scannersWithoutChecks = dispatchedScannersWithoutChecks;
     this.sonarComponents = sonarComponents;
     if(sonarComponents!=null) {
       projectClasspath = sonarComponents.getJavaClasspath();
@@ -90,46 +146,258 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
     }
   }
 
+  private static boolean requireSemantic(List<JavaFileScanner> scanners) {
+    for (JavaFileScanner scanner : scanners) {
+      if (!scanner.getClass().isAnnotationPresent(SyntaxOnly.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return kinds of nodes, at least one of which must be present in a file for given scanner to be executed on it,
+   * or null if scanner must be executed on each file
+   */
+  @Nullable
+  private static Set<Tree.Kind> requiredKinds(JavaFileScanner scanner) {
+    RequiredKinds annotation = scanner.getClass().getAnnotation(RequiredKinds.class);
+    if (annotation != null) {
+      return Sets.immutableEnumSet(Arrays.asList(annotation.value()));
+    }
+    if (SubscriptionDispatcher.canDispatch(scanner)) {
+      List<Tree.Kind> nodesToVisit = ((SubscriptionVisitor) scanner).nodesToVisit();
+      if (!nodesToVisit.contains(Tree.Kind.TOKEN) && !nodesToVisit.contains(Tree.Kind.TRIVIA)) {
+        return Sets.immutableEnumSet(nodesToVisit);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * All subscription visitors are visited within a single traversal of tree, which requires union of kinds required by them.
+   */
+  private List<JavaFileScanner> dispatchSubscriptionVisitors(List<JavaFileScanner> scanners) {
+    ImmutableList.Builder<JavaFileScanner> result = ImmutableList.builder();
+    List<SubscriptionVisitor> dispatchedVisitors = Lists.newArrayList();
+    for (JavaFileScanner scanner : scanners) {
+      if (SubscriptionDispatcher.canDispatch(scanner)) {
+        dispatchedVisitors.add((SubscriptionVisitor) scanner);
+      } else {
+        result.add(scanner);
+      }
+    }
+    if (!dispatchedVisitors.isEmpty()) {
+      SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(dispatchedVisitors);
+      Set<Tree.Kind> kinds = unionOfRequiredKinds(dispatchedVisitors);
+      if (kinds != null) {
+        requiredKinds.put(dispatcher, kinds);
+      }
+      result.add(dispatcher);
+    }
+    return result.build();
+  }
+
+  @Nullable
+  private Set<Tree.Kind> unionOfRequiredKinds(List<SubscriptionVisitor> visitors) {
+    Set<Tree.Kind> result = EnumSet.noneOf(Tree.Kind.class);
+    for (SubscriptionVisitor visitor : visitors) {
+      Set<Tree.Kind> kinds = requiredKinds.get(visitor);
+      if (kinds == null) {
+        return null;
+      }
+      result.addAll(kinds);
+    }
+    return Sets.immutableEnumSet(result);
+  }
+
+  /**
+   * Enables measurement of phases and of each scanner. Subscription visitors are visited separately in this case,
+   * otherwise time of each of them can't be measured.
+   */
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+    if (profiler == null) {
+      scanners = dispatchedScanners;
+      scannersWithoutChecks = dispatchedScannersWithoutChecks;
+    } else {
+      scanners = allScanners;
+      scannersWithoutChecks = allScannersWithoutChecks;
+    }
+  }
+
   public void setAnalyseAccessors(boolean analyseAccessors) {
     this.analyseAccessors = analyseAccessors;
   }
 
+  /**
+   * @param symbolHighlighting if false, then symbol table is not saved, so that semantic model is not built when all scanners are {@link SyntaxOnly}
+   */
+  public void setSymbolHighlighting(boolean symbolHighlighting) {
+    this.symbolHighlighting = symbolHighlighting;
+  }
+
+  public void setWorkDir(@Nullable File workDir) {
+    this.workDir = workDir;
+  }
+
+  /**
+   * Enables incremental analysis: results of checks and symbol table of files, which were not changed since previous analysis,
+   * are taken from given file instead of being computed again.
+   */
+  public void setAnalysisCacheFile(@Nullable File analysisCacheFile) {
+    this.analysisCacheFile = analysisCacheFile;
+  }
+
   @Override
   public void setCharset(Charset charset) {
-    for (JavaFileScanner scanner : scanners) {
+    for (JavaFileScanner scanner : allScanners) {
       if(scanner instanceof CharsetAwareVisitor) {
         ((CharsetAwareVisitor) scanner).setCharset(charset);
       }
     }
   }
 
+  @Override
+  public void init() {
+    if (analysisCacheFile != null) {
+      List<String> settings = ImmutableList.of("analyseAccessors=" + analyseAccessors, "symbolHighlighting=" + isSymbolTableSaved());
+      analysisCache = AnalysisCache.load(analysisCacheFile, AnalysisFingerprint.compute(AnalysisFingerprint.pluginVersion(), settings, checks, projectClasspath));
+    }
+  }
+
   @Override
   public void visitFile(@Nullable AstNode astNode) {
     semanticModel = null;
+    presentKinds = null;
     if (astNode != null) {
+      AnalysisProfiler.Measure measure = startMeasure();
       CompilationUnitTree tree = treeMaker.compilationUnit(astNode);
-      if (isNotJavaLangOrSerializable()) {
+      stopMeasure(measure, AnalysisProfiler.PHASE, AnalysisProfiler.TREE_BUILD);
+      FileContent fileContent = ((VisitorContext) getContext()).getFileContent();
+      String contentHash = null;
+      if (analysisCache != null && fileContent != null) {
+        contentHash = AnalysisFingerprint.hash(fileContent.getContent());
+        CachedFile cachedFile = analysisCache.get(getContext().getFile(), contentHash);
+        if (cachedFile != null) {
+          replay(tree, fileContent, cachedFile);
+          return;
+        }
+      }
+      SonarSymbolTableVisitor symbolTableVisitor = null;
+      if (!isSemanticModelRequired()) {
+        handleMissingTypes(tree);
+      } else if (isNotJavaLangOrSerializable()) {
+        measure = startMeasure();
         try {
-          semanticModel = SemanticModel.createFor(tree, getProjectClasspath());
+          semanticModel = SemanticModel.createFor(tree, getBytecodeCache());
         } catch (Exception e) {
           LOG.error("Unable to create symbol table for : " + getContext().getFile().getName(), e);
           return;
+        } finally {
+          stopMeasure(measure, AnalysisProfiler.PHASE, AnalysisProfiler.SEMANTIC_MODEL);
         }
-        createSonarSymbolTable(tree);
+        symbolTableVisitor = createSonarSymbolTable(tree);
       } else {
-        SemanticModel.handleMissingTypes(tree);
+        handleMissingTypes(tree);
       }
-      JavaFileScannerContext context = new DefaultJavaFileScannerContext(tree, (SourceFile) getContext().peekSourceCode(), getContext().getFile(), semanticModel, analyseAccessors);
-      for (JavaFileScanner scanner : scanners) {
-        scanner.scanFile(context);
+      DefaultJavaFileScannerContext context = new DefaultJavaFileScannerContext(tree, (SourceFile) getContext().peekSourceCode(), getContext().getFile(),
+          fileContent, semanticModel, analyseAccessors);
+      scan(scanners, context);
+      if (contentHash != null) {
+        analysisCache.put(getContext().getFile(), new CachedFile(contentHash, context.issues, symbolTableVisitor == null ? null : symbolTableVisitor.getSymbols()));
       }
       if(semanticModel != null) {
-        //Close class loader after all the checks.
+        //Release resources of semantic model after all the checks, shared bytecode cache is closed by destroy().
         semanticModel.done();
       }
     }
   }
 
+  /**
+   * Semantic model is not created for replayed file, so only scanners, which are not checks, are executed and without semantic model,
+   * types of nodes are unknown as for any other file analysed without semantic model.
+   */
+  private void replay(CompilationUnitTree tree, FileContent fileContent, CachedFile cachedFile) {
+    SourceFile sourceFile = (SourceFile) getContext().peekSourceCode();
+    for (CheckMessage issue : cachedFile.getIssues()) {
+      sourceFile.log(issue);
+    }
+    if (isSymbolTableSaved() && cachedFile.getSymbols() != null) {
+      SonarSymbolTableVisitor.saveSymbolTable(sonarComponents.symbolizableFor(getContext().getFile()), cachedFile.getSymbols());
+    }
+    handleMissingTypes(tree);
+    JavaFileScannerContext context = new DefaultJavaFileScannerContext(tree, sourceFile, getContext().getFile(), fileContent, null, analyseAccessors);
+    scan(scannersWithoutChecks, context);
+  }
+
+  /**
+   * Scanners, which require kinds of nodes absent in a file, are skipped.
+   * Dispatched subscription visitors are skipped all together, when none of kinds required by any of them is present.
+   */
+  private void scan(List<JavaFileScanner> scannersToExecute, JavaFileScannerContext context) {
+    for (JavaFileScanner scanner : scannersToExecute) {
+      Set<Tree.Kind> kinds = requiredKinds.get(scanner);
+      if (kinds != null && Collections.disjoint(kinds, presentKinds(context.getTree()))) {
+        if (profiler != null) {
+          profiler.skip(AnalysisProfiler.JAVA_FILE_SCANNER, scanner.getClass().getName());
+        }
+        continue;
+      }
+      AnalysisProfiler.Measure measure = startMeasure();
+      scanner.scanFile(context);
+      stopMeasure(measure, AnalysisProfiler.JAVA_FILE_SCANNER, scanner.getClass().getName());
+    }
+  }
+
+  private Set<Tree.Kind> presentKinds(CompilationUnitTree tree) {
+    if (presentKinds == null) {
+      AnalysisProfiler.Measure measure = startMeasure();
+      presentKinds = EnumSet.noneOf(Tree.Kind.class);
+      collectKinds(tree, presentKinds);
+      stopMeasure(measure, AnalysisProfiler.PHASE, AnalysisProfiler.NODE_KINDS);
+    }
+    return presentKinds;
+  }
+
+  /**
+   * Same traversal as the one of {@link SubscriptionVisitor}.
+   */
+  private static void collectKinds(Tree tree, Set<Tree.Kind> kinds) {
+    JavaTree javaTree = (JavaTree) tree;
+    Tree.Kind kind = javaTree.getKind();
+    if (kind != null) {
+      kinds.add(kind);
+    }
+    if (!javaTree.isLeaf()) {
+      for (Iterator<Tree> iter = javaTree.childrenIterator(); iter.hasNext(); ) {
+        Tree next = iter.next();
+        if (next != null) {
+          collectKinds(next, kinds);
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private AnalysisProfiler.Measure startMeasure() {
+    return profiler == null ? null : profiler.start();
+  }
+
+  private void stopMeasure(@Nullable AnalysisProfiler.Measure measure, String category, String name) {
+    if (measure != null) {
+      profiler.stop(measure, category, name, getContext().getFile());
+    }
+  }
+
+  private boolean isSemanticModelRequired() {
+    return scannersRequireSemantic || isSymbolTableSaved();
+  }
+
+  private boolean isSymbolTableSaved() {
+    return sonarComponents != null && symbolHighlighting;
+  }
+
   private boolean isNotJavaLangOrSerializable() {
     String[] path = getContext().peekSourceCode().getName().split(Pattern.quote(File.separator));
     boolean isJavaLang = path.length > 3 && "java".equals(path[path.length - 3]) && "lang".equals(path[path.length - 2]);
@@ -139,28 +407,65 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
     return !(isJavaLang || isJavaLangAnnotation || isSerializable);
   }
 
-  private List<File> getProjectClasspath() {
-    return projectClasspath;
+  private BytecodeCache getBytecodeCache() {
+    if (bytecodeCache == null) {
+      bytecodeCache = new BytecodeCache(projectClasspath, workDir);
+    }
+    return bytecodeCache;
   }
 
-  private void createSonarSymbolTable(CompilationUnitTree tree) {
-    if (sonarComponents != null) {
+  /**
+   * Assigns unknown type to nodes of file analyzed without semantic model, using symbols created once and shared between such files.
+   */
+  private void handleMissingTypes(CompilationUnitTree tree) {
+    if (symbols == null) {
+      symbols = new Symbols(new BytecodeCompleter(getBytecodeCache()));
+    }
+    SemanticModel.handleMissingTypes(symbols, tree);
+  }
+
+  @Override
+  public void destroy() {
+    if (analysisCache != null) {
+      LOG.info("Incremental analysis: " + analysisCache.getReplayed() + " unchanged files were not analysed again");
+      analysisCache.save(analysisCacheFile);
+      analysisCache = null;
+    }
+    if (bytecodeCache != null) {
+      LOG.debug("Bytecode cache: " + bytecodeCache.getHits() + " hits, " + bytecodeCache.getMisses() + " misses, "
+        + bytecodeCache.getLibraryIndexHits() + " classes from library index");
+      bytecodeCache.close();
+      bytecodeCache = null;
+      symbols = null;
+    }
+  }
+
+  @Nullable
+  private SonarSymbolTableVisitor createSonarSymbolTable(CompilationUnitTree tree) {
+    if (isSymbolTableSaved()) {
       SonarSymbolTableVisitor symVisitor = new SonarSymbolTableVisitor(sonarComponents.symbolizableFor(getContext().getFile()), semanticModel);
       symVisitor.visitCompilationUnit(tree);
+      return symVisitor;
     }
+    return null;
   }
 
-  private static class DefaultJavaFileScannerContext implements JavaFileScannerContext {
+  private static class DefaultJavaFileScannerContext implements InternalJavaFileScannerContext {
     private final CompilationUnitTree tree;
     private final SourceFile sourceFile;
     private final SemanticModel semanticModel;
     private final ComplexityVisitor complexityVisitor;
+    private boolean complexityMemoized = false;
     private File file;
+    private final FileContent fileContent;
+    private final List<CheckMessage> issues = Lists.newArrayList();
 
-    public DefaultJavaFileScannerContext(CompilationUnitTree tree, SourceFile sourceFile, File file, SemanticModel semanticModel, boolean analyseAccessors) {
+    public DefaultJavaFileScannerContext(CompilationUnitTree tree, SourceFile sourceFile, File file, FileContent fileContent, @Nullable SemanticModel semanticModel,
+      boolean analyseAccessors) {
       this.tree = tree;
       this.sourceFile = sourceFile;
       this.file = file;
+      this.fileContent = fileContent;
       this.semanticModel = semanticModel;
       this.complexityVisitor = new ComplexityVisitor(analyseAccessors);
     }
@@ -190,6 +495,7 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
       }
       checkMessage.setBypassExclusion(ruleKey.rule().equals("NoSonar"));
       sourceFile.log(checkMessage);
+      issues.add(checkMessage);
     }
 
     @Override
@@ -210,12 +516,20 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
 
     @Override
     public int getComplexity(Tree tree) {
-      return complexityVisitor.scan(tree);
+      return memoizedComplexity().getComplexity(tree);
     }
 
     @Override
     public int getMethodComplexity(ClassTree enclosingClass, MethodTree methodTree) {
-      return complexityVisitor.scan(enclosingClass, methodTree);
+      return memoizedComplexity().getMethodComplexity(enclosingClass, methodTree);
+    }
+
+    private ComplexityVisitor memoizedComplexity() {
+      if (!complexityMemoized) {
+        complexityVisitor.memoize(tree);
+        complexityMemoized = true;
+      }
+      return complexityVisitor;
     }
 
     @Override
@@ -223,6 +537,11 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements
       return sourceFile.getNoSonarTagLines();
     }
 
+    @Override
+    public FileContent getFileContent() {
+      return fileContent;
+    }
+
   }
 
 }
@@ -0,0 +1,193 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.io.Closeables;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.sonar.java.bytecode.ClassLoaderBuilder;
+import org.sonar.java.bytecode.loader.SquidClassLoader;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of class files read from the project classpath, shared by the {@link BytecodeCompleter}s of all analyzed files.
+ * <p/>
+ * Symbols are mutable and can be entered by source code, so each file still gets its own symbols,
+ * but they are created from classes stored here instead of being read and parsed again for each file.
+ * Classes are kept without code, frames and debug information.
+ * <p/>
+ * Absence of a class is cached as well, because resolution of star imports and of java.lang probes each simple name in each imported package.
+ * Number of such names is not bounded by content of classpath, so only most recently used ones are kept.
+ * <p/>
+ * When working directory is given, classes from JAR files are taken from {@link LibraryIndex} of previous analyses, if possible.
+ * <p/>
+ * Instances are thread-safe.
+ */
+public class BytecodeCache implements Closeable {
+
+  @VisibleForTesting
+  static final int MAX_MISSING_CLASSES = 10000;
+
+  private static final String LIBRARY_INDEX_DIR = "squid-library-index";
+
+  private final List<File> projectClasspath;
+  private final File workDir;
+  private final LibraryIndex libraryIndex;
+  private final ConcurrentMap<String, ClassNode> classes = new ConcurrentHashMap<String, ClassNode>();
+  private final Map<String, Boolean> missingClasses = Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+      return size() > MAX_MISSING_CLASSES;
+    }
+  });
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  private volatile ClassLoader classLoader;
+
+  public BytecodeCache(List<File> projectClasspath) {
+    this(projectClasspath, null);
+  }
+
+  /**
+   * @param workDir directory to store index of classpath, see {@link ClassLoaderBuilder#create(java.util.Collection, File)}, and {@link LibraryIndex}
+   */
+  public BytecodeCache(List<File> projectClasspath, @Nullable File workDir) {
+    this.projectClasspath = projectClasspath;
+    this.workDir = workDir;
+    this.libraryIndex = workDir == null ? null : new LibraryIndex(new File(workDir, LIBRARY_INDEX_DIR));
+  }
+
+  /**
+   * @param bytecodeName name of class as it appears in bytecode, i.e. "org/example/MyClass$InnerClass"
+   * @return class without code, or null if there is no corresponding class file on classpath
+   */
+  @Nullable
+  public ClassNode getClassNode(String bytecodeName) {
+    ClassNode classNode = classes.get(bytecodeName);
+    if (classNode != null || missingClasses.get(bytecodeName) != null) {
+      hits.incrementAndGet();
+      return classNode;
+    }
+    misses.incrementAndGet();
+    classNode = readClassNode(bytecodeName);
+    if (classNode == null) {
+      missingClasses.put(bytecodeName, Boolean.TRUE);
+      return null;
+    }
+    ClassNode previous = classes.putIfAbsent(bytecodeName, classNode);
+    return previous == null ? classNode : previous;
+  }
+
+  @Nullable
+  private ClassNode readClassNode(String bytecodeName) {
+    ClassLoader loader = getClassLoader();
+    String resourceName = bytecodeName + ".class";
+    File jar = null;
+    if (libraryIndex != null && loader instanceof SquidClassLoader) {
+      jar = ((SquidClassLoader) loader).findJar(resourceName);
+    }
+    if (jar == null) {
+      return readClassNode(loader, resourceName);
+    }
+    ClassNode classNode = libraryIndex.get(jar, bytecodeName);
+    if (classNode == null) {
+      classNode = readClassNode(loader, resourceName);
+      if (classNode != null) {
+        libraryIndex.put(jar, classNode);
+      }
+    }
+    return classNode;
+  }
+
+  @Nullable
+  private static ClassNode readClassNode(ClassLoader classLoader, String resourceName) {
+    InputStream inputStream = classLoader.getResourceAsStream(resourceName);
+    if (inputStream == null) {
+      return null;
+    }
+    try {
+      ClassNode classNode = new ClassNode();
+      new ClassReader(inputStream).accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+      return classNode;
+    } catch (IOException e) {
+      throw Throwables.propagate(e);
+    } finally {
+      Closeables.closeQuietly(inputStream);
+    }
+  }
+
+  private ClassLoader getClassLoader() {
+    if (classLoader == null) {
+      synchronized (this) {
+        if (classLoader == null) {
+          classLoader = ClassLoaderBuilder.create(projectClasspath, workDir);
+        }
+      }
+    }
+    return classLoader;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return number of classes, which were taken from summaries saved by previous analyses instead of JAR files
+   */
+  public long getLibraryIndexHits() {
+    return libraryIndex == null ? 0 : libraryIndex.getHits();
+  }
+
+  /**
+   * Also saves {@link LibraryIndex} into working directory.
+   */
+  @Override
+  public synchronized void close() {
+    if (libraryIndex != null) {
+      libraryIndex.save();
+    }
+    if (classLoader instanceof Closeable) {
+      Closeables.closeQuietly((Closeable) classLoader);
+    }
+    classLoader = null;
+    classes.clear();
+    missingClasses.clear();
+  }
+
+}
@@ -21,27 +21,21 @@ package org.sonar.java.resolve;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
-import com.google.common.io.Closeables;
 import org.apache.commons.lang.StringUtils;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Attribute;
-import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.TypePath;
+import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.sonar.java.bytecode.ClassLoaderBuilder;
 
 import javax.annotation.Nullable;
-import java.io.Closeable;
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,7 +50,8 @@ public class BytecodeCompleter implements Symbol.Completer {
       Flags.ABSTRACT | Flags.STRICTFP;
 
   private Symbols symbols;
-  private final List<File> projectClasspath;
+  private final BytecodeCache bytecodeCache;
+  private final boolean ownsBytecodeCache;
 
   /**
    * Indexed by flat name.
@@ -64,10 +59,17 @@ public class BytecodeCompleter implements Symbol.Completer {
   private final Map<String, Symbol.TypeSymbol> classes = new HashMap<String, Symbol.TypeSymbol>();
   private final Map<String, Symbol.PackageSymbol> packages = new HashMap<String, Symbol.PackageSymbol>();
 
-  private ClassLoader classLoader;
-
   public BytecodeCompleter(List<File> projectClasspath) {
-    this.projectClasspath = projectClasspath;
+    this.bytecodeCache = new BytecodeCache(projectClasspath);
+    this.ownsBytecodeCache = true;
+  }
+
+  /**
+   * @param bytecodeCache shared with other instances, so will not be closed by {@link #done()}
+   */
+  public BytecodeCompleter(BytecodeCache bytecodeCache) {
+    this.bytecodeCache = bytecodeCache;
+    this.ownsBytecodeCache = false;
   }
 
   public void init(Symbols symbols) {
@@ -88,30 +90,9 @@ public class BytecodeCompleter implements Symbol.Completer {
     Symbol.TypeSymbol classSymbol = getClassSymbol(bytecodeName);
     Preconditions.checkState(classSymbol == symbol);
 
-    InputStream inputStream = null;
-    ClassReader classReader = null;
-    try {
-      inputStream = inputStreamFor(bytecodeName);
-      classReader = new ClassReader(inputStream);
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
-    } finally {
-      Closeables.closeQuietly(inputStream);
-    }
-    if (classReader != null) {
-      classReader.accept(new BytecodeVisitor((Symbol.TypeSymbol) symbol), ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
-    }
-  }
-
-  private InputStream inputStreamFor(String fullname) {
-    return getClassLoader().getResourceAsStream(Convert.bytecodeName(fullname) + ".class");
-  }
-
-  private ClassLoader getClassLoader() {
-    if (classLoader == null) {
-      classLoader = ClassLoaderBuilder.create(projectClasspath);
-    }
-    return classLoader;
+    ClassNode classNode = bytecodeCache.getClassNode(Convert.bytecodeName(bytecodeName));
+    Preconditions.checkState(classNode != null, "Class not found: " + bytecodeName);
+    classNode.accept(new BytecodeVisitor((Symbol.TypeSymbol) symbol));
   }
 
   public String formFullName(Symbol symbol) {
@@ -155,7 +136,7 @@ public class BytecodeCompleter implements Symbol.Completer {
       symbol.members = new Scope(symbol);
 
       // (Godin): IOException will happen without this condition in case of missing class:
-      if (getClassLoader().getResource(Convert.bytecodeName(flatName) + ".class") != null) {
+      if (bytecodeCache.getClassNode(Convert.bytecodeName(flatName)) != null) {
         symbol.completer = this;
       } else {
         LOG.error("Class not found: " + bytecodeName);
@@ -175,34 +156,17 @@ public class BytecodeCompleter implements Symbol.Completer {
   /**
    * <b>Note:</b> Attempt to find something like "java.class" on case-insensitive file system can result in unwanted loading of "JAVA.class".
    * This method performs check of class name within file in order to avoid such situation.
-   * This is definitely not the best solution in terms of performance, but acceptable for now.
+   * Class files are read only once thanks to {@link BytecodeCache}, so this check is cheap.
    *
    * @return symbol for requested class, if corresponding class file exists, and {@link Resolve.SymbolNotFound} otherwise
    */
   // TODO(Godin): Method name is misleading because of lazy loading.
   public Symbol loadClass(String fullname) {
-    // TODO(Godin): avoid unnecessary checks of the same class
-
-    // TODO(Godin): pull out conversion of name from the next method to avoid unnecessary conversion afterwards:
-    InputStream inputStream = inputStreamFor(fullname);
     String bytecodeName = Convert.bytecodeName(fullname);
-
-    if (inputStream == null) {
+    ClassNode classNode = bytecodeCache.getClassNode(bytecodeName);
+    if (classNode == null || !bytecodeName.equals(classNode.name)) {
       return new Resolve.SymbolNotFound();
     }
-
-    try {
-      ClassReader classReader = new ClassReader(inputStream);
-      String className = classReader.getClassName();
-      if (!className.equals(bytecodeName)) {
-        return new Resolve.SymbolNotFound();
-      }
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
-    } finally {
-      Closeables.closeQuietly(inputStream);
-    }
-
     return getClassSymbol(fullname);
   }
 
@@ -219,8 +183,8 @@ public class BytecodeCompleter implements Symbol.Completer {
   }
 
   public void done() {
-    if (classLoader != null && classLoader instanceof Closeable) {
-      Closeables.closeQuietly((Closeable) classLoader);
+    if (ownsBytecodeCache) {
+      bytecodeCache.close();
     }
   }
 
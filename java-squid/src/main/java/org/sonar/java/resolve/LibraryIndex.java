@@ -0,0 +1,352 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+import org.apache.commons.io.IOUtils;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InnerClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.java.incremental.AnalysisFingerprint;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Summaries of classes from JAR files of the project classpath, which are saved in the working directory and reused by next analyses,
+ * so that {@link BytecodeCompleter} gets classes of libraries without opening JAR files.
+ * <p/>
+ * Summary of a class contains only what is needed to complete its symbol: flags, names of supertypes,
+ * inner classes, and descriptors and signatures of fields and methods. Annotations and values of constants are not kept.
+ * <p/>
+ * Summaries are stored in one file per JAR file, which is read only when some class is requested from this JAR file.
+ * Summaries of a JAR file are valid as long as its size and date of last modification were not changed,
+ * or otherwise when its content has the same hash, so that JAR files, which were only downloaded again, are not summarized again.
+ * Only classes, which were requested by analyses, are summarized.
+ * <p/>
+ * Instances are thread-safe.
+ */
+class LibraryIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LibraryIndex.class);
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final File dir;
+  private final ConcurrentMap<String, JarSummaries> jars = new ConcurrentHashMap<String, JarSummaries>();
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * @param dir directory to store summaries
+   */
+  LibraryIndex(File dir) {
+    this.dir = dir;
+  }
+
+  /**
+   * @return class with content of its summary, or null if given JAR file has no valid summary of this class
+   */
+  @Nullable
+  ClassNode get(File jar, String bytecodeName) {
+    byte[] summary = getJarSummaries(jar).get(bytecodeName);
+    if (summary == null) {
+      return null;
+    }
+    try {
+      ClassNode classNode = readClass(new DataInputStream(new ByteArrayInputStream(summary)));
+      hits.incrementAndGet();
+      return classNode;
+    } catch (IOException e) {
+      LOG.warn("Unable to read summary of class " + bytecodeName + " from " + jar.getAbsolutePath(), e);
+      return null;
+    }
+  }
+
+  void put(File jar, ClassNode classNode) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      writeClass(new DataOutputStream(bytes), classNode);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    getJarSummaries(jar).put(classNode.name, bytes.toByteArray());
+  }
+
+  /**
+   * @return number of classes, which were taken from summaries
+   */
+  long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Saves summaries of JAR files, for which new classes were summarized or which were modified without change of content.
+   */
+  void save() {
+    for (JarSummaries jarSummaries : jars.values()) {
+      jarSummaries.save();
+    }
+  }
+
+  private JarSummaries getJarSummaries(File jar) {
+    String path = jar.getAbsolutePath();
+    JarSummaries result = jars.get(path);
+    if (result == null) {
+      result = new JarSummaries(jar, new File(dir, AnalysisFingerprint.hash(path) + ".idx"));
+      JarSummaries previous = jars.putIfAbsent(path, result);
+      if (previous != null) {
+        result = previous;
+      }
+    }
+    return result;
+  }
+
+  private static class JarSummaries {
+    private final File jar;
+    private final File file;
+    private Map<String, byte[]> summaries;
+    private byte[] contentHash;
+    private boolean modified = false;
+
+    JarSummaries(File jar, File file) {
+      this.jar = jar;
+      this.file = file;
+    }
+
+    @Nullable
+    synchronized byte[] get(String bytecodeName) {
+      return getSummaries().get(bytecodeName);
+    }
+
+    synchronized void put(String bytecodeName, byte[] summary) {
+      getSummaries().put(bytecodeName, summary);
+      modified = true;
+    }
+
+    private Map<String, byte[]> getSummaries() {
+      if (summaries == null) {
+        summaries = Maps.newHashMap();
+        if (file.isFile()) {
+          load();
+        }
+      }
+      return summaries;
+    }
+
+    private void load() {
+      try {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.toByteArray(file)));
+        if (in.readInt() != FORMAT_VERSION || !jar.getAbsolutePath().equals(in.readUTF())) {
+          return;
+        }
+        long length = in.readLong();
+        long lastModified = in.readLong();
+        byte[] savedContentHash = new byte[in.readInt()];
+        in.readFully(savedContentHash);
+        if (length != jar.length() || lastModified != jar.lastModified()) {
+          if (!Arrays.equals(savedContentHash, getContentHash())) {
+            return;
+          }
+          // same content with another date of last modification
+          modified = true;
+        }
+        contentHash = savedContentHash;
+        int summariesCount = in.readInt();
+        for (int i = 0; i < summariesCount; i++) {
+          String bytecodeName = in.readUTF();
+          byte[] summary = new byte[in.readInt()];
+          in.readFully(summary);
+          summaries.put(bytecodeName, summary);
+        }
+      } catch (IOException e) {
+        LOG.warn("Unable to read library index " + file.getAbsolutePath(), e);
+        summaries.clear();
+        modified = false;
+      }
+    }
+
+    private byte[] getContentHash() throws IOException {
+      if (contentHash == null) {
+        try {
+          contentHash = Files.getDigest(jar, MessageDigest.getInstance("MD5"));
+        } catch (NoSuchAlgorithmException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      return contentHash;
+    }
+
+    synchronized void save() {
+      if (!modified) {
+        return;
+      }
+      File tmpFile = new File(file.getPath() + ".tmp");
+      DataOutputStream out = null;
+      try {
+        Files.createParentDirs(file);
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(jar.getAbsolutePath());
+        out.writeLong(jar.length());
+        out.writeLong(jar.lastModified());
+        byte[] hash = getContentHash();
+        out.writeInt(hash.length);
+        out.write(hash);
+        out.writeInt(summaries.size());
+        for (Map.Entry<String, byte[]> entry : summaries.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+        out.close();
+        if (file.exists() && !file.delete() || !tmpFile.renameTo(file)) {
+          LOG.warn("Unable to write library index " + file.getAbsolutePath());
+        }
+        modified = false;
+      } catch (IOException e) {
+        LOG.warn("Unable to write library index " + file.getAbsolutePath(), e);
+      } finally {
+        IOUtils.closeQuietly(out);
+      }
+    }
+  }
+
+  private static void writeClass(DataOutputStream out, ClassNode classNode) throws IOException {
+    out.writeInt(classNode.version);
+    out.writeInt(classNode.access);
+    out.writeUTF(classNode.name);
+    writeNullable(out, classNode.signature);
+    writeNullable(out, classNode.superName);
+    writeNames(out, classNode.interfaces);
+    writeNullable(out, classNode.outerClass);
+    writeNullable(out, classNode.outerMethod);
+    writeNullable(out, classNode.outerMethodDesc);
+    out.writeInt(classNode.innerClasses.size());
+    for (InnerClassNode innerClass : classNode.innerClasses) {
+      out.writeInt(innerClass.access);
+      out.writeUTF(innerClass.name);
+      writeNullable(out, innerClass.outerName);
+      writeNullable(out, innerClass.innerName);
+    }
+    out.writeInt(classNode.fields.size());
+    for (FieldNode field : classNode.fields) {
+      out.writeInt(field.access);
+      out.writeUTF(field.name);
+      out.writeUTF(field.desc);
+      writeNullable(out, field.signature);
+    }
+    out.writeInt(classNode.methods.size());
+    for (MethodNode method : classNode.methods) {
+      out.writeInt(method.access);
+      out.writeUTF(method.name);
+      out.writeUTF(method.desc);
+      writeNullable(out, method.signature);
+      writeNames(out, method.exceptions);
+    }
+  }
+
+  private static ClassNode readClass(DataInputStream in) throws IOException {
+    ClassNode classNode = new ClassNode();
+    classNode.version = in.readInt();
+    classNode.access = in.readInt();
+    classNode.name = in.readUTF();
+    classNode.signature = readNullable(in);
+    classNode.superName = readNullable(in);
+    classNode.interfaces = readNames(in);
+    classNode.outerClass = readNullable(in);
+    classNode.outerMethod = readNullable(in);
+    classNode.outerMethodDesc = readNullable(in);
+    int innerClassesCount = in.readInt();
+    for (int i = 0; i < innerClassesCount; i++) {
+      int access = in.readInt();
+      String name = in.readUTF();
+      String outerName = readNullable(in);
+      String innerName = readNullable(in);
+      classNode.innerClasses.add(new InnerClassNode(name, outerName, innerName, access));
+    }
+    int fieldsCount = in.readInt();
+    for (int i = 0; i < fieldsCount; i++) {
+      int access = in.readInt();
+      String name = in.readUTF();
+      String desc = in.readUTF();
+      classNode.fields.add(new FieldNode(access, name, desc, readNullable(in), null));
+    }
+    int methodsCount = in.readInt();
+    for (int i = 0; i < methodsCount; i++) {
+      int access = in.readInt();
+      String name = in.readUTF();
+      String desc = in.readUTF();
+      String signature = readNullable(in);
+      List<String> exceptions = readNames(in);
+      classNode.methods.add(new MethodNode(access, name, desc, signature, exceptions.toArray(new String[exceptions.size()])));
+    }
+    return classNode;
+  }
+
+  private static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+    out.writeInt(names.size());
+    for (String name : names) {
+      out.writeUTF(name);
+    }
+  }
+
+  private static List<String> readNames(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    List<String> names = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      names.add(in.readUTF());
+    }
+    return names;
+  }
+
+  private static void writeNullable(DataOutputStream out, @Nullable String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) {
+      out.writeUTF(s);
+    }
+  }
+
+  @Nullable
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+}
@@ -20,8 +20,13 @@
 package org.sonar.java.resolve;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Routines for name resolution.
@@ -33,6 +38,9 @@ import java.util.List;
  * site - is the type of which symbol is a member
  * name - is the symbol's name
  * <p/>
+ * Once all symbols of compilation unit are completed, lookups of fields, member types and methods of a site are memoized,
+ * see {@link #enableMemoization()}.
+ * <p/>
  * TODO site should be represented by class Type
  */
 public class Resolve {
@@ -43,11 +51,23 @@ public class Resolve {
   private final Types types = new Types();
   private final Symbols symbols;
 
+  private boolean memoization = false;
+  private final Map<MemberKey, Symbol> members = Maps.newHashMap();
+
   public Resolve(Symbols symbols, BytecodeCompleter bytecodeCompleter) {
     this.symbols = symbols;
     this.bytecodeCompleter = bytecodeCompleter;
   }
 
+  /**
+   * Results of lookups of members depend only on members and supertypes of classes, and on enclosing class and package of environment.
+   * So they can be memoized, but only when members and supertypes can't change anymore,
+   * i.e. after completion of all symbols of compilation unit, see {@link FirstPass#completeSymbols()}.
+   */
+  void enableMemoization() {
+    memoization = true;
+  }
+
   public Symbol.TypeSymbol registerClass(Symbol.TypeSymbol classSymbol) {
     return bytecodeCompleter.registerClass(classSymbol);
   }
@@ -126,7 +146,19 @@ public class Resolve {
   /**
    * Finds field with given name.
    */
-  private Symbol findField(Env env, Symbol.TypeSymbol site, String name, Symbol.TypeSymbol c) {
+  private Symbol findField(Env env, Symbol.TypeSymbol site, String name) {
+    MemberKey key = memoization ? new MemberKey(Symbol.VAR, env, site, name, ImmutableList.<Type>of()) : null;
+    Symbol symbol = key == null ? null : members.get(key);
+    if (symbol == null) {
+      symbol = lookupField(env, site, name, site);
+      if (key != null) {
+        members.put(key, symbol);
+      }
+    }
+    return symbol;
+  }
+
+  private Symbol lookupField(Env env, Symbol.TypeSymbol site, String name, Symbol.TypeSymbol c) {
     Symbol bestSoFar = symbolNotFound;
     for (Symbol symbol : c.members().lookup(name)) {
       if (symbol.kind == Symbol.VAR) {
@@ -137,13 +169,13 @@ public class Resolve {
     }
     Symbol symbol;
     if (c.getSuperclass() != null) {
-      symbol = findField(env, site, name, c.getSuperclass().symbol);
+      symbol = lookupField(env, site, name, c.getSuperclass().symbol);
       if (symbol.kind < bestSoFar.kind) {
         bestSoFar = symbol;
       }
     }
     for (Type interfaceType : c.getInterfaces()) {
-      symbol = findField(env, site, name, interfaceType.symbol);
+      symbol = lookupField(env, site, name, interfaceType.symbol);
       if (symbol.kind < bestSoFar.kind) {
         bestSoFar = symbol;
       }
@@ -166,7 +198,7 @@ public class Resolve {
         }
       }
       if (sym == null) {
-        sym = findField(env1, env1.enclosingClass(), name, env1.enclosingClass());
+        sym = findField(env1, env1.enclosingClass(), name);
       }
       if (sym.kind < Symbol.ERRONEOUS) {
         // symbol exists
@@ -194,6 +226,18 @@ public class Resolve {
   }
 
   public Symbol findMemberType(Env env, Symbol.TypeSymbol site, String name, Symbol.TypeSymbol c) {
+    MemberKey key = memoization && c == site ? new MemberKey(Symbol.TYP, env, site, name, ImmutableList.<Type>of()) : null;
+    Symbol symbol = key == null ? null : members.get(key);
+    if (symbol == null) {
+      symbol = lookupMemberType(env, site, name, c);
+      if (key != null) {
+        members.put(key, symbol);
+      }
+    }
+    return symbol;
+  }
+
+  private Symbol lookupMemberType(Env env, Symbol.TypeSymbol site, String name, Symbol.TypeSymbol c) {
     Symbol bestSoFar = symbolNotFound;
     for (Symbol symbol : c.members().lookup(name)) {
       if (symbol.kind == Symbol.TYP) {
@@ -203,13 +247,13 @@ public class Resolve {
       }
     }
     if (c.getSuperclass() != null) {
-      Symbol symbol = findMemberType(env, site, name, c.getSuperclass().symbol);
+      Symbol symbol = lookupMemberType(env, site, name, c.getSuperclass().symbol);
       if (symbol.kind < bestSoFar.kind) {
         bestSoFar = symbol;
       }
     }
     for (Type interfaceType : c.getInterfaces()) {
-      Symbol symbol = findMemberType(env, site, name, interfaceType.symbol);
+      Symbol symbol = lookupMemberType(env, site, name, interfaceType.symbol);
       if (symbol.kind < bestSoFar.kind) {
         bestSoFar = symbol;
       }
@@ -332,7 +376,7 @@ public class Resolve {
     Symbol bestSoFar = symbolNotFound;
     Symbol symbol;
     if ((kind & Symbol.VAR) != 0) {
-      symbol = findField(env, site, name, site);
+      symbol = findField(env, site, name);
       if (symbol.kind < Symbol.ERRONEOUS) {
         // symbol exists
         return symbol;
@@ -373,6 +417,18 @@ public class Resolve {
   }
 
   public Symbol findMethod(Env env, Symbol.TypeSymbol site, String name, List<Type> argTypes) {
+    MemberKey key = memoization ? new MemberKey(Symbol.MTH, env, site, name, argTypes) : null;
+    Symbol symbol = key == null ? null : members.get(key);
+    if (symbol == null) {
+      symbol = lookupMethod(env, site, name, argTypes);
+      if (key != null) {
+        members.put(key, symbol);
+      }
+    }
+    return symbol;
+  }
+
+  private Symbol lookupMethod(Env env, Symbol.TypeSymbol site, String name, List<Type> argTypes) {
     Symbol bestSoFar = symbolNotFound;
 
     // TODO search in supertypes
@@ -621,6 +677,61 @@ public class Resolve {
     }
   }
 
+  /**
+   * Key of memoized lookup of member. Symbols and types are compared by identity,
+   * because {@link Types#isSubtype(Type, Type)} distinguishes equal array types.
+   */
+  private static final class MemberKey {
+    private final int kind;
+    private final Symbol.TypeSymbol enclosingClass;
+    private final Symbol.PackageSymbol packge;
+    private final Symbol.TypeSymbol site;
+    private final String name;
+    private final List<Type> argTypes;
+    private final int hashCode;
+
+    MemberKey(int kind, Env env, Symbol.TypeSymbol site, String name, List<Type> argTypes) {
+      this.kind = kind;
+      this.enclosingClass = env.enclosingClass();
+      this.packge = env.packge();
+      this.site = site;
+      this.name = name;
+      this.argTypes = argTypes;
+      int result = kind;
+      result = 31 * result + System.identityHashCode(enclosingClass);
+      result = 31 * result + System.identityHashCode(packge);
+      result = 31 * result + System.identityHashCode(site);
+      result = 31 * result + name.hashCode();
+      for (Type argType : argTypes) {
+        result = 31 * result + System.identityHashCode(argType);
+      }
+      this.hashCode = result;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (!(obj instanceof MemberKey)) {
+        return false;
+      }
+      MemberKey other = (MemberKey) obj;
+      if (kind != other.kind || enclosingClass != other.enclosingClass || packge != other.packge || site != other.site
+        || !name.equals(other.name) || argTypes.size() != other.argTypes.size()) {
+        return false;
+      }
+      for (int i = 0; i < argTypes.size(); i++) {
+        if (argTypes.get(i) != other.argTypes.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
   private static Symbol.TypeSymbol superclassSymbol(Symbol.TypeSymbol c) {
     Type supertype = c.getSuperclass();
     return supertype == null ? null : supertype.symbol;
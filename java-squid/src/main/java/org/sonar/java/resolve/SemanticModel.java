@@ -22,9 +22,8 @@ package org.sonar.java.resolve;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.BiMap;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashBiMap;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import org.sonar.java.model.AbstractTypedTree;
@@ -45,16 +44,29 @@ import java.util.Map;
 public class SemanticModel {
 
   private final BiMap<Tree, Symbol> symbolsTree = HashBiMap.create();
-  private Multimap<Symbol, IdentifierTree> usagesTree = HashMultimap.create();
-  private Map<IdentifierTree,Symbol> refersTo = Maps.newHashMap();
+  /**
+   * Most of symbols have few usages, so lists are cheaper than sets, and duplicates are avoided by {@link #associateReference(IdentifierTree, Symbol)},
+   * which searches the list only when identifier is associated with another symbol than before.
+   */
+  private final Multimap<Symbol, IdentifierTree> usagesTree = ArrayListMultimap.create();
+  private final Map<IdentifierTree, Symbol> refersTo = Maps.newIdentityHashMap();
 
   private final Map<Symbol, Resolve.Env> symbolEnvs = Maps.newHashMap();
   private final BiMap<Tree, Resolve.Env> envs = HashBiMap.create();
-  private final Map<Tree, Tree> parentLink = Maps.newHashMap();
   private BytecodeCompleter bytecodeCompleter;
 
   public static SemanticModel createFor(CompilationUnitTree tree, List<File> projectClasspath) {
-    BytecodeCompleter bytecodeCompleter = new BytecodeCompleter(projectClasspath);
+    return createFor(tree, new BytecodeCompleter(projectClasspath));
+  }
+
+  /**
+   * @param bytecodeCache shared between files, so that classes from classpath are read only once
+   */
+  public static SemanticModel createFor(CompilationUnitTree tree, BytecodeCache bytecodeCache) {
+    return createFor(tree, new BytecodeCompleter(bytecodeCache));
+  }
+
+  private static SemanticModel createFor(CompilationUnitTree tree, BytecodeCompleter bytecodeCompleter) {
     Symbols symbols = new Symbols(bytecodeCompleter);
     SemanticModel semanticModel = new SemanticModel();
     semanticModel.bytecodeCompleter = bytecodeCompleter;
@@ -62,6 +74,7 @@ public class SemanticModel {
     try {
       Resolve resolve = new Resolve(symbols, bytecodeCompleter);
       new FirstPass(semanticModel, symbols, resolve).visitCompilationUnit(tree);
+      resolve.enableMemoization();
       new ExpressionVisitor(semanticModel, symbols, resolve).visitCompilationUnit(tree);
       new LabelsVisitor(semanticModel).visitCompilationUnit(tree);
     } finally {
@@ -75,16 +88,12 @@ public class SemanticModel {
   }
 
 
-  public static void handleMissingTypes(Tree tree) {
-    BytecodeCompleter bytecodeCompleter = new BytecodeCompleter(ImmutableList.<File>of());
-    Symbols symbols = new Symbols(bytecodeCompleter);
-    handleMissingTypes(symbols, tree);
-  }
-
   /**
    * Handles missing types in Syntax Tree to prevent NPE in subsequent steps of analysis.
+   *
+   * @param symbols for a file analyzed without semantic model, can be shared between such files, because only unknown type is used
    */
-  private static void handleMissingTypes(final Symbols symbols, Tree tree) {
+  public static void handleMissingTypes(final Symbols symbols, Tree tree) {
     // (Godin): Another and probably better (safer) way to do the same - is to assign default value during creation of nodes, so that to guarantee that this step won't be skipped.
     tree.accept(new BaseTreeVisitor() {
       @Override
@@ -109,7 +118,7 @@ public class SemanticModel {
       for (Iterator<Tree> iter = tree.childrenIterator(); iter.hasNext(); ) {
         Tree next = iter.next();
         if (next != null) {
-          parentLink.put(next, tree);
+          ((JavaTree) next).setParentTree(tree);
           createParentLink((JavaTree) next);
         }
       }
@@ -137,7 +146,7 @@ public class SemanticModel {
     Resolve.Env result = null;
     while (result == null && javaTree != null) {
       result = envs.get(javaTree);
-      javaTree = (JavaTree) parentLink.get(javaTree);
+      javaTree = javaTree.getParentTree();
     }
     return result;
   }
@@ -156,9 +165,14 @@ public class SemanticModel {
   }
 
 
+  /**
+   * Identifier is recorded at most once among usages of given symbol, even if it was associated with another symbol in between.
+   */
   public void associateReference(IdentifierTree tree, Symbol symbol) {
-    usagesTree.put(symbol, tree);
-    refersTo.put(tree, symbol);
+    Symbol previous = refersTo.put(tree, symbol);
+    if (previous == null || (previous != symbol && !usagesTree.containsEntry(symbol, tree))) {
+      usagesTree.put(symbol, tree);
+    }
   }
 
   public Symbol getReference(IdentifierTree tree) {
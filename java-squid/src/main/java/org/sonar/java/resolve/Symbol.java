@@ -20,12 +20,15 @@
 package org.sonar.java.resolve;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang.BooleanUtils;
 import org.apache.commons.lang.StringUtils;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class Symbol {
@@ -156,6 +159,10 @@ public class Symbol {
 
     Scope members;
 
+    private List<Type.ClassType> interfacesClosure;
+    private List<Type.ClassType> superTypes;
+    private Map<String, List<MethodSymbol>> superMethods;
+
     public TypeSymbol(int flags, String name, Symbol owner) {
       super(TYP, flags, name, owner);
       this.type = new Type.ClassType(this);
@@ -176,6 +183,79 @@ public class Symbol {
       return members;
     }
 
+    /**
+     * Computed once, so must be called only after completion of the whole hierarchy.
+     *
+     * @return interfaces of this type, then their superinterfaces, then superclass, its interfaces and so on, without duplicates
+     */
+    List<Type.ClassType> superTypes() {
+      if (superTypes == null) {
+        Set<Type.ClassType> types = Sets.newLinkedHashSet(interfacesClosure());
+        Type.ClassType superClassType = (Type.ClassType) getSuperclass();
+        while (superClassType != null) {
+          types.add(superClassType);
+          Symbol.TypeSymbol superClassSymbol = superClassType.getSymbol();
+          types.addAll(superClassSymbol.interfacesClosure());
+          superClassType = (Type.ClassType) superClassSymbol.getSuperclass();
+        }
+        superTypes = ImmutableList.copyOf(types);
+      }
+      return superTypes;
+    }
+
+    /**
+     * Memoized per type, so that diamonds in hierarchy of interfaces are traversed only once.
+     */
+    private List<Type.ClassType> interfacesClosure() {
+      if (interfacesClosure == null) {
+        Set<Type.ClassType> types = Sets.newLinkedHashSet();
+        for (Type type : getInterfaces()) {
+          Type.ClassType classType = (Type.ClassType) type;
+          types.add(classType);
+          types.addAll(classType.getSymbol().interfacesClosure());
+        }
+        interfacesClosure = ImmutableList.copyOf(types);
+      }
+      return interfacesClosure;
+    }
+
+    /**
+     * @return methods with given name from all known types of {@link #superTypes()}
+     */
+    List<MethodSymbol> superMethods(String methodName) {
+      if (superMethods == null) {
+        superMethods = Maps.newHashMap();
+      }
+      List<MethodSymbol> result = superMethods.get(methodName);
+      if (result == null) {
+        ImmutableList.Builder<MethodSymbol> builder = ImmutableList.builder();
+        for (Type.ClassType superType : superTypes()) {
+          if (!superType.isTagged(Type.UNKNOWN)) {
+            for (Symbol symbol : superType.getSymbol().members().lookup(methodName)) {
+              if (symbol.isKind(MTH)) {
+                builder.add((MethodSymbol) symbol);
+              }
+            }
+          }
+        }
+        result = builder.build();
+        superMethods.put(methodName, result);
+      }
+      return result;
+    }
+
+    /**
+     * @return true if some of {@link #superTypes()} is unknown
+     */
+    boolean hasUnknownSuperType() {
+      for (Type.ClassType superType : superTypes()) {
+        if (superType.isTagged(Type.UNKNOWN)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
     @Override
     public String toString() {
       return name;
@@ -240,54 +320,15 @@ public class Symbol {
     }
 
     public Boolean isOverriden() {
-      Boolean result = false;
       Symbol.TypeSymbol enclosingClass = enclosingClass();
       if (StringUtils.isEmpty(enclosingClass.getName())) {
         //FIXME : SONARJAVA-645 : exclude methods within anonymous classes
         return null;
       }
-      for (Type.ClassType type : superTypes(enclosingClass)) {
-        Boolean overrideFromType = overridesFromSymbol(type);
-        if (overrideFromType == null) {
-          result = null;
-        } else if (BooleanUtils.isTrue(overrideFromType)) {
-          return true;
-        }
-      }
-      return result;
-    }
-
-    private Set<Type.ClassType> superTypes(Symbol.TypeSymbol enclosingClass) {
-      ImmutableSet.Builder<Type.ClassType> types = ImmutableSet.builder();
-      Type.ClassType superClassType = (Type.ClassType) enclosingClass.getSuperclass();
-      types.addAll(interfacesOfType(enclosingClass));
-      while (superClassType != null) {
-        types.add(superClassType);
-        Symbol.TypeSymbol superClassSymbol = superClassType.getSymbol();
-        types.addAll(interfacesOfType(superClassSymbol));
-        superClassType = (Type.ClassType) superClassSymbol.getSuperclass();
-      }
-      return types.build();
-    }
-
-    private Set<Type.ClassType> interfacesOfType(Symbol.TypeSymbol typeSymbol) {
-      ImmutableSet.Builder<Type.ClassType> builder = ImmutableSet.builder();
-      for (Type type : typeSymbol.getInterfaces()) {
-        Type.ClassType classType = (Type.ClassType) type;
-        builder.add(classType);
-        builder.addAll(interfacesOfType(classType.getSymbol()));
-      }
-      return builder.build();
-    }
-    private Boolean overridesFromSymbol(Type.ClassType classType) {
-      Boolean result = false;
-      if (classType.isTagged(Type.UNKNOWN)) {
-        return null;
-      }
-      List<Symbol> symbols = classType.getSymbol().members().lookup(name);
-      for (Symbol overrideSymbol : symbols) {
-        if (overrideSymbol.isKind(Symbol.MTH) && canOverride((Symbol.MethodSymbol) overrideSymbol)) {
-          Boolean isOverriding = isOverriding((Symbol.MethodSymbol) overrideSymbol);
+      Boolean result = enclosingClass.hasUnknownSuperType() ? null : false;
+      for (Symbol.MethodSymbol overridee : enclosingClass.superMethods(name)) {
+        if (canOverride(overridee)) {
+          Boolean isOverriding = isOverriding(overridee);
           if (isOverriding == null) {
             result = null;
           } else if (BooleanUtils.isTrue(isOverriding)) {
@@ -0,0 +1,48 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.api;
+
+import com.google.common.annotations.Beta;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares kinds of nodes, at least one of which must be present in a file for {@link JavaFileScanner} to report anything on it,
+ * so that scanner is not executed on files without them.
+ * <p/>
+ * Not required for subscription visitors, which don't override steps of visit and don't visit tokens,
+ * because kinds are taken from their {@code nodesToVisit()} in this case.
+ * Such visitors are visited together within a single traversal of tree, which is skipped only when a file contains
+ * none of kinds required by any of them.
+ */
+@Beta
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RequiredKinds {
+
+  Tree.Kind[] value();
+
+}
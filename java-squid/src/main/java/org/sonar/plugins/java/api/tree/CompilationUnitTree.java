@@ -46,4 +46,10 @@ public interface CompilationUnitTree extends Tree {
 
   List<Tree> types();
 
+  /**
+   * Tokens of this compilation unit in order of their appearance. List is created only once per compilation unit,
+   * so that its iteration by several visitors doesn't create new objects.
+   */
+  List<SyntaxToken> tokens();
+
 }
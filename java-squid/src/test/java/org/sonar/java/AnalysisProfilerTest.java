@@ -0,0 +1,108 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.JavaResourceLocator;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class AnalysisProfilerTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_accumulate_measures() throws Exception {
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    File file = new File("Foo.java");
+    profiler.stop(profiler.start(), AnalysisProfiler.PHASE, "fast", file);
+    profiler.stop(profiler.start(), AnalysisProfiler.PHASE, "fast", file);
+    AnalysisProfiler.Measure measure = profiler.start();
+    Thread.sleep(20);
+    profiler.stop(measure, AnalysisProfiler.PHASE, "slow");
+
+    List<AnalysisProfiler.Counter> phases = profiler.getCounters(AnalysisProfiler.PHASE);
+    assertThat(phases).hasSize(2);
+    assertThat(phases.get(0).getName()).isEqualTo("slow");
+    assertThat(phases.get(0).getCount()).isEqualTo(1);
+    assertThat(phases.get(0).getWallTime()).isGreaterThanOrEqualTo(20000000L);
+    assertThat(phases.get(1).getName()).isEqualTo("fast");
+    assertThat(phases.get(1).getCount()).isEqualTo(2);
+
+    assertThat(profiler.getCounters(AnalysisProfiler.BYTECODE_VISITOR)).isEmpty();
+    assertThat(profiler.getFiles()).hasSize(1);
+    assertThat(profiler.getFiles().get(0).getName()).isEqualTo(file.getPath());
+    assertThat(profiler.getFiles().get(0).getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void should_count_skipped_executions() {
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    profiler.skip(AnalysisProfiler.JAVA_FILE_SCANNER, "check");
+    profiler.skip(AnalysisProfiler.JAVA_FILE_SCANNER, "check");
+    profiler.stop(profiler.start(), AnalysisProfiler.JAVA_FILE_SCANNER, "check");
+
+    List<AnalysisProfiler.Counter> checks = profiler.getCounters(AnalysisProfiler.JAVA_FILE_SCANNER);
+    assertThat(checks).hasSize(1);
+    assertThat(checks.get(0).getCount()).isEqualTo(1);
+    assertThat(checks.get(0).getSkipped()).isEqualTo(2);
+  }
+
+  @Test
+  public void should_report_phases_checks_and_files_of_analysis() throws Exception {
+    File workDir = temp.newFolder();
+    JavaConfiguration conf = new JavaConfiguration(Charsets.UTF_8);
+    conf.setProfiling(true);
+    conf.setWorkDir(workDir);
+    JavaSquid squid = new JavaSquid(conf, mock(JavaResourceLocator.class), new ProfiledCheck());
+    squid.scanDirectories(Collections.singleton(new File("src/test/files/metrics")), Collections.<File>emptyList());
+
+    String report = FileUtils.readFileToString(new File(workDir, JavaSquid.PROFILING_REPORT_FILE), "UTF-8");
+    assertThat(report)
+      .contains("\"phase\"")
+      .contains("\"" + AnalysisProfiler.PARSE + "\"")
+      .contains("\"" + AnalysisProfiler.TREE_BUILD + "\"")
+      .contains("\"" + AnalysisProfiler.SEMANTIC_MODEL + "\"")
+      .contains("\"" + ProfiledCheck.class.getName() + "\"")
+      .contains("Complexity.java")
+      .contains("\"allocatedBytes\"")
+      .contains("\"skipped\"");
+  }
+
+  private static class ProfiledCheck implements JavaFileScanner {
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      context.getTree();
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.checks.NoSonarFilter;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.measures.Measure;
+import org.sonar.api.resources.Project;
+import org.sonar.api.resources.ProjectFileSystem;
+import org.sonar.api.resources.Resource;
+import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.squidbridge.api.CodeVisitor;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JavaSquidTest {
+
+  @Test
+  public void parallel_parsing_should_give_same_measures_as_sequential_parsing() {
+    List<String> sequential = measuresOnStruts(1);
+    List<String> parallel = measuresOnStruts(4);
+    assertThat(sequential).isNotEmpty();
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  @Test
+  public void parallel_reading_of_bytecode_should_give_same_dependencies_as_sequential_reading() {
+    List<String> sequential = dependenciesOfBytecodeFiles(1);
+    List<String> parallel = dependenciesOfBytecodeFiles(4);
+    assertThat(sequential).isNotEmpty();
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  private static List<String> dependenciesOfBytecodeFiles(int parsingThreads) {
+    JavaConfiguration conf = new JavaConfiguration(Charsets.UTF_8);
+    conf.setParsingThreads(parsingThreads);
+    Project project = mock(Project.class);
+    ProjectFileSystem pfs = mock(ProjectFileSystem.class);
+    when(project.getFileSystem()).thenReturn(pfs);
+    when(pfs.getBasedir()).thenReturn(new File("src/test/files/bytecode/src"));
+    JavaSquid squid = new JavaSquid(conf, new DefaultJavaResourceLocator(project, null, mock(NoSonarFilter.class)));
+    squid.scanDirectories(Collections.singleton(new File("src/test/files/bytecode/src")), Collections.singleton(new File("src/test/files/bytecode/bin")));
+
+    List<String> result = Lists.newArrayList();
+    for (Dependency dependency : squid.getGraph().getEdges(squid.getGraph().getVertices())) {
+      result.add(dependency.getFrom().getKey() + " -> " + dependency.getTo().getKey() + " " + dependency.getUsage() + " " + dependency.getWeight());
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  private static List<String> measuresOnStruts(int parsingThreads) {
+    File prjDir = new File("target/test-projects/struts-core-1.3.9");
+    JavaConfiguration conf = new JavaConfiguration(Charsets.UTF_8);
+    conf.setParsingThreads(parsingThreads);
+    SensorContext context = mock(SensorContext.class);
+    Project sonarProject = mock(Project.class);
+    ProjectFileSystem pfs = mock(ProjectFileSystem.class);
+    when(pfs.getBasedir()).thenReturn(prjDir);
+    when(sonarProject.getFileSystem()).thenReturn(pfs);
+    Measurer measurer = new Measurer(sonarProject, context, true);
+    JavaSquid squid = new JavaSquid(conf, null, measurer, mock(JavaResourceLocator.class), new CodeVisitor[0]);
+    squid.scanDirectories(Collections.singleton(new File(prjDir, "src")), Collections.singleton(new File(prjDir, "bin")));
+
+    ArgumentCaptor<Resource> resources = ArgumentCaptor.forClass(Resource.class);
+    ArgumentCaptor<Measure> measures = ArgumentCaptor.forClass(Measure.class);
+    verify(context, atLeastOnce()).saveMeasure(resources.capture(), measures.capture());
+    List<String> result = Lists.newArrayList();
+    for (int i = 0; i < measures.getAllValues().size(); i++) {
+      Measure measure = measures.getAllValues().get(i);
+      result.add(resources.getAllValues().get(i).getKey() + " " + measure.getMetricKey() + "=" + measure.getValue() + " " + measure.getData());
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+import org.sonar.api.config.Settings;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+public class ParallelTasksTest {
+
+  private final ExecutorService executor = ParallelTasks.newExecutor(2, "test-%d");
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void should_read_number_of_threads_from_settings() {
+    Settings settings = new Settings();
+    assertThat(ParallelTasks.threads(settings)).isEqualTo(1);
+    settings.setProperty(ParallelTasks.THREADS_PROPERTY, 4);
+    assertThat(ParallelTasks.threads(settings)).isEqualTo(4);
+  }
+
+  @Test
+  public void should_execute_task_by_pool_of_threads() {
+    assertThat(ParallelTasks.get(executor.submit(new ThreadName()), "task")).startsWith("test-");
+  }
+
+  @Test
+  public void should_rethrow_unchecked_exception() {
+    try {
+      ParallelTasks.get(executor.submit(new Failure(new IllegalArgumentException("failure"))), "task");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).isEqualTo("failure");
+    }
+  }
+
+  @Test
+  public void should_propagate_checked_exception() {
+    try {
+      ParallelTasks.get(executor.submit(new Failure(new IOException("failure"))), "task");
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e.getCause()).isInstanceOf(IOException.class);
+    }
+  }
+
+  @Test
+  public void should_execute_tasks_by_current_thread_when_single_thread() {
+    List<String> threads = ParallelTasks.invokeAll(1, "test-%d", ImmutableList.of(new ThreadName(), new ThreadName()));
+    assertThat(threads).containsExactly(Thread.currentThread().getName(), Thread.currentThread().getName());
+  }
+
+  @Test
+  public void should_execute_single_task_by_current_thread() {
+    List<String> threads = ParallelTasks.invokeAll(4, "test-%d", ImmutableList.of(new ThreadName()));
+    assertThat(threads).containsExactly(Thread.currentThread().getName());
+  }
+
+  @Test
+  public void should_return_results_in_order_of_tasks() {
+    ImmutableList.Builder<Callable<Integer>> tasks = ImmutableList.builder();
+    for (int i = 0; i < 100; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          return value;
+        }
+      });
+    }
+    List<Integer> results = ParallelTasks.invokeAll(4, "test-%d", tasks.build());
+    assertThat(results).hasSize(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(results.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void should_execute_tasks_by_pool_of_threads() {
+    List<String> threads = ParallelTasks.invokeAll(2, "test-%d", ImmutableList.of(new ThreadName(), new ThreadName()));
+    for (String thread : threads) {
+      assertThat(thread).startsWith("test-");
+    }
+  }
+
+  @Test
+  public void should_rethrow_unchecked_exception_of_invoked_tasks() {
+    for (int threads = 1; threads <= 2; threads++) {
+      try {
+        ParallelTasks.invokeAll(threads, "test-%d", ImmutableList.of(new ThreadName(), new Failure(new IllegalArgumentException("failure"))));
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertThat(e.getMessage()).isEqualTo("failure");
+      }
+    }
+  }
+
+  @Test
+  public void should_propagate_checked_exception_of_invoked_tasks() {
+    for (int threads = 1; threads <= 2; threads++) {
+      try {
+        ParallelTasks.invokeAll(threads, "test-%d", ImmutableList.of(new ThreadName(), new Failure(new IOException("failure"))));
+        fail();
+      } catch (RuntimeException e) {
+        assertThat(e.getCause()).isInstanceOf(IOException.class);
+      }
+    }
+  }
+
+  private static class ThreadName implements Callable<String> {
+    @Override
+    public String call() {
+      return Thread.currentThread().getName();
+    }
+  }
+
+  private static class Failure implements Callable<String> {
+    private final Exception exception;
+
+    Failure(Exception exception) {
+      this.exception = exception;
+    }
+
+    @Override
+    public String call() throws Exception {
+      throw exception;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.parser;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.impl.ast.AstXmlPrinter;
+import org.junit.Test;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.io.File;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ActionParserTest {
+
+  private static final File FILE = new File("src/main/java/org/sonar/java/ast/parser/TreeFactory.java");
+
+  @Test
+  public void should_build_same_tree_without_verification_of_assertions() {
+    AstNode astNode = JavaParser.createParser(Charsets.UTF_8, false).parse(FILE);
+    AstNode expected = JavaParser.createParser(Charsets.UTF_8, true).parse(FILE);
+
+    assertChildrenLinks(astNode);
+    assertThat(AstXmlPrinter.print(astNode)).isEqualTo(AstXmlPrinter.print(expected));
+  }
+
+  @Test
+  public void should_replace_child_at_its_index() {
+    AstNode o = node("o");
+    AstNode n = node("n");
+    List<AstNode> children = Lists.newArrayList(node("a"), o, node("b"));
+
+    ActionParser.replaceChild(children, 1, o, n);
+    assertThat(children.get(1)).isSameAs(n);
+    assertThat(children).hasSize(3);
+  }
+
+  @Test
+  public void should_search_replaced_child_when_its_index_is_stale() {
+    AstNode o = node("o");
+    AstNode other = node("other");
+    List<AstNode> children = Lists.newArrayList(node("a"), other, o);
+
+    AstNode n = node("n");
+    ActionParser.replaceChild(children, 1, o, n);
+    assertThat(children).containsExactly(children.get(0), other, n);
+
+    n = node("n");
+    ActionParser.replaceChild(children, 3, children.get(0), n);
+    assertThat(children.get(0)).isSameAs(n);
+
+    n = node("n");
+    ActionParser.replaceChild(children, -1, other, n);
+    assertThat(children.get(1)).isSameAs(n);
+  }
+
+  private static void assertChildrenLinks(AstNode astNode) {
+    List<AstNode> children = astNode.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      AstNode child = children.get(i);
+      assertThat(child.getParent()).isSameAs(astNode);
+      assertThat(AstNodeHacks.getChildIndex(child)).isEqualTo(i);
+      assertChildrenLinks(child);
+    }
+  }
+
+  private static AstNode node(String name) {
+    return new AstNode(Tree.Kind.OTHER, name, null);
+  }
+
+}
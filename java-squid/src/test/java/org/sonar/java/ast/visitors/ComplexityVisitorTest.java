@@ -0,0 +1,92 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.sonar.sslr.impl.Parser;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.model.JavaTreeMaker;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.io.File;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ComplexityVisitorTest {
+
+  private final Parser parser = JavaParser.createParser(Charsets.UTF_8, true);
+
+  @Test
+  public void memoized_complexity_should_be_equal_to_scanned_one() {
+    for (String file : new String[] {"Complexity.java", "Accessors.java", "Methods.java", "Classes.java"}) {
+      for (boolean analyseAccessors : new boolean[] {true, false}) {
+        CompilationUnitTree tree = new JavaTreeMaker().compilationUnit(parser.parse(new File("src/test/files/metrics/" + file)));
+        ComplexityVisitor memoized = new ComplexityVisitor(analyseAccessors);
+        memoized.memoize(tree);
+        new Comparison(memoized, new ComplexityVisitor(analyseAccessors)).scanTree(tree);
+        assertThat(memoized.getComplexity(tree)).isEqualTo(new ComplexityVisitor(analyseAccessors).scan(tree));
+      }
+    }
+  }
+
+  private static class Comparison extends SubscriptionVisitor {
+
+    private final ComplexityVisitor memoized;
+    private final ComplexityVisitor scanner;
+    private final Deque<ClassTree> classTrees = new LinkedList<ClassTree>();
+
+    Comparison(ComplexityVisitor memoized, ComplexityVisitor scanner) {
+      this.memoized = memoized;
+      this.scanner = scanner;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return ImmutableList.of(Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.ANNOTATION_TYPE, Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      assertThat(memoized.getComplexity(tree)).isEqualTo(scanner.scan(tree));
+      if (tree instanceof ClassTree) {
+        classTrees.push((ClassTree) tree);
+      } else {
+        MethodTree methodTree = (MethodTree) tree;
+        assertThat(memoized.getMethodComplexity(classTrees.peek(), methodTree)).isEqualTo(scanner.scan(classTrees.peek(), methodTree));
+      }
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      if (tree instanceof ClassTree) {
+        classTrees.pop();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class FileContentTest {
+
+  @Test
+  public void number_of_lines() {
+    assertThat(new FileContent("").getNumberOfLines()).isEqualTo(1);
+    assertThat(new FileContent("a").getNumberOfLines()).isEqualTo(1);
+    assertThat(new FileContent("a\n").getNumberOfLines()).isEqualTo(2);
+    assertThat(new FileContent("a\nb\r\nc\rd").getNumberOfLines()).isEqualTo(4);
+    assertThat(new FileContent("a\r").getNumberOfLines()).isEqualTo(2);
+    assertThat(new FileContent("\r\n\r\n").getNumberOfLines()).isEqualTo(3);
+  }
+
+  @Test
+  public void line_length() {
+    FileContent fileContent = new FileContent("ab\ncde\r\n\rf");
+    assertThat(fileContent.getLineLength(1)).isEqualTo(2);
+    assertThat(fileContent.getLineLength(2)).isEqualTo(3);
+    assertThat(fileContent.getLineLength(3)).isEqualTo(0);
+    assertThat(fileContent.getLineLength(4)).isEqualTo(1);
+    assertThat(new FileContent("a\n").getLineLength(2)).isEqualTo(0);
+  }
+
+  @Test
+  public void offset() {
+    FileContent fileContent = new FileContent("ab\ncde\r\nf");
+    assertThat(fileContent.getOffset(1, 1)).isEqualTo(1);
+    assertThat(fileContent.getOffset(2, 0)).isEqualTo(3);
+    assertThat(fileContent.getOffset(3, 0)).isEqualTo(8);
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.sonar.sslr.impl.Parser;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.model.JavaTreeMaker;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubscriptionDispatcherTest {
+
+  private JavaFileScannerContext context;
+
+  @Before
+  public void setUp() {
+    Parser p = JavaParser.createParser(Charsets.UTF_8, true);
+    CompilationUnitTree cut = new JavaTreeMaker().compilationUnit(p.parse(new File("src/test/files/ast/PublicApi.java")));
+    context = mock(JavaFileScannerContext.class);
+    when(context.getTree()).thenReturn(cut);
+  }
+
+  @Test
+  public void should_visit_as_each_visitor_alone() {
+    List<RecordingVisitor> alone = Arrays.asList(
+      new RecordingVisitor(Tree.Kind.CLASS, Tree.Kind.METHOD),
+      new RecordingVisitor(Tree.Kind.METHOD, Tree.Kind.VARIABLE, Tree.Kind.TOKEN),
+      new RecordingVisitor(Tree.Kind.TRIVIA));
+    for (RecordingVisitor visitor : alone) {
+      visitor.scanFile(context);
+    }
+    List<RecordingVisitor> dispatched = Arrays.asList(
+      new RecordingVisitor(Tree.Kind.CLASS, Tree.Kind.METHOD),
+      new RecordingVisitor(Tree.Kind.METHOD, Tree.Kind.VARIABLE, Tree.Kind.TOKEN),
+      new RecordingVisitor(Tree.Kind.TRIVIA));
+    new SubscriptionDispatcher(ImmutableList.<SubscriptionVisitor>copyOf(dispatched)).scanFile(context);
+
+    for (int i = 0; i < alone.size(); i++) {
+      assertThat(dispatched.get(i).events).isNotEmpty();
+      assertThat(dispatched.get(i).events).isEqualTo(alone.get(i).events);
+      assertThat(dispatched.get(i).context).isSameAs(context);
+    }
+  }
+
+  @Test
+  public void should_not_dispatch_visitors_overriding_steps_of_visit() {
+    assertThat(SubscriptionDispatcher.canDispatch(new RecordingVisitor(Tree.Kind.CLASS))).isTrue();
+    assertThat(SubscriptionDispatcher.canDispatch(new RecordingVisitor(Tree.Kind.CLASS) {
+      @Override
+      public void scanFile(JavaFileScannerContext context) {
+        super.scanFile(context);
+      }
+    })).isFalse();
+    assertThat(SubscriptionDispatcher.canDispatch(new Object())).isFalse();
+  }
+
+  private static class RecordingVisitor extends SubscriptionVisitor {
+
+    private final List<Tree.Kind> kinds;
+    private final List<String> events = Lists.newArrayList();
+
+    RecordingVisitor(Tree.Kind... kinds) {
+      this.kinds = Arrays.asList(kinds);
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return kinds;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      events.add("visit " + tree);
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      events.add("leave " + tree);
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      events.add("token " + syntaxToken.text());
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      events.add("trivia " + syntaxTrivia.comment());
+    }
+  }
+
+}
@@ -20,6 +20,7 @@
 package org.sonar.java.bytecode.asm;
 
 import org.junit.Test;
+import org.objectweb.asm.tree.ClassNode;
 import org.sonar.java.bytecode.ClassLoaderBuilder;
 import org.sonar.java.bytecode.asm.AsmClassProvider.DETAIL_LEVEL;
 
@@ -108,4 +109,20 @@ public class AsmClassProviderImplTest {
     assertThat(asmClassProviderImpl.getClass("tags/Line", DETAIL_LEVEL.STRUCTURE_AND_CALLS).getDetailLevel()).isEqualTo(DETAIL_LEVEL.STRUCTURE_AND_CALLS);
   }
 
+  @Test
+  public void should_load_class_from_class_parsed_in_advance() {
+    asmClassProviderImpl = new AsmClassProviderImpl(ClassLoaderBuilder.create(new File("src/test/files/bytecode/bin/")));
+    ClassNode classNode = asmClassProviderImpl.readClass("tags/Line");
+    assertThat(classNode).isNotNull();
+    assertThat(classNode.name).isEqualTo("tags/Line");
+    assertThat(asmClassProviderImpl.readClass("tags/Unknown")).isNull();
+
+    AsmClass asmClass = asmClassProviderImpl.getClass("tags/Line", DETAIL_LEVEL.STRUCTURE_AND_CALLS, classNode);
+    AsmClass expected = new AsmClassProviderImpl(ClassLoaderBuilder.create(new File("src/test/files/bytecode/bin/"))).getClass("tags/Line", DETAIL_LEVEL.STRUCTURE_AND_CALLS);
+    assertThat(asmClass.getDetailLevel()).isEqualTo(DETAIL_LEVEL.STRUCTURE_AND_CALLS);
+    assertThat(asmClass.getSuperClass().getInternalName()).isEqualTo(expected.getSuperClass().getInternalName());
+    assertThat(asmClass.getMethods()).hasSize(expected.getMethods().size());
+    assertThat(asmClass.getFields()).hasSize(expected.getFields().size());
+  }
+
 }
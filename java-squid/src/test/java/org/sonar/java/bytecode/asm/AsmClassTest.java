@@ -19,6 +19,7 @@
  */
 package org.sonar.java.bytecode.asm;
 
+import com.google.common.collect.Iterables;
 import org.junit.Test;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -56,4 +57,28 @@ public class AsmClassTest {
     assertThat(new AsmClass("java/lang/String").getDisplayName()).isEqualTo("java.lang.String");
   }
 
+  @Test
+  public void should_store_outgoing_edges() {
+    AsmClass asmClass = new AsmClass("java/lang/String");
+    AsmMethod method = asmClass.getMethodOrCreateIt("toString()Ljava/lang/String;");
+    for (int i = 0; i < 10; i++) {
+      AsmClass usedClass = new AsmClass("Used" + i);
+      method.addEdge(usedClass, SourceCodeEdgeUsage.USES, i + 1);
+      assertThat(usedClass.isUsed()).isTrue();
+    }
+    method.addEdge(asmClass, SourceCodeEdgeUsage.THROWS, 0);
+
+    assertThat(method.getOutgoingEdges()).hasSize(11);
+    AsmEdge edge = Iterables.get(method.getOutgoingEdges(), 3);
+    assertThat(edge.getFrom()).isSameAs(method);
+    assertThat(((AsmClass) edge.getTo()).getInternalName()).isEqualTo("Used3");
+    assertThat(edge.getUsage()).isEqualTo(SourceCodeEdgeUsage.USES);
+    assertThat(edge.getSourceLineNumber()).isEqualTo(4);
+    assertThat(method.getDistinctUsedAsmClasses()).hasSize(10);
+    assertThat(method.getThrows()).containsOnly(asmClass);
+
+    method.clearOutogingEdges();
+    assertThat(method.getOutgoingEdges()).isEmpty();
+  }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.bytecode.loader;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ClasspathIndexTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_find_first_jar() throws Exception {
+    ClasspathIndex index = new ClasspathIndex();
+    index.addJar(1, temp.newFile("a.jar"), Arrays.asList("a", "b"), true);
+    index.addJar(3, temp.newFile("b.jar"), Arrays.asList("b", "c"), true);
+
+    assertThat(index.find("a")).isEqualTo(1);
+    assertThat(index.find("b")).isEqualTo(1);
+    assertThat(index.find("c")).isEqualTo(3);
+    assertThat(index.find("d")).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_save_and_load() throws Exception {
+    File jar = temp.newFile("a.jar");
+    File indexFile = new File(temp.getRoot(), "index");
+    ClasspathIndex index = new ClasspathIndex();
+    index.addJar(0, jar, Arrays.asList("a", "b"), true);
+    index.save(indexFile);
+
+    ClasspathIndex loaded = ClasspathIndex.load(indexFile);
+    assertThat(loaded.getEntryNames(jar)).containsExactly("a", "b");
+    assertThat(loaded.getEntryNames(temp.newFile("b.jar"))).isNull();
+    assertThat(loaded.find("a")).isEqualTo(-1);
+  }
+
+  @Test
+  public void should_not_save_when_nothing_listed() throws Exception {
+    File indexFile = new File(temp.getRoot(), "index");
+    ClasspathIndex index = new ClasspathIndex();
+    index.addJar(0, temp.newFile("a.jar"), Arrays.asList("a"), false);
+    index.save(indexFile);
+
+    assertThat(indexFile).doesNotExist();
+  }
+
+  @Test
+  public void should_ignore_modified_jar() throws Exception {
+    File jar = temp.newFile("a.jar");
+    File indexFile = new File(temp.getRoot(), "index");
+    ClasspathIndex index = new ClasspathIndex();
+    index.addJar(0, jar, Arrays.asList("a"), true);
+    index.save(indexFile);
+    Files.write("modified", jar, Charsets.UTF_8);
+
+    assertThat(ClasspathIndex.load(indexFile).getEntryNames(jar)).isNull();
+  }
+
+  @Test
+  public void should_ignore_corrupted_file() throws Exception {
+    File indexFile = temp.newFile("index");
+    Files.write(new byte[] {0, 0, 0, 1, 0, 0, 0, 5}, indexFile);
+
+    assertThat(ClasspathIndex.load(indexFile).getEntryNames(temp.newFile("a.jar"))).isNull();
+  }
+
+}
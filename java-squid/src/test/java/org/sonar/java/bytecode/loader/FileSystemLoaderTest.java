@@ -19,9 +19,11 @@
  */
 package org.sonar.java.bytecode.loader;
 
+import com.google.common.io.Files;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.net.URL;
@@ -33,6 +35,9 @@ public class FileSystemLoaderTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   @Test
   public void shouldThrowIllegalArgumentException() throws Exception {
     thrown.expect(IllegalArgumentException.class);
@@ -77,6 +82,28 @@ public class FileSystemLoaderTest {
     loader.loadBytes("tags/TagName.class");
   }
 
+  @Test
+  public void contentOfDirectoryIsListedOnlyOnce() throws Exception {
+    File dir = temp.newFolder();
+    FileSystemLoader loader = new FileSystemLoader(dir);
+    assertThat(loader.findResource("org/Foo.class")).isNull();
+
+    File file = new File(dir, "org/Foo.class");
+    Files.createParentDirs(file);
+    Files.touch(file);
+    assertThat(loader.findResource("org/Foo.class")).isNull();
+    assertThat(new FileSystemLoader(dir).findResource("org/Foo.class")).isNotNull();
+  }
+
+  @Test
+  public void namesAreCaseSensitive() throws Exception {
+    File dir = new File("src/test/files/bytecode/bin/");
+    FileSystemLoader loader = new FileSystemLoader(dir);
+
+    assertThat(loader.findResource("tags/tagname.class")).isNull();
+    assertThat(loader.loadBytes("tags/tagname.class")).isNull();
+  }
+
   @Test
   public void closeCanBeCalledMultipleTimes() throws Exception {
     File dir = new File("src/test/files/bytecode/bin/");
@@ -19,12 +19,15 @@
  */
 package org.sonar.java.bytecode.loader;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.Iterators;
+import com.google.common.io.Files;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.util.Arrays;
@@ -37,6 +40,9 @@ public class SquidClassLoaderTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   private SquidClassLoader classLoader;
 
   @After
@@ -126,4 +132,58 @@ public class SquidClassLoaderTest {
     classLoader.close();
   }
 
+  @Test
+  public void firstJarTakesPrecedence() throws Exception {
+    File jar = new File("src/test/files/bytecode/lib/hello.jar");
+    File copy = new File(temp.newFolder(), "copy.jar");
+    Files.copy(jar, copy);
+    classLoader = new SquidClassLoader(Arrays.asList(copy, jar));
+
+    assertThat(classLoader.getResource("org/sonar/tests/Hello.class").toString()).contains("copy.jar!/");
+    assertThat(Iterators.forEnumeration(classLoader.findResources("org/sonar/tests/Hello.class"))).hasSize(2);
+  }
+
+  @Test
+  public void directoryBeforeJarTakesPrecedence() throws Exception {
+    File jar = new File("src/test/files/bytecode/lib/hello.jar");
+    File dir = temp.newFolder();
+    File classFile = new File(dir, "org/sonar/tests/Hello.class");
+    Files.createParentDirs(classFile);
+    JarLoader jarLoader = new JarLoader(jar);
+    Files.write(jarLoader.loadBytes("org/sonar/tests/Hello.class"), classFile);
+    jarLoader.close();
+    classLoader = new SquidClassLoader(Arrays.asList(dir, jar));
+
+    assertThat(classLoader.getResource("org/sonar/tests/Hello.class").getProtocol()).isEqualTo("file");
+    assertThat(classLoader.loadClass("org.sonar.tests.Hello")).isNotNull();
+  }
+
+  @Test
+  public void persistedIndexIsReused() throws Exception {
+    File jar = new File("src/test/files/bytecode/lib/hello.jar");
+    File indexFile = new File(temp.newFolder(), "index");
+    classLoader = new SquidClassLoader(Arrays.asList(jar), indexFile);
+    classLoader.close();
+    assertThat(indexFile).exists();
+    assertThat(ClasspathIndex.load(indexFile).getEntryNames(jar)).contains("org/sonar/tests/Hello.class");
+
+    classLoader = new SquidClassLoader(Arrays.asList(jar), indexFile);
+    assertThat(classLoader.loadClass("org.sonar.tests.Hello")).isNotNull();
+    assertThat(classLoader.getResource("META-INF/MANIFEST.MF")).isNotNull();
+    assertThat(classLoader.getResource("notfound")).isNull();
+  }
+
+  @Test
+  public void findJar() throws Exception {
+    File jar = new File("src/test/files/bytecode/lib/hello.jar");
+    File dir = temp.newFolder();
+    Files.write("resource", new File(dir, "resource.txt"), Charsets.UTF_8);
+    classLoader = new SquidClassLoader(Arrays.asList(dir, jar));
+
+    assertThat(classLoader.findJar("org/sonar/tests/Hello.class")).isEqualTo(jar);
+    assertThat(classLoader.findJar("resource.txt")).isNull();
+    assertThat(classLoader.findJar("java/lang/Object.class")).isNull();
+    assertThat(classLoader.findJar("notfound")).isNull();
+  }
+
 }
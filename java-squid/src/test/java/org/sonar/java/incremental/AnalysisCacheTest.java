@@ -0,0 +1,190 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.incremental;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.java.JavaAstScanner;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.model.AbstractTypedTree;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.squidbridge.api.CheckMessage;
+import org.sonar.squidbridge.api.SourceFile;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_save_and_load() throws Exception {
+    File cacheFile = new File(temp.getRoot(), "cache");
+    File file = temp.newFile("A.java");
+    CheckMessage issue = new CheckMessage(RuleKey.of("squid", "S1"), "message");
+    issue.setLine(42);
+    AnalysisCache cache = AnalysisCache.load(cacheFile, "fingerprint");
+    cache.put(file, new CachedFile("hash", ImmutableList.of(issue), ImmutableList.of(new int[] {1, 2, 3})));
+    cache.put(temp.newFile("B.java"), new CachedFile("hash", Collections.<CheckMessage>emptyList(), null));
+    cache.save(cacheFile);
+
+    cache = AnalysisCache.load(cacheFile, "fingerprint");
+    assertThat(cache.get(file, "other hash")).isNull();
+    CachedFile cachedFile = cache.get(file, "hash");
+    assertThat(cachedFile.getIssues()).hasSize(1);
+    assertThat(cachedFile.getIssues().get(0).getCheck()).isEqualTo(RuleKey.of("squid", "S1"));
+    assertThat(cachedFile.getIssues().get(0).getLine()).isEqualTo(42);
+    assertThat(cachedFile.getIssues().get(0).getDefaultMessage()).isEqualTo("message");
+    assertThat(cachedFile.getSymbols()).hasSize(1);
+    assertThat(cachedFile.getSymbols().get(0)).isEqualTo(new int[] {1, 2, 3});
+    assertThat(cache.get(temp.newFile("B.java"), "hash").getSymbols()).isNull();
+    assertThat(cache.getReplayed()).isEqualTo(2);
+
+    assertThat(AnalysisCache.load(cacheFile, "other fingerprint").get(file, "hash")).isNull();
+  }
+
+  @Test
+  public void should_evict_files_which_were_not_analysed() throws Exception {
+    File cacheFile = new File(temp.getRoot(), "cache");
+    File file = temp.newFile("A.java");
+    AnalysisCache cache = AnalysisCache.load(cacheFile, "fingerprint");
+    cache.put(file, new CachedFile("hash", Collections.<CheckMessage>emptyList(), null));
+    cache.save(cacheFile);
+
+    AnalysisCache.load(cacheFile, "fingerprint").save(cacheFile);
+    assertThat(AnalysisCache.load(cacheFile, "fingerprint").get(file, "hash")).isNull();
+  }
+
+  @Test
+  public void should_replay_issues_of_unchanged_file() throws Exception {
+    File cacheFile = new File(temp.getRoot(), "cache");
+    File file = new File(temp.newFolder(), "PublicApi.java");
+    Files.copy(new File("src/test/files/ast/PublicApi.java"), file);
+
+    ClassCheck check = new ClassCheck();
+    SourceFile sourceFile = scan(file, cacheFile, check);
+    assertThat(check.visitedClasses).isGreaterThan(0);
+    int issues = sourceFile.getCheckMessages().size();
+    assertThat(issues).isEqualTo(check.visitedClasses);
+
+    check = new ClassCheck();
+    sourceFile = scan(file, cacheFile, check);
+    assertThat(check.visitedClasses).isEqualTo(0);
+    assertThat(sourceFile.getCheckMessages()).hasSize(issues);
+
+    Files.append("\n", file, Charsets.UTF_8);
+    check = new ClassCheck();
+    scan(file, cacheFile, check);
+    assertThat(check.visitedClasses).isEqualTo(issues);
+  }
+
+  @Test
+  public void should_provide_types_to_scanners_on_replayed_file() throws Exception {
+    File cacheFile = new File(temp.getRoot(), "cache");
+    File file = new File(temp.newFolder(), "PublicApi.java");
+    Files.copy(new File("src/test/files/ast/PublicApi.java"), file);
+    scan(file, cacheFile, new ClassCheck());
+
+    ClassCheck check = new ClassCheck();
+    TypeReadingScanner scanner = new TypeReadingScanner();
+    scan(file, cacheFile, check, scanner);
+    assertThat(check.visitedClasses).isEqualTo(0);
+    assertThat(scanner.typedTrees).isGreaterThan(0);
+  }
+
+  @Test
+  public void should_not_replay_after_change_of_version_of_plugin() throws Exception {
+    File cacheFile = new File(temp.getRoot(), "cache");
+    File file = temp.newFile("A.java");
+    List<String> settings = ImmutableList.of("analyseAccessors=true");
+    List<Object> checks = ImmutableList.<Object>of(new ClassCheck());
+    AnalysisCache cache = AnalysisCache.load(cacheFile, AnalysisFingerprint.compute("1.0", settings, checks, Collections.<File>emptyList()));
+    cache.put(file, new CachedFile("hash", Collections.<CheckMessage>emptyList(), null));
+    cache.save(cacheFile);
+
+    assertThat(AnalysisCache.load(cacheFile, AnalysisFingerprint.compute("1.0", settings, checks, Collections.<File>emptyList())).get(file, "hash"))
+      .isNotNull();
+    assertThat(AnalysisCache.load(cacheFile, AnalysisFingerprint.compute("1.1", settings, checks, Collections.<File>emptyList())).get(file, "hash"))
+      .isNull();
+  }
+
+  private static SourceFile scan(File file, File cacheFile, JavaFileScanner... scanners) {
+    VisitorsBridge visitorsBridge = new VisitorsBridge(Arrays.asList(scanners), null);
+    visitorsBridge.setAnalysisCacheFile(cacheFile);
+    return JavaAstScanner.scanSingleFile(file, visitorsBridge);
+  }
+
+  /**
+   * Not a check, so executed on replayed files too.
+   */
+  private static class TypeReadingScanner extends BaseTreeVisitor implements JavaFileScanner {
+
+    private int typedTrees = 0;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scan(context.getTree());
+    }
+
+    @Override
+    protected void scan(@Nullable Tree tree) {
+      if (tree instanceof AbstractTypedTree) {
+        assertThat(((AbstractTypedTree) tree).getSymbolType()).isNotNull();
+        typedTrees++;
+      }
+      super.scan(tree);
+    }
+  }
+
+  @org.sonar.check.Rule(key = "ClassCheck")
+  private static class ClassCheck extends SubscriptionVisitor {
+
+    private int visitedClasses = 0;
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return ImmutableList.of(Tree.Kind.CLASS);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      visitedClasses++;
+      context.addIssue(tree, RuleKey.of("squid", "ClassCheck"), "class");
+    }
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.incremental;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.check.RuleProperty;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisFingerprintTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_depend_on_checks_and_their_properties() {
+    ParameterizedCheck check = new ParameterizedCheck();
+    String fingerprint = compute(ImmutableList.of(check), Collections.<File>emptyList());
+    assertThat(compute(ImmutableList.of(new ParameterizedCheck()), Collections.<File>emptyList())).isEqualTo(fingerprint);
+
+    check.max = 2;
+    assertThat(compute(ImmutableList.of(check), Collections.<File>emptyList())).isNotEqualTo(fingerprint);
+    assertThat(compute(Collections.emptyList(), Collections.<File>emptyList())).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void should_depend_on_declarations_in_classpath() throws Exception {
+    File dir = temp.newFolder();
+    File classFile = new File(dir, "A.class");
+    Files.copy(new File("target/test-classes/org/sonar/java/resolve/targets/AnonymousClass.class"), classFile);
+    String fingerprint = compute(Collections.emptyList(), ImmutableList.of(dir));
+
+    classFile.setLastModified(classFile.lastModified() - 10000);
+    assertThat(compute(Collections.emptyList(), ImmutableList.of(dir))).isEqualTo(fingerprint);
+
+    Files.copy(new File("target/test-classes/org/sonar/java/resolve/targets/Annotations.class"), classFile);
+    assertThat(compute(Collections.emptyList(), ImmutableList.of(dir))).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void should_depend_on_version_of_plugin_and_settings() {
+    String fingerprint = AnalysisFingerprint.compute("1.0", ImmutableList.of("analyseAccessors=true"), Collections.emptyList(), Collections.<File>emptyList());
+    assertThat(AnalysisFingerprint.compute("1.0", ImmutableList.of("analyseAccessors=true"), Collections.emptyList(), Collections.<File>emptyList()))
+      .isEqualTo(fingerprint);
+    assertThat(AnalysisFingerprint.compute("1.1", ImmutableList.of("analyseAccessors=true"), Collections.emptyList(), Collections.<File>emptyList()))
+      .isNotEqualTo(fingerprint);
+    assertThat(AnalysisFingerprint.compute("1.0", ImmutableList.of("analyseAccessors=false"), Collections.emptyList(), Collections.<File>emptyList()))
+      .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void should_read_version_of_plugin() {
+    String version = AnalysisFingerprint.pluginVersion();
+    assertThat(version).isNotEmpty().doesNotContain("${").doesNotContain("null");
+  }
+
+  @Test
+  public void should_hash_content() {
+    assertThat(AnalysisFingerprint.hash("class A {}")).isEqualTo(AnalysisFingerprint.hash("class A {}"));
+    assertThat(AnalysisFingerprint.hash("class A {}")).isNotEqualTo(AnalysisFingerprint.hash("class B {}"));
+  }
+
+  private static String compute(List<?> checks, List<File> classpath) {
+    return AnalysisFingerprint.compute("version", Collections.<String>emptyList(), checks, classpath);
+  }
+
+  private static class ParameterizedCheck {
+    @RuleProperty(key = "max")
+    private int max = 1;
+  }
+
+}
@@ -21,6 +21,7 @@ package org.sonar.java.model;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.impl.Parser;
 import org.apache.commons.io.FileUtils;
@@ -69,6 +70,7 @@ import org.sonar.plugins.java.api.tree.PrimitiveTypeTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
 import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SwitchStatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SynchronizedStatementTree;
 import org.sonar.plugins.java.api.tree.ThrowStatementTree;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -184,6 +186,21 @@ public class JavaTreeMakerTest {
     assertThat(tree.types()).hasSize(2);
   }
 
+  @Test
+  public void compilation_unit_tokens() {
+    CompilationUnitTree tree = maker.compilationUnit(p.parse("/* comment */ class Foo { int a; }"));
+    List<SyntaxToken> tokens = tree.tokens();
+    assertThat(tree.tokens()).isSameAs(tokens);
+    List<String> texts = Lists.newArrayList();
+    for (SyntaxToken token : tokens) {
+      texts.add(token.text());
+    }
+    assertThat(texts).containsExactly("class", "Foo", "{", "int", "a", ";", "}", "");
+    assertThat(tokens.get(0).trivias()).hasSize(1);
+    assertThat(tokens.get(0).trivias().get(0).comment()).isEqualTo("/* comment */");
+    assertThat(tokens.get(1).trivias()).isEmpty();
+  }
+
   @Test
   public void import_declaration() {
     AstNode astNode = p.parse("import foo.Bar;");
@@ -0,0 +1,130 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.model;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeSkippingPolicy;
+import org.junit.Test;
+import org.sonar.java.ast.parser.AstNodeHacks;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JavaTreeTest {
+
+  private static final AstNodeSkippingPolicy SKIPPED = new AstNodeSkippingPolicy() {
+    @Override
+    public boolean hasToBeSkippedFromAst(AstNode node) {
+      return true;
+    }
+  };
+
+  @Test
+  public void prepend_children_at_once_as_one_by_one() {
+    for (int existing = 0; existing <= 3; existing++) {
+      for (int prepended = 1; prepended <= 3; prepended++) {
+        JavaTree tree = tree(existing);
+        JavaTree expected = tree(existing);
+        tree.prependChildren(nodes(prepended));
+        prependOneByOne(expected, nodes(prepended));
+
+        assertSameChildren(tree, expected);
+      }
+    }
+  }
+
+  @Test
+  public void prepend_skipped_node_to_empty_tree_as_one_by_one() {
+    JavaTree tree = tree(0);
+    JavaTree expected = tree(0);
+    tree.prependChildren(skipped(), node("last"));
+    prependOneByOne(expected, skipped(), node("last"));
+
+    assertSameChildren(tree, expected);
+    assertThat(tree.getChildren()).hasSize(2);
+
+    tree = tree(0);
+    expected = tree(0);
+    tree.prependChildren(node("first"), skipped());
+    prependOneByOne(expected, node("first"), skipped());
+
+    assertSameChildren(tree, expected);
+    assertThat(tree.getChildren()).hasSize(3);
+  }
+
+  /**
+   * Former implementation of {@link JavaTree#prependChildren(AstNode...)}.
+   */
+  private static void prependOneByOne(JavaTree tree, AstNode... astNodes) {
+    for (int i = astNodes.length - 1; i >= 0; i--) {
+      List<AstNode> children = tree.getChildren();
+      if (children.isEmpty()) {
+        tree.addChild(astNodes[i]);
+      } else {
+        AstNodeHacks.setParent(astNodes[i], tree);
+        children.add(0, astNodes[i]);
+        for (int j = 0; j < children.size(); j++) {
+          AstNodeHacks.setChildIndex(children.get(j), j);
+        }
+      }
+    }
+  }
+
+  private static void assertSameChildren(JavaTree tree, JavaTree expected) {
+    assertThat(tree.getChildren()).hasSize(expected.getChildren().size());
+    for (int i = 0; i < tree.getChildren().size(); i++) {
+      AstNode child = tree.getChildren().get(i);
+      AstNode expectedChild = expected.getChildren().get(i);
+      assertThat(child.getName()).isEqualTo(expectedChild.getName());
+      assertThat(AstNodeHacks.getChildIndex(child)).isEqualTo(AstNodeHacks.getChildIndex(expectedChild)).isEqualTo(i);
+      assertThat(child.getParent()).isSameAs(tree);
+    }
+  }
+
+  private static JavaTree tree(int children) {
+    JavaTree tree = new JavaTree.NotImplementedTreeImpl();
+    for (int i = 0; i < children; i++) {
+      tree.addChild(node("existing" + i));
+    }
+    return tree;
+  }
+
+  private static AstNode[] nodes(int count) {
+    AstNode[] result = new AstNode[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = node("prepended" + i);
+    }
+    return result;
+  }
+
+  private static AstNode node(String name) {
+    return new AstNode(Tree.Kind.OTHER, name, null);
+  }
+
+  private static AstNode skipped() {
+    AstNode result = new AstNode(SKIPPED, "skipped", null);
+    result.addChild(node("skippedChild0"));
+    result.addChild(node("skippedChild1"));
+    return result;
+  }
+
+}
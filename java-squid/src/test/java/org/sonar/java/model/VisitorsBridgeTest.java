@@ -0,0 +1,204 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.model;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.api.resources.InputFileUtils;
+import org.sonar.java.AnalysisProfiler;
+import org.sonar.java.JavaAstScanner;
+import org.sonar.java.JavaConfiguration;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.resolve.Type;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.RequiredKinds;
+import org.sonar.plugins.java.api.SyntaxOnly;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class VisitorsBridgeTest {
+
+  private static final File FILE = new File("src/test/files/ast/PublicApi.java");
+
+  @Test
+  public void semantic_model_not_built_for_syntax_only_scanners() {
+    SyntacticScanner scanner = new SyntacticScanner();
+    JavaAstScanner.scanSingleFile(FILE, new VisitorsBridge(scanner));
+    assertThat(scanner.scanned).isTrue();
+    assertThat(scanner.semanticModel).isNull();
+  }
+
+  @Test
+  public void semantic_model_built_when_required_by_one_scanner() {
+    SyntacticScanner syntacticScanner = new SyntacticScanner();
+    SemanticScanner semanticScanner = new SemanticScanner();
+    JavaAstScanner.scanSingleFile(FILE, new VisitorsBridge(Arrays.asList(syntacticScanner, semanticScanner), null));
+    assertThat(semanticScanner.semanticModel).isNotNull();
+    assertThat(syntacticScanner.semanticModel).isSameAs(semanticScanner.semanticModel);
+  }
+
+  @Test
+  public void semantic_model_not_built_without_symbol_highlighting() {
+    SyntacticScanner scanner = new SyntacticScanner();
+    VisitorsBridge visitorsBridge = new VisitorsBridge(Arrays.asList(scanner), mock(SonarComponents.class));
+    visitorsBridge.setSymbolHighlighting(false);
+    JavaAstScanner.scanSingleFile(FILE, visitorsBridge);
+    assertThat(scanner.scanned).isTrue();
+    assertThat(scanner.semanticModel).isNull();
+  }
+
+  @Test
+  public void unknown_type_shared_between_files_analyzed_without_semantic_model() {
+    TypeScanner scanner = new TypeScanner();
+    File file = new File("src/test/files/metrics/Classes.java");
+    JavaAstScanner.create(new JavaConfiguration(Charsets.UTF_8), new VisitorsBridge(scanner)).scan(ImmutableList.of(
+      InputFileUtils.create(FILE.getParentFile(), FILE),
+      InputFileUtils.create(file.getParentFile(), file)));
+    assertThat(scanner.types).hasSize(2);
+    assertThat(scanner.types.get(0)).isNotNull();
+    assertThat(scanner.types.get(1)).isSameAs(scanner.types.get(0));
+  }
+
+  @Test
+  public void scanners_skipped_when_required_kinds_absent() {
+    LambdaScanner lambdaScanner = new LambdaScanner();
+    MethodScanner methodScanner = new MethodScanner();
+    LambdaVisitor lambdaVisitor = new LambdaVisitor();
+    VisitorsBridge visitorsBridge = new VisitorsBridge(Arrays.asList(lambdaScanner, methodScanner, lambdaVisitor), null);
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    visitorsBridge.setProfiler(profiler);
+    JavaAstScanner.scanSingleFile(FILE, visitorsBridge);
+
+    assertThat(lambdaScanner.scanned).isFalse();
+    assertThat(methodScanner.scanned).isTrue();
+    for (AnalysisProfiler.Counter counter : profiler.getCounters(AnalysisProfiler.JAVA_FILE_SCANNER)) {
+      boolean skipped = !counter.getName().equals(MethodScanner.class.getName());
+      assertThat(counter.getCount()).isEqualTo(skipped ? 0 : 1);
+      assertThat(counter.getSkipped()).isEqualTo(skipped ? 1 : 0);
+    }
+    assertThat(profiler.getCounters(AnalysisProfiler.JAVA_FILE_SCANNER)).hasSize(3);
+  }
+
+  @SyntaxOnly
+  private static class SyntacticScanner implements JavaFileScanner {
+    boolean scanned = false;
+    Object semanticModel;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scanned = true;
+      semanticModel = context.getSemanticModel();
+    }
+  }
+
+  private static class SemanticScanner implements JavaFileScanner {
+    Object semanticModel;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      semanticModel = context.getSemanticModel();
+    }
+  }
+
+  @Test
+  public void dispatched_visitors_skipped_when_required_kinds_absent() {
+    MethodVisitor methodVisitor = new LambdaMethodVisitor();
+    JavaAstScanner.scanSingleFile(FILE, new VisitorsBridge(Arrays.asList(methodVisitor, new LambdaVisitor()), null));
+    assertThat(methodVisitor.visited).isEqualTo(0);
+  }
+
+  @Test
+  public void dispatched_visitors_not_skipped_when_required_kinds_of_one_of_them_present() {
+    MethodVisitor methodVisitor = new MethodVisitor();
+    MethodVisitor lambdaMethodVisitor = new LambdaMethodVisitor();
+    JavaAstScanner.scanSingleFile(FILE, new VisitorsBridge(Arrays.asList(methodVisitor, lambdaMethodVisitor), null));
+    assertThat(methodVisitor.visited).isGreaterThan(0);
+    assertThat(lambdaMethodVisitor.visited).isEqualTo(methodVisitor.visited);
+  }
+
+  /**
+   * Collects type of first identifier of each file.
+   */
+  @SyntaxOnly
+  private static class TypeScanner extends BaseTreeVisitor implements JavaFileScanner {
+    final List<Type> types = Lists.newArrayList();
+    private boolean found;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      found = false;
+      scan(context.getTree());
+    }
+
+    @Override
+    public void visitIdentifier(IdentifierTree tree) {
+      if (!found) {
+        found = true;
+        types.add(((AbstractTypedTree) tree).getSymbolType());
+      }
+    }
+  }
+
+  @RequiredKinds(Tree.Kind.LAMBDA_EXPRESSION)
+  private static class LambdaScanner extends SyntacticScanner {
+  }
+
+  @RequiredKinds({Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.METHOD})
+  private static class MethodScanner extends SyntacticScanner {
+  }
+
+  private static class MethodVisitor extends SubscriptionVisitor {
+    int visited = 0;
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return ImmutableList.of(Tree.Kind.METHOD);
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      visited++;
+    }
+  }
+
+  @RequiredKinds(Tree.Kind.LAMBDA_EXPRESSION)
+  private static class LambdaMethodVisitor extends MethodVisitor {
+  }
+
+  private static class LambdaVisitor extends SubscriptionVisitor {
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return ImmutableList.of(Tree.Kind.LAMBDA_EXPRESSION);
+    }
+  }
+
+}
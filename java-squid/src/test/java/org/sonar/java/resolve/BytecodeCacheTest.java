@@ -0,0 +1,116 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BytecodeCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private final BytecodeCache bytecodeCache = new BytecodeCache(Lists.newArrayList(new File("target/test-classes"), new File("target/classes")));
+
+  @After
+  public void tearDown() {
+    bytecodeCache.close();
+  }
+
+  @Test
+  public void class_is_read_only_once() {
+    assertThat(bytecodeCache.getClassNode("java/lang/Object").name).isEqualTo("java/lang/Object");
+    assertThat(bytecodeCache.getClassNode("java/lang/Object")).isSameAs(bytecodeCache.getClassNode("java/lang/Object"));
+    assertThat(bytecodeCache.getMisses()).isEqualTo(1);
+    assertThat(bytecodeCache.getHits()).isEqualTo(2);
+  }
+
+  @Test
+  public void missing_class_is_cached() {
+    assertThat(bytecodeCache.getClassNode("java/lang/list")).isNull();
+    assertThat(bytecodeCache.getClassNode("java/lang/list")).isNull();
+    assertThat(bytecodeCache.getMisses()).isEqualTo(1);
+    assertThat(bytecodeCache.getHits()).isEqualTo(1);
+  }
+
+  @Test
+  public void number_of_cached_missing_classes_is_bounded() {
+    for (int i = 0; i <= BytecodeCache.MAX_MISSING_CLASSES; i++) {
+      assertThat(bytecodeCache.getClassNode("java/lang/missing" + i)).isNull();
+    }
+    long misses = bytecodeCache.getMisses();
+    assertThat(bytecodeCache.getClassNode("java/lang/missing" + BytecodeCache.MAX_MISSING_CLASSES)).isNull();
+    assertThat(bytecodeCache.getMisses()).isEqualTo(misses);
+    assertThat(bytecodeCache.getClassNode("java/lang/missing0")).isNull();
+    assertThat(bytecodeCache.getMisses()).isEqualTo(misses + 1);
+  }
+
+  @Test
+  public void symbols_are_not_shared_between_completers() {
+    BytecodeCompleter first = new BytecodeCompleter(bytecodeCache);
+    new Symbols(first);
+    BytecodeCompleter second = new BytecodeCompleter(bytecodeCache);
+    new Symbols(second);
+    long misses = bytecodeCache.getMisses();
+
+    Symbol.TypeSymbol firstSymbol = first.getClassSymbol("java/util/ArrayList");
+    Symbol.TypeSymbol secondSymbol = second.getClassSymbol("java/util/ArrayList");
+    assertThat(firstSymbol).isNotSameAs(secondSymbol);
+    assertThat(firstSymbol.getSuperclass().symbol.name).isEqualTo("AbstractList");
+    assertThat(secondSymbol.getSuperclass().symbol.name).isEqualTo("AbstractList");
+    assertThat(bytecodeCache.getMisses()).isGreaterThan(misses);
+
+    BytecodeCompleter third = new BytecodeCompleter(bytecodeCache);
+    new Symbols(third);
+    misses = bytecodeCache.getMisses();
+    assertThat(third.loadClass("java.util.ArrayList")).isInstanceOf(Symbol.TypeSymbol.class);
+    assertThat(bytecodeCache.getMisses()).isEqualTo(misses);
+  }
+
+  @Test
+  public void classes_from_jar_files_are_taken_from_library_index_of_previous_analysis() throws Exception {
+    File workDir = temp.newFolder();
+    List<File> classpath = Collections.singletonList(new File("src/test/files/bytecode/lib/hello.jar"));
+    BytecodeCache first = new BytecodeCache(classpath, workDir);
+    assertThat(first.getClassNode("org/sonar/tests/Hello").name).isEqualTo("org/sonar/tests/Hello");
+    assertThat(first.getClassNode("java/lang/Object")).isNotNull();
+    assertThat(first.getLibraryIndexHits()).isEqualTo(0);
+    first.close();
+
+    BytecodeCache second = new BytecodeCache(classpath, workDir);
+    BytecodeCompleter bytecodeCompleter = new BytecodeCompleter(second);
+    new Symbols(bytecodeCompleter);
+    Symbol.TypeSymbol symbol = bytecodeCompleter.getClassSymbol("org/sonar/tests/Hello");
+    assertThat(symbol.getSuperclass().symbol.name).isEqualTo("Object");
+    assertThat(symbol.members().lookup("say")).hasSize(1);
+    assertThat(second.getLibraryIndexHits()).isEqualTo(1);
+    second.close();
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.io.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.InnerClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class LibraryIndexTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private File jar;
+  private File dir;
+
+  @Before
+  public void setUp() throws IOException {
+    jar = new File(temp.newFolder(), "lib.jar");
+    createJar(jar, "org/sonar/java/resolve/Symbol", "org/sonar/java/resolve/Symbol$MethodSymbol");
+    dir = temp.newFolder();
+  }
+
+  @Test
+  public void summaries_are_saved_and_reused() throws IOException {
+    LibraryIndex index = new LibraryIndex(dir);
+    assertThat(index.get(jar, "org/sonar/java/resolve/Symbol")).isNull();
+    index.put(jar, readClassNode("org/sonar/java/resolve/Symbol"));
+    index.put(jar, readClassNode("org/sonar/java/resolve/Symbol$MethodSymbol"));
+    assertThat(describe(index.get(jar, "org/sonar/java/resolve/Symbol"))).isEqualTo(describe(readClassNode("org/sonar/java/resolve/Symbol")));
+    index.save();
+
+    index = new LibraryIndex(dir);
+    for (String name : new String[] {"org/sonar/java/resolve/Symbol", "org/sonar/java/resolve/Symbol$MethodSymbol"}) {
+      assertThat(describe(index.get(jar, name))).isEqualTo(describe(readClassNode(name)));
+    }
+    assertThat(index.get(jar, "org/sonar/java/resolve/Type")).isNull();
+    assertThat(index.getHits()).isEqualTo(2);
+  }
+
+  @Test
+  public void summaries_are_reused_when_only_date_of_modification_was_changed() throws IOException {
+    LibraryIndex index = new LibraryIndex(dir);
+    index.put(jar, readClassNode("org/sonar/java/resolve/Symbol"));
+    index.save();
+
+    assertThat(jar.setLastModified(jar.lastModified() - 10000)).isTrue();
+    assertThat(new LibraryIndex(dir).get(jar, "org/sonar/java/resolve/Symbol")).isNotNull();
+  }
+
+  @Test
+  public void summaries_are_discarded_when_content_was_changed() throws IOException {
+    LibraryIndex index = new LibraryIndex(dir);
+    index.put(jar, readClassNode("org/sonar/java/resolve/Symbol"));
+    index.save();
+
+    createJar(jar, "org/sonar/java/resolve/Symbol", "org/sonar/java/resolve/Type");
+    assertThat(jar.setLastModified(jar.lastModified() + 10000)).isTrue();
+    assertThat(new LibraryIndex(dir).get(jar, "org/sonar/java/resolve/Symbol")).isNull();
+  }
+
+  @Test
+  public void corrupted_summaries_are_ignored() throws IOException {
+    LibraryIndex index = new LibraryIndex(dir);
+    index.put(jar, readClassNode("org/sonar/java/resolve/Symbol"));
+    index.save();
+    File[] files = dir.listFiles();
+    assertThat(files).hasSize(1);
+    Files.write(new byte[] {0, 0, 0, 1, 0}, files[0]);
+
+    assertThat(new LibraryIndex(dir).get(jar, "org/sonar/java/resolve/Symbol")).isNull();
+  }
+
+  private static ClassNode readClassNode(String bytecodeName) throws IOException {
+    ClassNode classNode = new ClassNode();
+    new ClassReader(Files.toByteArray(classFile(bytecodeName))).accept(classNode, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+    return classNode;
+  }
+
+  private static File classFile(String bytecodeName) {
+    return new File("target/classes", bytecodeName + ".class");
+  }
+
+  private static void createJar(File jar, String... bytecodeNames) throws IOException {
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    try {
+      for (String bytecodeName : bytecodeNames) {
+        out.putNextEntry(new JarEntry(bytecodeName + ".class"));
+        out.write(Files.toByteArray(classFile(bytecodeName)));
+        out.closeEntry();
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  private static String describe(ClassNode classNode) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(classNode.access).append(' ').append(classNode.name).append(' ').append(classNode.signature)
+      .append(" extends ").append(classNode.superName).append(" implements ").append(classNode.interfaces).append('\n');
+    for (InnerClassNode innerClass : classNode.innerClasses) {
+      sb.append("inner ").append(innerClass.access).append(' ').append(innerClass.name).append(' ')
+        .append(innerClass.outerName).append(' ').append(innerClass.innerName).append('\n');
+    }
+    for (FieldNode field : classNode.fields) {
+      sb.append("field ").append(field.access).append(' ').append(field.name).append(' ').append(field.desc).append(' ').append(field.signature).append('\n');
+    }
+    for (MethodNode method : classNode.methods) {
+      sb.append("method ").append(method.access).append(' ').append(method.name).append(' ').append(method.desc).append(' ')
+        .append(method.signature).append(' ').append(method.exceptions).append('\n');
+    }
+    return sb.toString();
+  }
+
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.Lists;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -188,4 +189,41 @@ public class ResolveTest {
     assertThat(resolve.isInheritedIn(symbol, clazz)).isFalse();
   }
 
+  @Test
+  public void lookup_of_methods_is_memoized_per_enclosing_class() {
+    Symbol.PackageSymbol packageSymbol = new Symbol.PackageSymbol("p", null);
+    Symbol.TypeSymbol site = new Symbol.TypeSymbol(Flags.PUBLIC, "Site", packageSymbol);
+    site.members = new Scope(site);
+    Symbol.TypeSymbol anotherClass = new Symbol.TypeSymbol(Flags.PUBLIC, "AnotherClass", packageSymbol);
+    Symbol.MethodSymbol method = method(Flags.PRIVATE, site);
+    site.members.enter(method);
+    List<Type> argTypes = ImmutableList.of();
+
+    Resolve.Env envInSite = mock(Resolve.Env.class);
+    when(envInSite.enclosingClass()).thenReturn(site);
+    when(envInSite.packge()).thenReturn(packageSymbol);
+    Resolve.Env envInAnotherClass = mock(Resolve.Env.class);
+    when(envInAnotherClass.enclosingClass()).thenReturn(anotherClass);
+    when(envInAnotherClass.packge()).thenReturn(packageSymbol);
+
+    resolve.enableMemoization();
+    assertThat(resolve.findMethod(envInSite, site, "m", argTypes)).isSameAs(method);
+    Symbol accessError = resolve.findMethod(envInAnotherClass, site, "m", argTypes);
+    assertThat(accessError).isInstanceOf(Resolve.AccessErrorSymbol.class);
+
+    // would be ambiguous without memoization
+    site.members.enter(method(Flags.PRIVATE, site));
+    assertThat(resolve.findMethod(envInSite, site, "m", argTypes)).isSameAs(method);
+    assertThat(resolve.findMethod(envInAnotherClass, site, "m", argTypes)).isSameAs(accessError);
+    // other arguments are looked up again
+    assertThat(resolve.findMethod(envInSite, site, "m", ImmutableList.<Type>of(site.type))).isInstanceOf(Resolve.AmbiguityErrorSymbol.class);
+  }
+
+  private Symbol.MethodSymbol method(int flags, Symbol.TypeSymbol owner) {
+    Type.MethodType type = new Type.MethodType(ImmutableList.<Type>of(), null, ImmutableList.<Type>of(), owner);
+    Symbol.MethodSymbol result = new Symbol.MethodSymbol(flags, "m", owner);
+    result.setMethodType(type);
+    return result;
+  }
+
 }
@@ -0,0 +1,84 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.java.resolve;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.java.ast.parser.JavaParser;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaTreeMaker;
+import org.sonar.plugins.java.api.tree.BlockTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.UnaryExpressionTree;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SemanticModelTest {
+
+  @Test
+  public void should_record_usage_once_per_symbol() {
+    SemanticModel semanticModel = new SemanticModel();
+    IdentifierTree identifier = mock(IdentifierTree.class);
+    Symbol s1 = new Symbol(Symbol.VAR, 0, "s1", null);
+    Symbol s2 = new Symbol(Symbol.VAR, 0, "s2", null);
+
+    semanticModel.associateReference(identifier, s1);
+    semanticModel.associateReference(identifier, s1);
+    assertThat(semanticModel.getUsages(s1)).containsOnly(identifier);
+
+    semanticModel.associateReference(identifier, s2);
+    semanticModel.associateReference(identifier, s1);
+    assertThat(semanticModel.getUsages(s1)).hasSize(1);
+    assertThat(semanticModel.getUsages(s2)).containsOnly(identifier);
+    assertThat(semanticModel.getReference(identifier)).isSameAs(s1);
+  }
+
+  @Test
+  public void should_find_env_of_tree_through_parent_links() {
+    CompilationUnitTree compilationUnit = new JavaTreeMaker().compilationUnit(JavaParser.createParser(Charsets.UTF_8, true).parse(
+      "class A {\n"
+        + "  void m() {\n"
+        + "    int a = 1;\n"
+        + "    a++;\n"
+        + "  }\n"
+        + "}"));
+    SemanticModel semanticModel = SemanticModel.createFor(compilationUnit, Lists.<File>newArrayList());
+
+    ClassTree classTree = (ClassTree) compilationUnit.types().get(0);
+    BlockTree block = ((MethodTree) classTree.members().get(0)).block();
+    IdentifierTree identifier = (IdentifierTree) ((UnaryExpressionTree) ((ExpressionStatementTree) block.body().get(1)).expression()).expression();
+
+    assertThat(((JavaTree) compilationUnit).getParentTree()).isNull();
+    assertThat(((JavaTree) identifier).getParentTree()).isNotNull();
+    assertThat(semanticModel.getTree(semanticModel.getEnv(identifier))).isSameAs(block);
+    assertThat(semanticModel.getTree(semanticModel.getEnv(classTree))).isSameAs(classTree);
+    assertThat(semanticModel.getTree(semanticModel.getEnv(compilationUnit))).isSameAs(compilationUnit);
+    assertThat(semanticModel.getUsages(semanticModel.getReference(identifier))).containsOnly(identifier);
+  }
+
+}
@@ -19,6 +19,7 @@
  */
 package org.sonar.java.resolve;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -96,6 +97,42 @@ public class SymbolTest {
     verify(typeSymbol).complete();
   }
 
+  @Test
+  public void supertypes_should_be_linearized_without_duplicates() {
+    Symbol.PackageSymbol packageSymbol = new Symbol.PackageSymbol("p", null);
+    Symbol.TypeSymbol i0 = typeSymbol("I0", packageSymbol, null);
+    Symbol.TypeSymbol i1 = typeSymbol("I1", packageSymbol, null, i0);
+    Symbol.TypeSymbol i2 = typeSymbol("I2", packageSymbol, null, i0);
+    Symbol.TypeSymbol i3 = typeSymbol("I3", packageSymbol, null, i1, i2);
+    Symbol.TypeSymbol b = typeSymbol("B", packageSymbol, null, i1);
+    Symbol.TypeSymbol c = typeSymbol("C", packageSymbol, b, i3);
+    Symbol.MethodSymbol inI0 = new Symbol.MethodSymbol(0, "m", i0);
+    i0.members.enter(inI0);
+    Symbol.MethodSymbol inB = new Symbol.MethodSymbol(0, "m", b);
+    b.members.enter(inB);
+    b.members.enter(new Symbol.VariableSymbol(0, "m", b));
+
+    assertThat(c.superTypes()).containsExactly(i3.type, i1.type, i0.type, i2.type, b.type);
+    assertThat(c.superTypes()).isSameAs(c.superTypes());
+    assertThat(c.superMethods("m")).containsExactly(inI0, inB);
+    assertThat(c.superMethods("m")).isSameAs(c.superMethods("m"));
+    assertThat(c.superMethods("n")).isEmpty();
+    assertThat(c.hasUnknownSuperType()).isFalse();
+  }
+
+  private static Symbol.TypeSymbol typeSymbol(String name, Symbol owner, Symbol.TypeSymbol superclass, Symbol.TypeSymbol... interfaces) {
+    Symbol.TypeSymbol result = new Symbol.TypeSymbol(0, name, owner);
+    result.members = new Scope(result);
+    Type.ClassType type = (Type.ClassType) result.type;
+    type.supertype = superclass == null ? null : superclass.type;
+    ImmutableList.Builder<Type> interfaceTypes = ImmutableList.builder();
+    for (Symbol.TypeSymbol i : interfaces) {
+      interfaceTypes.add(i.type);
+    }
+    type.interfaces = interfaceTypes.build();
+    return result;
+  }
+
   @Test
   public void test_MethodSymbol() {
     Symbol.PackageSymbol packageSymbol = new Symbol.PackageSymbol("p", null);
@@ -21,6 +21,7 @@ package org.sonar.plugins.surefire;
 
 import com.google.common.collect.ImmutableList;
 import org.sonar.api.CoreProperties;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.plugins.surefire.api.SurefireUtils;
@@ -41,6 +42,15 @@ public final class SurefireExtensions {
             .category(CoreProperties.CATEGORY_JAVA)
             .subCategory("JUnit")
             .build(),
+        PropertyDefinition.builder(SurefireUtils.SUREFIRE_MAX_TEXT_LENGTH_PROPERTY)
+            .defaultValue(SurefireUtils.SUREFIRE_MAX_TEXT_LENGTH_DEFAULT_VALUE + "")
+            .name("Maximum length of failure details")
+            .description("Messages and stack traces of failed tests are truncated to this number of characters. Set to 0 to keep them in full.")
+            .onQualifiers(Qualifiers.PROJECT)
+            .category(CoreProperties.CATEGORY_JAVA)
+            .subCategory("JUnit")
+            .type(PropertyType.INTEGER)
+            .build(),
 
         SurefireSensor.class,
         SurefireJavaParser.class);
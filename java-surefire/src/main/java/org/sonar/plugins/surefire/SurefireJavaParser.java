@@ -19,6 +19,7 @@
  */
 package org.sonar.plugins.surefire;
 
+import com.google.common.collect.Lists;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +34,7 @@ import org.sonar.api.test.TestCase;
 import org.sonar.api.utils.ParsingUtils;
 import org.sonar.api.utils.SonarException;
 import org.sonar.api.utils.StaxParser;
+import org.sonar.java.ParallelTasks;
 import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.plugins.surefire.data.SurefireStaxHandler;
 import org.sonar.plugins.surefire.data.UnitTestClassReport;
@@ -42,7 +44,10 @@ import org.sonar.plugins.surefire.data.UnitTestResult;
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * @since 2.4
@@ -50,6 +55,9 @@ import java.util.Map;
 public class SurefireJavaParser implements BatchExtension {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SurefireJavaParser.class);
+
+  private static final int REPORTS_PER_TASK = 32;
+
   private final ResourcePerspectives perspectives;
   private final JavaResourceLocator javaResourceLocator;
 
@@ -60,9 +68,24 @@ public class SurefireJavaParser implements BatchExtension {
 
 
   public void collect(SensorContext context, File reportsDir) {
+    collect(context, reportsDir, 0);
+  }
+
+  /**
+   * @param maxTextLength maximum length of messages and stack traces of failures and errors, after which they are truncated, or 0 for no limit
+   */
+  public void collect(SensorContext context, File reportsDir, int maxTextLength) {
+    collect(context, reportsDir, maxTextLength, 1);
+  }
+
+  /**
+   * @param maxTextLength maximum length of messages and stack traces of failures and errors, after which they are truncated, or 0 for no limit
+   * @param threads number of threads used to parse reports
+   */
+  public void collect(SensorContext context, File reportsDir, int maxTextLength, int threads) {
     File[] xmlFiles = getReports(reportsDir);
     if (xmlFiles.length > 0) {
-      parseFiles(context, xmlFiles);
+      parseFiles(context, xmlFiles, maxTextLength, threads);
     }
   }
 
@@ -90,16 +113,36 @@ public class SurefireJavaParser implements BatchExtension {
     });
   }
 
-  private void parseFiles(SensorContext context, File[] reports) {
-    UnitTestIndex index = new UnitTestIndex();
-    parseFiles(reports, index);
+  private void parseFiles(SensorContext context, File[] reports, int maxTextLength, int threads) {
+    UnitTestIndex index = parseFiles(reports, maxTextLength, threads);
     sanitize(index);
     save(index, context);
   }
 
-  private void parseFiles(File[] reports, UnitTestIndex index) {
-    SurefireStaxHandler staxParser = new SurefireStaxHandler(index);
-    StaxParser parser = new StaxParser(staxParser, false);
+  /**
+   * Reports are parsed in parallel by groups into separate indexes, which are merged in order of reports,
+   * so that results are the same as of sequential parsing.
+   */
+  private static UnitTestIndex parseFiles(File[] reports, final int maxTextLength, int threads) {
+    List<Callable<UnitTestIndex>> tasks = Lists.newArrayList();
+    for (final List<File> group : Lists.partition(Arrays.asList(reports), REPORTS_PER_TASK)) {
+      tasks.add(new Callable<UnitTestIndex>() {
+        @Override
+        public UnitTestIndex call() {
+          return parseFiles(group, maxTextLength);
+        }
+      });
+    }
+    UnitTestIndex index = new UnitTestIndex();
+    for (UnitTestIndex groupIndex : ParallelTasks.invokeAll(threads, "surefire-parser-%d", tasks)) {
+      index.add(groupIndex);
+    }
+    return index;
+  }
+
+  private static UnitTestIndex parseFiles(List<File> reports, int maxTextLength) {
+    UnitTestIndex index = new UnitTestIndex();
+    StaxParser parser = new StaxParser(new SurefireStaxHandler(index, maxTextLength), false);
     for (File report : reports) {
       try {
         parser.parse(report);
@@ -107,6 +150,7 @@ public class SurefireJavaParser implements BatchExtension {
         throw new SonarException("Fail to parse the Surefire report: " + report, e);
       }
     }
+    return index;
   }
 
   private void sanitize(UnitTestIndex index) {
@@ -29,6 +29,7 @@ import org.sonar.api.batch.SensorContext;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
+import org.sonar.java.ParallelTasks;
 import org.sonar.plugins.surefire.api.SurefireUtils;
 
 import java.io.File;
@@ -66,7 +67,7 @@ public class SurefireSensor implements Sensor {
 
   protected void collect(SensorContext context, File reportsDir) {
     LOGGER.info("parsing {}", reportsDir);
-    surefireJavaParser.collect(context, reportsDir);
+    surefireJavaParser.collect(context, reportsDir, settings.getInt(SurefireUtils.SUREFIRE_MAX_TEXT_LENGTH_PROPERTY), ParallelTasks.threads(settings));
   }
 
   @Override
@@ -32,6 +32,8 @@ import java.io.File;
 public final class SurefireUtils {
 
   public static final String SUREFIRE_REPORTS_PATH_PROPERTY = "sonar.junit.reportsPath";
+  public static final String SUREFIRE_MAX_TEXT_LENGTH_PROPERTY = "sonar.junit.maxTextLength";
+  public static final int SUREFIRE_MAX_TEXT_LENGTH_DEFAULT_VALUE = 10000;
 
   public static File getReportsDirectory(Settings settings, Project project) {
     File dir = getReportsDirectoryFromProperty(settings, project);
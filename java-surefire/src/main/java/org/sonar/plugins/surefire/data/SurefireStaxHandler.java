@@ -27,6 +27,7 @@ import org.codehaus.staxmate.in.SMInputCursor;
 import org.sonar.api.utils.ParsingUtils;
 import org.sonar.api.utils.StaxParser.XmlStreamHandler;
 
+import javax.annotation.Nullable;
 import javax.xml.stream.XMLStreamException;
 
 import java.text.ParseException;
@@ -34,10 +35,21 @@ import java.util.Locale;
 
 public class SurefireStaxHandler implements XmlStreamHandler {
 
+  private static final String TRUNCATION_MARK = "...";
+
   private final UnitTestIndex index;
+  private final int maxTextLength;
 
   public SurefireStaxHandler(UnitTestIndex index) {
+    this(index, 0);
+  }
+
+  /**
+   * @param maxTextLength maximum length of messages and stack traces of failures and errors, after which they are truncated, or 0 for no limit
+   */
+  public SurefireStaxHandler(UnitTestIndex index, int maxTextLength) {
     this.index = index;
+    this.maxTextLength = maxTextLength;
   }
 
   @Override
@@ -74,11 +86,44 @@ public class SurefireStaxHandler implements XmlStreamHandler {
   }
 
   private void setStackAndMessage(UnitTestResult result, SMInputCursor stackAndMessageCursor) throws XMLStreamException {
-    result.setMessage(stackAndMessageCursor.getAttrValue("message"));
-    String stack = stackAndMessageCursor.collectDescendantText();
+    result.setMessage(truncate(stackAndMessageCursor.getAttrValue("message")));
+    String stack = maxTextLength > 0 ? collectTruncatedDescendantText(stackAndMessageCursor) : stackAndMessageCursor.collectDescendantText();
     result.setStackTrace(stack);
   }
 
+  /**
+   * Same as {@link SMInputCursor#collectDescendantText()}, but text after the limit is skipped instead of being accumulated.
+   */
+  private String collectTruncatedDescendantText(SMInputCursor cursor) throws XMLStreamException {
+    StringBuilder sb = new StringBuilder();
+    boolean truncated = false;
+    SMInputCursor text = cursor.descendantMixedCursor();
+    for (SMEvent event = text.getNext(); event != null; event = text.getNext()) {
+      if (event == SMEvent.TEXT || event == SMEvent.CDATA) {
+        if (truncated) {
+          continue;
+        }
+        String chunk = text.getText();
+        int remaining = maxTextLength - sb.length();
+        if (chunk.length() > remaining) {
+          sb.append(chunk, 0, remaining).append(TRUNCATION_MARK);
+          truncated = true;
+        } else {
+          sb.append(chunk);
+        }
+      }
+    }
+    return sb.toString();
+  }
+
+  @Nullable
+  private String truncate(@Nullable String text) {
+    if (maxTextLength > 0 && text != null && text.length() > maxTextLength) {
+      return text.substring(0, maxTextLength) + TRUNCATION_MARK;
+    }
+    return text;
+  }
+
   private UnitTestResult parseTestResult(SMInputCursor testCaseCursor) throws XMLStreamException {
     UnitTestResult detail = new UnitTestResult();
     String name = getTestCaseName(testCaseCursor);
@@ -71,6 +71,20 @@ public class UnitTestIndex {
     return null;
   }
 
+  /**
+   * Results of given index are appended to results of this index, reports of classes not yet indexed are taken as is.
+   */
+  public void add(UnitTestIndex other) {
+    for (Map.Entry<String, UnitTestClassReport> entry : other.indexByClassname.entrySet()) {
+      UnitTestClassReport report = indexByClassname.get(entry.getKey());
+      if (report == null) {
+        indexByClassname.put(entry.getKey(), entry.getValue());
+      } else {
+        report.add(entry.getValue());
+      }
+    }
+  }
+
   public void remove(String classname) {
     indexByClassname.remove(classname);
   }
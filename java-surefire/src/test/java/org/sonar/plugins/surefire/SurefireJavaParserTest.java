@@ -19,8 +19,11 @@
  */
 package org.sonar.plugins.surefire;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentMatcher;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -56,6 +59,9 @@ import static org.mockito.Mockito.when;
 
 public class SurefireJavaParserTest {
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   private ResourcePerspectives perspectives;
   private JavaResourceLocator javaResourceLocator;
   private SurefireJavaParser parser;
@@ -221,6 +227,23 @@ public class SurefireJavaParserTest {
     verify(context, times(1)).saveMeasure(argThat(new IsResource(Scopes.FILE, Qualifiers.FILE)), eq(CoreMetrics.TEST_EXECUTION_TIME), eq(659.0));
   }
 
+  @Test
+  public void should_aggregate_class_reported_in_reports_parsed_in_parallel() throws Exception {
+    java.io.File dir = temp.newFolder();
+    for (int i = 0; i < 100; i++) {
+      String failure = i % 10 == 0 ? "<failure message=\"expected\">stack</failure>" : "";
+      FileUtils.write(new java.io.File(dir, "TEST-org.sonar.FooTest" + i + ".xml"),
+        "<testsuite name=\"org.sonar.FooTest" + i + "\"><testcase classname=\"org.sonar.FooTest\" name=\"test" + i + "\" time=\"0.001\">" + failure + "</testcase></testsuite>");
+    }
+    SensorContext context = mockContext();
+
+    parser.collect(context, dir, 0, 4);
+
+    verify(context).saveMeasure(argThat(new IsResource(Scopes.FILE, Qualifiers.FILE, "org.sonar.FooTest")), eq(CoreMetrics.TESTS), eq(100.0));
+    verify(context).saveMeasure(argThat(new IsResource(Scopes.FILE, Qualifiers.FILE, "org.sonar.FooTest")), eq(CoreMetrics.TEST_FAILURES), eq(10.0));
+    verify(context).saveMeasure(argThat(new IsResource(Scopes.FILE, Qualifiers.FILE, "org.sonar.FooTest")), eq(CoreMetrics.TEST_EXECUTION_TIME), eq(100.0));
+  }
+
   private java.io.File getDir(String dirname) throws URISyntaxException {
     return new java.io.File("src/test/resources/org/sonar/plugins/surefire/api/SurefireParserTest/" + dirname);
   }
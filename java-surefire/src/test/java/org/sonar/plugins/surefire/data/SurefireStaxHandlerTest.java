@@ -114,9 +114,31 @@ public class SurefireStaxHandlerTest {
     assertThat(index.get("org.sonar.SecondTest").getTests(), is(4L));
   }
 
+  @Test
+  public void shouldTruncateStackTracesAndMessages() throws XMLStreamException {
+    parse("errorsAndFailures.xml");
+    UnitTestResult failure = index.get("org.sonar.Foo").getResults().get(0);
+
+    index = new UnitTestIndex();
+    parse("errorsAndFailures.xml", 10);
+    UnitTestResult truncatedFailure = index.get("org.sonar.Foo").getResults().get(0);
+    assertThat(truncatedFailure.getMessage(), is("expected:<..."));
+    assertThat(truncatedFailure.getStackTrace(), is(failure.getStackTrace().substring(0, 10) + "..."));
+
+    index = new UnitTestIndex();
+    parse("errorsAndFailures.xml", 100000);
+    UnitTestResult notTruncatedFailure = index.get("org.sonar.Foo").getResults().get(0);
+    assertThat(notTruncatedFailure.getMessage(), is(failure.getMessage()));
+    assertThat(notTruncatedFailure.getStackTrace(), is(failure.getStackTrace()));
+  }
+
   private void parse(String path) throws XMLStreamException {
+    parse(path, 0);
+  }
+
+  private void parse(String path, int maxTextLength) throws XMLStreamException {
     File xml = TestUtils.getResource(getClass(), path);
-    SurefireStaxHandler staxParser = new SurefireStaxHandler(index);
+    SurefireStaxHandler staxParser = new SurefireStaxHandler(index, maxTextLength);
     StaxParser parser = new StaxParser(staxParser, false);
     parser.parse(xml);
   }
@@ -104,6 +104,26 @@ public class UnitTestIndexTest {
     assertThat(report.getDurationMilliseconds(), is(500L + 200L));
   }
 
+  @Test
+  public void shouldAddIndex() {
+    UnitTestIndex index = new UnitTestIndex();
+    index.index("org.sonar.Foo").add(new UnitTestResult().setName("first").setStatus(UnitTestResult.STATUS_OK).setDurationMilliseconds(500L));
+    UnitTestIndex other = new UnitTestIndex();
+    other.index("org.sonar.Foo").add(new UnitTestResult().setName("second").setStatus(UnitTestResult.STATUS_ERROR).setDurationMilliseconds(200L));
+    UnitTestClassReport bar = other.index("org.sonar.Bar");
+
+    index.add(other);
+
+    assertThat(index.size(), is(2));
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+    assertThat(report.getTests(), is(2L));
+    assertThat(report.getErrors(), is(1L));
+    assertThat(report.getResults().get(0).getName(), is("first"));
+    assertThat(report.getResults().get(1).getName(), is("second"));
+    assertThat(report.getDurationMilliseconds(), is(500L + 200L));
+    assertSame(index.get("org.sonar.Bar"), bar);
+  }
+
   @Test
   public void shouldNotFailWhenMergingUnknownClass() {
     UnitTestIndex index = new UnitTestIndex();
@@ -30,6 +30,7 @@ import org.sonar.api.resources.Directory;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
 import org.sonar.java.JavaSquid;
+import org.sonar.java.ParallelTasks;
 import org.sonar.java.bytecode.visitor.ResourceMapping;
 import org.sonar.plugins.java.bridges.ChecksBridge;
 import org.sonar.plugins.java.bridges.DesignBridge;
@@ -51,7 +52,9 @@ public class Bridges {
     boolean skipPackageDesignAnalysis = settings.getBoolean(CoreProperties.DESIGN_SKIP_PACKAGE_DESIGN_PROPERTY);
     //Design
     if (!skipPackageDesignAnalysis && squid.isBytecodeScanned()) {
-      DesignBridge designBridge = new DesignBridge(context, squid.getGraph(), resourceMapping, resourcePerspectives);
+      DesignBridge designBridge = new DesignBridge(context, squid.getGraph(), resourceMapping, resourcePerspectives,
+        settings.getLong(JavaPlugin.SQUID_DESIGN_TIME_BUDGET_PROPERTY) * 1000, settings.getInt(JavaPlugin.SQUID_DESIGN_CYCLES_BUDGET_PROPERTY),
+        ParallelTasks.threads(settings));
       designBridge.saveDesign(project);
     }
     //Report Issues
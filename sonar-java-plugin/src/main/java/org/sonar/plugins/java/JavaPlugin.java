@@ -27,6 +27,8 @@ import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.java.DefaultJavaResourceLocator;
 import org.sonar.java.JavaClasspath;
+import org.sonar.java.JavaSquid;
+import org.sonar.java.ParallelTasks;
 import org.sonar.java.SonarComponents;
 import org.sonar.plugins.jacoco.JaCoCoExtensions;
 import org.sonar.plugins.surefire.SurefireExtensions;
@@ -41,6 +43,24 @@ public class JavaPlugin extends SonarPlugin {
   public static final String SQUID_ANALYSE_ACCESSORS_PROPERTY = "sonar.squid.analyse.property.accessors";
   public static final boolean SQUID_ANALYSE_ACCESSORS_DEFAULT_VALUE = true;
 
+  public static final String SQUID_PARSING_THREADS_PROPERTY = ParallelTasks.THREADS_PROPERTY;
+  public static final int SQUID_PARSING_THREADS_DEFAULT_VALUE = 1;
+
+  public static final String SQUID_INCREMENTAL_PROPERTY = "sonar.squid.incremental";
+  public static final boolean SQUID_INCREMENTAL_DEFAULT_VALUE = false;
+
+  public static final String SQUID_PROFILING_PROPERTY = "sonar.squid.profiling";
+  public static final boolean SQUID_PROFILING_DEFAULT_VALUE = false;
+
+  public static final String SQUID_SYMBOL_HIGHLIGHTING_PROPERTY = "sonar.squid.symbolHighlighting";
+  public static final boolean SQUID_SYMBOL_HIGHLIGHTING_DEFAULT_VALUE = true;
+
+  public static final String SQUID_DESIGN_TIME_BUDGET_PROPERTY = "sonar.squid.design.timeBudget";
+  public static final int SQUID_DESIGN_TIME_BUDGET_DEFAULT_VALUE = 0;
+
+  public static final String SQUID_DESIGN_CYCLES_BUDGET_PROPERTY = "sonar.squid.design.cyclesBudget";
+  public static final int SQUID_DESIGN_CYCLES_BUDGET_DEFAULT_VALUE = 0;
+
   @Override
   public List getExtensions() {
     ImmutableList.Builder<Object> builder = ImmutableList.builder();
@@ -70,6 +90,67 @@ public class JavaPlugin extends SonarPlugin {
             .type(PropertyType.BOOLEAN)
             .onQualifiers(Qualifiers.PROJECT)
             .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_PARSING_THREADS_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_PARSING_THREADS_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Parsing threads")
+            .description("Number of threads used to parse source files, to read bytecode, to analyze package design, to parse Surefire reports and to compute JaCoCo coverage per test. " +
+                "Files and classes are still analyzed one after another, " +
+                "so that results do not depend on this value.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_INCREMENTAL_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_INCREMENTAL_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Incremental analysis")
+            .description("Reuse results of checks from previous analysis for files, which were not modified since. " +
+                "Results are stored in working directory and are discarded when rules, their parameters or declarations in classpath change.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_PROFILING_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_PROFILING_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Profiling of analysis")
+            .description("Measure time and allocations of each phase of analysis, of each rule and of each file. " +
+                "Slowest ones are logged and the full report is written into file " + JavaSquid.PROFILING_REPORT_FILE + " of working directory.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_SYMBOL_HIGHLIGHTING_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_SYMBOL_HIGHLIGHTING_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Symbol highlighting")
+            .description("Save symbol table of files, so that usages of a symbol can be highlighted in source viewer. " +
+                "When disabled and all active rules are syntactic, semantic model of files is not built, which speeds up analysis.")
+            .type(PropertyType.BOOLEAN)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_DESIGN_TIME_BUDGET_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_DESIGN_TIME_BUDGET_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Time budget of design analysis")
+            .description("Time in seconds for search of cycles between packages and between files, " +
+                "after which feedback edges of remaining tangles are approximated. Zero means no limit.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
+        PropertyDefinition.builder(JavaPlugin.SQUID_DESIGN_CYCLES_BUDGET_PROPERTY)
+            .defaultValue(JavaPlugin.SQUID_DESIGN_CYCLES_BUDGET_DEFAULT_VALUE + "")
+            .category(JAVA_CATEGORY)
+            .subCategory(GENERAL_SUBCATEGORY)
+            .name("Cycles budget of design analysis")
+            .description("Maximum number of cycles in a tangle of packages or files to search minimum feedback edges, " +
+                "otherwise feedback edges of this tangle are approximated. Zero means no limit.")
+            .type(PropertyType.INTEGER)
+            .onQualifiers(Qualifiers.PROJECT)
+            .build(),
         PropertyDefinition.builder(CoreProperties.DESIGN_SKIP_DESIGN_PROPERTY)
             .defaultValue(CoreProperties.DESIGN_SKIP_DESIGN_DEFAULT_VALUE + "")
             .category(JAVA_CATEGORY)
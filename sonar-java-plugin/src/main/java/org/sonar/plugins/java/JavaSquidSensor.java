@@ -108,6 +108,13 @@ public class JavaSquidSensor implements Sensor {
     JavaConfiguration conf = new JavaConfiguration(charset);
     conf.setAnalyzePropertyAccessors(analyzePropertyAccessors);
     conf.setVerifyAssertions(false);
+    conf.setWorkDir(moduleFileSystem.workingDir());
+    conf.setIncremental(settings.getBoolean(JavaPlugin.SQUID_INCREMENTAL_PROPERTY));
+    conf.setProfiling(settings.getBoolean(JavaPlugin.SQUID_PROFILING_PROPERTY));
+    conf.setSymbolHighlighting(settings.getBoolean(JavaPlugin.SQUID_SYMBOL_HIGHLIGHTING_PROPERTY));
+    if (settings.hasKey(JavaPlugin.SQUID_PARSING_THREADS_PROPERTY)) {
+      conf.setParsingThreads(settings.getInt(JavaPlugin.SQUID_PARSING_THREADS_PROPERTY));
+    }
     return conf;
   }
 
@@ -0,0 +1,145 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.Sets;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.Cycle;
+import org.sonar.graph.CycleDetector;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.Edge;
+import org.sonar.graph.IncrementalCyclesAndFESSolver;
+import org.sonar.graph.MinimumFeedbackEdgeSetSolver;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Cycles and feedback edges between given resources, which are searched only within strongly connected components of their graph.
+ * <p/>
+ * When time budget is exhausted or a component contains more cycles than cycles budget, search of cycles is not done for this component,
+ * and instead edges closing a cycle during depth-first traversal of component are used as approximate feedback edges,
+ * each of them counting as one cycle.
+ */
+class CyclesAnalysis {
+
+  private int cycles = 0;
+  private final Set<Edge> feedbackEdges = Sets.newHashSet();
+  private int tangles = 0;
+  private boolean approximate = false;
+
+  private CyclesAnalysis() {
+  }
+
+  /**
+   * @param minimumFeedbackEdges true to search minimum feedback edge set among all found cycles,
+   * false to use feedback edge set found by {@link IncrementalCyclesAndFESSolver} during search of cycles
+   * @param deadline time in milliseconds after which components are analyzed approximately
+   * @param cyclesBudget maximum number of cycles in a component to analyze it exactly, or 0 for no limit
+   */
+  static CyclesAnalysis analyze(DirectedGraph<Resource, Dependency> graph, Collection<Resource> resources, boolean minimumFeedbackEdges,
+    long deadline, int cyclesBudget) {
+    CyclesAnalysis analysis = new CyclesAnalysis();
+    for (Set<Resource> component : StronglyConnectedComponents.nonTrivial(graph, resources)) {
+      if (System.currentTimeMillis() > deadline || exceedsBudget(graph, component, cyclesBudget)) {
+        analysis.addApproximation(graph, component);
+      } else if (minimumFeedbackEdges) {
+        Set<Cycle> componentCycles = new IncrementalCyclesAndFESSolver<Resource>(graph, component).getCycles();
+        MinimumFeedbackEdgeSetSolver solver = new MinimumFeedbackEdgeSetSolver(componentCycles);
+        analysis.cycles += componentCycles.size();
+        analysis.feedbackEdges.addAll(solver.getEdges());
+        analysis.tangles += solver.getWeightOfFeedbackEdgeSet();
+      } else {
+        IncrementalCyclesAndFESSolver<Resource> solver = new IncrementalCyclesAndFESSolver<Resource>(graph, component);
+        analysis.cycles += solver.getCycles().size();
+        analysis.feedbackEdges.addAll(solver.getFeedbackEdgeSet());
+        analysis.tangles += solver.getWeightOfFeedbackEdgeSet();
+      }
+    }
+    return analysis;
+  }
+
+  private static boolean exceedsBudget(DirectedGraph<Resource, Dependency> graph, Set<Resource> component, int cyclesBudget) {
+    return cyclesBudget > 0 && new CycleDetector<Resource>(graph, component).detectCyclesWithUpperLimit(cyclesBudget + 1).size() > cyclesBudget;
+  }
+
+  private void addApproximation(DirectedGraph<Resource, Dependency> graph, Set<Resource> component) {
+    approximate = true;
+    Set<Resource> visited = Sets.newHashSet();
+    Set<Resource> onPath = Sets.newHashSet();
+    for (Resource root : component) {
+      if (!visited.add(root)) {
+        continue;
+      }
+      Deque<Resource> path = new ArrayDeque<Resource>();
+      Deque<Iterator<Dependency>> successors = new ArrayDeque<Iterator<Dependency>>();
+      path.push(root);
+      onPath.add(root);
+      successors.push(graph.getOutgoingEdges(root).iterator());
+      while (!path.isEmpty()) {
+        Iterator<Dependency> iterator = successors.peek();
+        if (iterator.hasNext()) {
+          Dependency edge = iterator.next();
+          Resource successor = edge.getTo();
+          if (onPath.contains(successor)) {
+            addFeedbackEdge(edge);
+          } else if (component.contains(successor) && visited.add(successor)) {
+            path.push(successor);
+            onPath.add(successor);
+            successors.push(graph.getOutgoingEdges(successor).iterator());
+          }
+        } else {
+          onPath.remove(path.pop());
+          successors.pop();
+        }
+      }
+    }
+  }
+
+  private void addFeedbackEdge(Dependency edge) {
+    cycles++;
+    feedbackEdges.add(edge);
+    tangles += edge.getWeight();
+  }
+
+  int getCycles() {
+    return cycles;
+  }
+
+  Set<Edge> getFeedbackEdges() {
+    return feedbackEdges;
+  }
+
+  int getTangles() {
+    return tangles;
+  }
+
+  /**
+   * @return true if at least one component was analyzed approximately
+   */
+  boolean isApproximate() {
+    return approximate;
+  }
+
+}
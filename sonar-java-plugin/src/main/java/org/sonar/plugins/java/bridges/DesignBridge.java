@@ -19,6 +19,7 @@
  */
 package org.sonar.plugins.java.bridges;
 
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.SensorContext;
@@ -33,19 +34,18 @@ import org.sonar.api.resources.Directory;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
 import org.sonar.api.utils.TimeProfiler;
-import org.sonar.graph.Cycle;
 import org.sonar.graph.DirectedGraph;
-import org.sonar.graph.Dsm;
-import org.sonar.graph.DsmTopologicalSorter;
 import org.sonar.graph.Edge;
-import org.sonar.graph.IncrementalCyclesAndFESSolver;
-import org.sonar.graph.MinimumFeedbackEdgeSetSolver;
+import org.sonar.java.ParallelTasks;
 import org.sonar.java.bytecode.visitor.ResourceMapping;
 import org.sonar.java.checks.CycleBetweenPackagesCheck;
 
+import javax.annotation.CheckForNull;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class DesignBridge {
 
@@ -55,29 +55,50 @@ public class DesignBridge {
   private final DirectedGraph<Resource, Dependency> graph;
   private final ResourceMapping resourceMapping;
   private final ResourcePerspectives resourcePerspectives;
+  private final long timeBudget;
+  private final int cyclesBudget;
+  private final int threads;
+  private long deadline;
 
   public DesignBridge(SensorContext context, DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, ResourcePerspectives resourcePerspectives) {
+    this(context, graph, resourceMapping, resourcePerspectives, 0, 0, 1);
+  }
+
+  /**
+   * @param timeBudget in milliseconds for search of cycles in whole project, after which cycles are searched approximately, or 0 for no limit
+   * @param cyclesBudget maximum number of cycles in a strongly connected component to search them exactly, or 0 for no limit
+   * @param threads number of threads used to analyze packages
+   */
+  public DesignBridge(SensorContext context, DirectedGraph<Resource, Dependency> graph, ResourceMapping resourceMapping, ResourcePerspectives resourcePerspectives,
+    long timeBudget, int cyclesBudget, int threads) {
     this.context = context;
     this.graph = graph;
     this.resourceMapping = resourceMapping;
     this.resourcePerspectives = resourcePerspectives;
+    this.timeBudget = timeBudget;
+    this.cyclesBudget = cyclesBudget;
+    this.threads = Math.max(1, threads);
   }
 
   public void saveDesign(Project sonarProject) {
+    deadline = timeBudget > 0 ? (System.currentTimeMillis() + timeBudget) : Long.MAX_VALUE;
     Collection<Resource> directories = resourceMapping.directories();
     TimeProfiler profiler = new TimeProfiler(LOG).start("Package design analysis");
     LOG.debug("{} packages to analyze", directories.size());
 
-    IncrementalCyclesAndFESSolver<Resource> cyclesAndFESSolver = new IncrementalCyclesAndFESSolver<Resource>(graph, directories);
-    LOG.debug("{} cycles", cyclesAndFESSolver.getCycles().size());
+    CyclesAnalysis cyclesAnalysis = CyclesAnalysis.analyze(graph, directories, false, deadline, cyclesBudget);
+    LOG.debug("{} cycles", cyclesAnalysis.getCycles());
+    if (cyclesAnalysis.isApproximate()) {
+      LOG.warn("Budget of package design analysis is exceeded, cycles between packages are approximated");
+    }
 
-    Set<Edge> feedbackEdges = cyclesAndFESSolver.getFeedbackEdgeSet();
+    Set<Edge> feedbackEdges = cyclesAnalysis.getFeedbackEdges();
     LOG.debug("{} feedback edges", feedbackEdges.size());
-    int tangles = cyclesAndFESSolver.getWeightOfFeedbackEdgeSet();
+    int tangles = cyclesAnalysis.getTangles();
 
     saveIssues(feedbackEdges);
     saveDependencies();
-    savePositiveMeasure(sonarProject, CoreMetrics.PACKAGE_CYCLES, cyclesAndFESSolver.getCycles().size());
+    savePositiveMeasure(sonarProject, CoreMetrics.PACKAGE_CYCLES, cyclesAnalysis.getCycles());
     savePositiveMeasure(sonarProject, CoreMetrics.PACKAGE_FEEDBACK_EDGES, feedbackEdges.size());
     savePositiveMeasure(sonarProject, CoreMetrics.PACKAGE_TANGLES, tangles);
     savePositiveMeasure(sonarProject, CoreMetrics.PACKAGE_EDGES_WEIGHT, getEdgesWeight(directories));
@@ -88,8 +109,31 @@ public class DesignBridge {
 
     profiler.stop();
 
-    for (Resource sonarPackage : directories) {
-      onPackage(sonarPackage);
+    analyzePackages(directories);
+  }
+
+  /**
+   * Packages are analyzed in parallel, whereas their measures are saved in order of packages.
+   */
+  private void analyzePackages(Collection<Resource> directories) {
+    List<Callable<PackageDesign>> tasks = Lists.newArrayList();
+    for (final Resource sonarPackage : directories) {
+      tasks.add(new Callable<PackageDesign>() {
+        @Override
+        public PackageDesign call() {
+          return analyzePackage(sonarPackage);
+        }
+      });
+    }
+    boolean approximate = false;
+    for (PackageDesign packageDesign : ParallelTasks.invokeAll(threads, "design-analyzer-%d", tasks)) {
+      if (packageDesign != null) {
+        packageDesign.save();
+        approximate |= packageDesign.cyclesAnalysis.isApproximate();
+      }
+    }
+    if (approximate) {
+      LOG.warn("Budget of package design analysis is exceeded, cycles between files of some packages are approximated");
     }
   }
 
@@ -99,23 +143,34 @@ public class DesignBridge {
     }
   }
 
-  private void onPackage(Resource sonarPackage) {
+  @CheckForNull
+  private PackageDesign analyzePackage(Resource sonarPackage) {
     Collection<Resource> squidFiles = resourceMapping.files((Directory) sonarPackage);
-    if (squidFiles != null && !squidFiles.isEmpty()) {
-
-      IncrementalCyclesAndFESSolver<Resource> cycleDetector = new IncrementalCyclesAndFESSolver<Resource>(graph, squidFiles);
-      Set<Cycle> cycles = cycleDetector.getCycles();
-
-      MinimumFeedbackEdgeSetSolver solver = new MinimumFeedbackEdgeSetSolver(cycles);
-      Set<Edge> feedbackEdges = solver.getEdges();
-      int tangles = solver.getWeightOfFeedbackEdgeSet();
+    if (squidFiles == null || squidFiles.isEmpty()) {
+      return null;
+    }
+    CyclesAnalysis cyclesAnalysis = CyclesAnalysis.analyze(graph, squidFiles, true, deadline, cyclesBudget);
+    return new PackageDesign(sonarPackage, cyclesAnalysis, getEdgesWeight(squidFiles), serializeDsm(graph, squidFiles, cyclesAnalysis.getFeedbackEdges()));
+  }
 
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_CYCLES, cycles.size());
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_FEEDBACK_EDGES, feedbackEdges.size());
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_TANGLES, tangles);
-      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_EDGES_WEIGHT, getEdgesWeight(squidFiles));
+  private class PackageDesign {
+    private final Resource sonarPackage;
+    private final CyclesAnalysis cyclesAnalysis;
+    private final double edgesWeight;
+    private final String dsmJson;
+
+    PackageDesign(Resource sonarPackage, CyclesAnalysis cyclesAnalysis, double edgesWeight, String dsmJson) {
+      this.sonarPackage = sonarPackage;
+      this.cyclesAnalysis = cyclesAnalysis;
+      this.edgesWeight = edgesWeight;
+      this.dsmJson = dsmJson;
+    }
 
-      String dsmJson = serializeDsm(graph, squidFiles, feedbackEdges);
+    void save() {
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_CYCLES, cyclesAnalysis.getCycles());
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_FEEDBACK_EDGES, cyclesAnalysis.getFeedbackEdges().size());
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_TANGLES, cyclesAnalysis.getTangles());
+      savePositiveMeasure(sonarPackage, CoreMetrics.FILE_EDGES_WEIGHT, edgesWeight);
       context.saveMeasure(sonarPackage, new Measure(CoreMetrics.DEPENDENCY_MATRIX, dsmJson));
     }
   }
@@ -130,9 +185,7 @@ public class DesignBridge {
   }
 
   private String serializeDsm(DirectedGraph<Resource, Dependency> graph, Collection<Resource> sources, Set<Edge> feedbackEdges) {
-    Dsm<Resource> dsm = new Dsm<Resource>(graph, sources, feedbackEdges);
-    DsmTopologicalSorter.sort(dsm);
-    return DsmSerializer.serialize(dsm);
+    return DsmSerializer.serialize(graph, sources, feedbackEdges);
   }
 
   private void saveIssues(Set<Edge> feedbackEdges) {
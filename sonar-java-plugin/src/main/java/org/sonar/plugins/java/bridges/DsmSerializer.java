@@ -19,13 +19,24 @@
  */
 package org.sonar.plugins.java.bridges;
 
+import com.google.common.base.Strings;
 import org.sonar.api.design.Dependency;
 import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraphAccessor;
 import org.sonar.graph.Dsm;
 import org.sonar.graph.DsmCell;
+import org.sonar.graph.Edge;
+
+import java.util.Collection;
+import java.util.Set;
 
 public final class DsmSerializer {
 
+  /**
+   * Separators and empty cells, which are appended by chunks instead of one by one.
+   */
+  private static final String EMPTY_CELLS = Strings.repeat(",{}", 256);
+
   private Dsm dsm;
   private StringBuilder json;
 
@@ -88,4 +99,78 @@ public final class DsmSerializer {
   public static String serialize(Dsm<Resource> dsm) {
     return new DsmSerializer(dsm).serialize();
   }
+
+  /**
+   * Produces the same JSON as serialization of {@link Dsm} sorted by {@link org.sonar.graph.DsmTopologicalSorter},
+   * but without creation of a cell for each pair of sources: only non-empty cells are stored,
+   * and empty cells are written directly into the buffer, which is allocated once for the whole matrix.
+   *
+   * @throws IllegalStateException if graph without feedback edges contains cycles
+   */
+  public static String serialize(DirectedGraphAccessor<Resource, Dependency> graph, Collection<Resource> sources, Set<Edge> feedbackEdges) {
+    SparseDsm dsm = new SparseDsm(graph, sources, feedbackEdges);
+    dsm.sort();
+    int dimension = dsm.getDimension();
+    // three characters for each empty cell, and more for non-empty cells and for description of each row
+    long capacity = 2 + dimension * (64L + 3L * dimension) + 32L * dsm.getEdgesCount();
+    StringBuilder json = new StringBuilder((int) Math.min(capacity, Integer.MAX_VALUE - 8));
+    json.append('[');
+    for (int y = 0; y < dimension; y++) {
+      if (y > 0) {
+        json.append(',');
+      }
+      serializeRow(dsm, y, json);
+    }
+    json.append(']');
+    return json.toString();
+  }
+
+  private static void serializeRow(SparseDsm dsm, int y, StringBuilder json) {
+    Resource sonarResource = dsm.getVertex(y);
+    json.append('{');
+    if (sonarResource != null) {
+      json.append("\"i\":");
+      json.append(sonarResource.getId());
+      json.append(",\"n\":\"");
+      json.append(sonarResource.getName());
+      json.append("\",\"q\":\"");
+      json.append(sonarResource.getQualifier());
+      json.append("\",\"v\":[");
+      int x = 0;
+      for (int edge : dsm.getNonEmptyCells(y)) {
+        int column = dsm.getColumn(edge);
+        x = serializeEmptyCells(x, column, json);
+        if (x > 0) {
+          json.append(',');
+        }
+        Dependency dependency = dsm.getEdge(edge);
+        json.append("{\"i\":");
+        json.append(dependency.getId());
+        json.append(",\"w\":");
+        json.append(dependency.getWeight());
+        json.append('}');
+        x++;
+      }
+      serializeEmptyCells(x, dsm.getDimension(), json);
+      json.append(']');
+    }
+    json.append('}');
+  }
+
+  /**
+   * @return end
+   */
+  private static int serializeEmptyCells(int start, int end, StringBuilder json) {
+    int x = start;
+    if (x == 0 && x < end) {
+      json.append("{}");
+      x++;
+    }
+    while (x < end) {
+      int count = Math.min(end - x, EMPTY_CELLS.length() / 3);
+      json.append(EMPTY_CELLS, 0, count * 3);
+      x += count;
+    }
+    return end;
+  }
 }
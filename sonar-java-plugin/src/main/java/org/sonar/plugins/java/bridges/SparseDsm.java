@@ -0,0 +1,232 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.Maps;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraphAccessor;
+import org.sonar.graph.Edge;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency structure matrix, which unlike {@link org.sonar.graph.Dsm} stores only non-empty cells,
+ * so that its size is linear in number of edges instead of quadratic in number of vertices.
+ * <p/>
+ * Cell (row, column) holds the edge from vertex of column to vertex of row. Edges are grouped by their targets,
+ * whereas order of vertices is kept in a permutation, which {@link #sort()} computes exactly as {@link org.sonar.graph.DsmTopologicalSorter}.
+ */
+final class SparseDsm {
+
+  private final int dimension;
+  private final Resource[] vertices;
+
+  /**
+   * Edges with target i are stored at indexes from incomingStart[i] (inclusive) to incomingStart[i + 1] (exclusive).
+   */
+  private final int[] incomingStart;
+  private final int[] edgeSources;
+  private final Dependency[] edges;
+
+  /**
+   * Edges, which are taken into account by sort: neither feedback edges nor edges without weight.
+   */
+  private final boolean[] ordering;
+  private final int[] orderingOutgoingStart;
+  private final int[] orderingOutgoingTargets;
+
+  /**
+   * Vertex at position, and position of vertex.
+   */
+  private final int[] order;
+  private final int[] positions;
+
+  SparseDsm(DirectedGraphAccessor<Resource, Dependency> graph, Collection<Resource> sources, Set<Edge> feedbackEdges) {
+    dimension = sources.size();
+    vertices = sources.toArray(new Resource[dimension]);
+    Map<Resource, Integer> indexes = Maps.newHashMapWithExpectedSize(dimension);
+    for (int i = 0; i < dimension; i++) {
+      indexes.put(vertices[i], i);
+    }
+
+    incomingStart = new int[dimension + 1];
+    int[] orderingOutgoingCount = new int[dimension + 1];
+    for (int i = 0; i < dimension; i++) {
+      for (Dependency edge : graph.getOutgoingEdges(vertices[i])) {
+        Integer target = indexes.get(edge.getTo());
+        if (target != null) {
+          incomingStart[target + 1]++;
+          if (isOrdering(edge, feedbackEdges)) {
+            orderingOutgoingCount[i + 1]++;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < dimension; i++) {
+      incomingStart[i + 1] += incomingStart[i];
+      orderingOutgoingCount[i + 1] += orderingOutgoingCount[i];
+    }
+    orderingOutgoingStart = orderingOutgoingCount.clone();
+
+    int edgesCount = incomingStart[dimension];
+    edgeSources = new int[edgesCount];
+    edges = new Dependency[edgesCount];
+    ordering = new boolean[edgesCount];
+    orderingOutgoingTargets = new int[orderingOutgoingStart[dimension]];
+    int[] incomingNext = Arrays.copyOf(incomingStart, dimension);
+    for (int i = 0; i < dimension; i++) {
+      for (Dependency edge : graph.getOutgoingEdges(vertices[i])) {
+        Integer target = indexes.get(edge.getTo());
+        if (target != null) {
+          int e = incomingNext[target]++;
+          edgeSources[e] = i;
+          edges[e] = edge;
+          if (isOrdering(edge, feedbackEdges)) {
+            ordering[e] = true;
+            orderingOutgoingTargets[orderingOutgoingCount[i]++] = target;
+          }
+        }
+      }
+    }
+
+    order = new int[dimension];
+    positions = new int[dimension];
+    for (int i = 0; i < dimension; i++) {
+      order[i] = i;
+      positions[i] = i;
+    }
+  }
+
+  private static boolean isOrdering(Dependency edge, Set<Edge> feedbackEdges) {
+    return edge.getWeight() != 0 && !feedbackEdges.contains(edge);
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+
+  int getEdgesCount() {
+    return edges.length;
+  }
+
+  Resource getVertex(int position) {
+    return vertices[order[position]];
+  }
+
+  /**
+   * @return indexes of edges of non-empty cells of given row in order of their columns
+   */
+  int[] getNonEmptyCells(int row) {
+    int vertex = order[row];
+    int start = incomingStart[vertex];
+    int end = incomingStart[vertex + 1];
+    long[] cells = new long[end - start];
+    int count = 0;
+    for (int e = start; e < end; e++) {
+      if (edges[e].getWeight() > 0) {
+        cells[count++] = ((long) positions[edgeSources[e]] << 32) | e;
+      }
+    }
+    Arrays.sort(cells, 0, count);
+    int[] result = new int[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = (int) cells[i];
+    }
+    return result;
+  }
+
+  int getColumn(int edge) {
+    return positions[edgeSources[edge]];
+  }
+
+  Dependency getEdge(int edge) {
+    return edges[edge];
+  }
+
+  /**
+   * Same passes as {@link org.sonar.graph.DsmTopologicalSorter}: vertices without incoming edges are pushed to the left,
+   * and vertices without outgoing edges are pushed to the right, among vertices, which are not yet pushed.
+   * Instead of scanning rows and columns of the matrix, numbers of edges from and to vertices, which are not yet pushed, are maintained.
+   *
+   * @throws IllegalStateException if graph without feedback edges contains cycles
+   */
+  void sort() {
+    int[] incoming = new int[dimension];
+    int[] outgoing = new int[dimension];
+    for (int e = 0; e < edges.length; e++) {
+      if (ordering[e]) {
+        outgoing[edgeSources[e]]++;
+      }
+    }
+    for (int i = 0; i < dimension; i++) {
+      for (int e = orderingOutgoingStart[i]; e < orderingOutgoingStart[i + 1]; e++) {
+        incoming[orderingOutgoingTargets[e]]++;
+      }
+    }
+
+    int left = 0;
+    int right = dimension - 1;
+    boolean changed = true;
+    while (changed) {
+      boolean pushedToLeft = false;
+      for (int i = left; i <= right; i++) {
+        if (incoming[order[i]] == 0) {
+          push(i, left, incoming, outgoing);
+          left++;
+          pushedToLeft = true;
+        }
+      }
+      boolean pushedToRight = false;
+      for (int i = left; i <= right; i++) {
+        if (outgoing[order[i]] == 0) {
+          push(i, right, incoming, outgoing);
+          right--;
+          pushedToRight = true;
+        }
+      }
+      changed = pushedToLeft || pushedToRight;
+    }
+    if (left < right) {
+      throw new IllegalStateException("Can't sort a cyclic graph.");
+    }
+  }
+
+  private void push(int from, int to, int[] incoming, int[] outgoing) {
+    int vertex = order[from];
+    order[from] = order[to];
+    positions[order[from]] = from;
+    order[to] = vertex;
+    positions[vertex] = to;
+
+    for (int e = orderingOutgoingStart[vertex]; e < orderingOutgoingStart[vertex + 1]; e++) {
+      incoming[orderingOutgoingTargets[e]]--;
+    }
+    for (int e = incomingStart[vertex]; e < incomingStart[vertex + 1]; e++) {
+      if (ordering[e]) {
+        outgoing[edgeSources[e]]--;
+      }
+    }
+  }
+
+}
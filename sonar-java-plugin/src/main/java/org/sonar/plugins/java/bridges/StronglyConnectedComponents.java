@@ -0,0 +1,141 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.sonar.graph.DirectedGraphAccessor;
+import org.sonar.graph.Edge;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tarjan's algorithm, which finds in linear time strongly connected components of the subgraph induced by given vertices.
+ * Every cycle of the subgraph lies within a single component, so that cycles can be searched in each component separately.
+ */
+final class StronglyConnectedComponents {
+
+  private StronglyConnectedComponents() {
+    // only static methods
+  }
+
+  /**
+   * Vertices of each component, as well as components themselves, are in order of given vertices,
+   * because cycles and feedback edges found by {@link org.sonar.graph.IncrementalCyclesAndFESSolver} depend on order of vertices.
+   *
+   * @return components, which contain at least one cycle: having more than one vertex, or a single vertex with an edge to itself
+   */
+  static <V> List<Set<V>> nonTrivial(DirectedGraphAccessor<V, ? extends Edge<V>> graph, Collection<V> vertices) {
+    Set<V> subgraph = Sets.newHashSet(vertices);
+    Map<V, Integer> indexes = Maps.newHashMap();
+    Map<V, Integer> lowLinks = Maps.newHashMap();
+    Deque<V> stack = new ArrayDeque<V>();
+    Set<V> onStack = Sets.newHashSet();
+    // index of non-trivial component of each vertex, which belongs to such component
+    Map<V, Integer> components = Maps.newHashMap();
+    int nonTrivialComponents = 0;
+
+    // explicit stack of visited vertices together with iterators over their successors, to not overflow call stack on long paths
+    Deque<V> path = new ArrayDeque<V>();
+    Deque<Iterator<? extends Edge<V>>> successors = new ArrayDeque<Iterator<? extends Edge<V>>>();
+
+    for (V root : vertices) {
+      if (indexes.containsKey(root)) {
+        continue;
+      }
+      push(graph, root, indexes, lowLinks, stack, onStack, path, successors);
+      while (!path.isEmpty()) {
+        V vertex = path.peek();
+        Iterator<? extends Edge<V>> iterator = successors.peek();
+        if (iterator.hasNext()) {
+          V successor = iterator.next().getTo();
+          if (!subgraph.contains(successor)) {
+            continue;
+          }
+          if (!indexes.containsKey(successor)) {
+            push(graph, successor, indexes, lowLinks, stack, onStack, path, successors);
+          } else if (onStack.contains(successor)) {
+            lowLinks.put(vertex, Math.min(lowLinks.get(vertex), indexes.get(successor)));
+          }
+        } else {
+          path.pop();
+          successors.pop();
+          if (!path.isEmpty()) {
+            V parent = path.peek();
+            lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(vertex)));
+          }
+          if (lowLinks.get(vertex).equals(indexes.get(vertex))) {
+            List<V> component = Lists.newArrayList();
+            V member;
+            do {
+              member = stack.pop();
+              onStack.remove(member);
+              component.add(member);
+            } while (!member.equals(vertex));
+            if (component.size() > 1 || graph.hasEdge(vertex, vertex)) {
+              for (V v : component) {
+                components.put(v, nonTrivialComponents);
+              }
+              nonTrivialComponents++;
+            }
+          }
+        }
+      }
+    }
+    return inOrderOf(vertices, components);
+  }
+
+  private static <V> List<Set<V>> inOrderOf(Collection<V> vertices, Map<V, Integer> components) {
+    List<Set<V>> result = Lists.newArrayList();
+    Map<Integer, Set<V>> membersByComponent = Maps.newHashMap();
+    for (V vertex : vertices) {
+      Integer component = components.get(vertex);
+      if (component != null) {
+        Set<V> members = membersByComponent.get(component);
+        if (members == null) {
+          members = Sets.newLinkedHashSet();
+          membersByComponent.put(component, members);
+          result.add(members);
+        }
+        members.add(vertex);
+      }
+    }
+    return result;
+  }
+
+  private static <V> void push(DirectedGraphAccessor<V, ? extends Edge<V>> graph, V vertex, Map<V, Integer> indexes, Map<V, Integer> lowLinks,
+    Deque<V> stack, Set<V> onStack, Deque<V> path, Deque<Iterator<? extends Edge<V>>> successors) {
+    int index = indexes.size();
+    indexes.put(vertex, index);
+    lowLinks.put(vertex, index);
+    stack.push(vertex);
+    onStack.add(vertex);
+    path.push(vertex);
+    successors.push(graph.getOutgoingEdges(vertex).iterator());
+  }
+
+}
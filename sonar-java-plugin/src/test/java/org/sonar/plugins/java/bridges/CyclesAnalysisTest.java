@@ -0,0 +1,133 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.IncrementalCyclesAndFESSolver;
+import org.sonar.graph.MinimumFeedbackEdgeSetSolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CyclesAnalysisTest {
+
+  private final Resource a = new Directory("a");
+  private final Resource b = new Directory("b");
+  private final Resource c = new Directory("c");
+  private final Resource d = new Directory("d");
+  private final List<Resource> resources = Arrays.asList(a, b, c, d);
+
+  private DirectedGraph<Resource, Dependency> graph() {
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    graph.addEdge(new Dependency(a, b).setWeight(5));
+    graph.addEdge(new Dependency(b, a).setWeight(1));
+    graph.addEdge(new Dependency(b, c).setWeight(2));
+    graph.addEdge(new Dependency(c, a).setWeight(4));
+    graph.addEdge(new Dependency(c, d).setWeight(5));
+    return graph;
+  }
+
+  @Test
+  public void should_find_cycles_within_components() {
+    DirectedGraph<Resource, Dependency> graph = graph();
+    for (boolean minimumFeedbackEdges : new boolean[] {true, false}) {
+      CyclesAnalysis analysis = CyclesAnalysis.analyze(graph, resources, minimumFeedbackEdges, Long.MAX_VALUE, 0);
+      assertThat(analysis.isApproximate()).isFalse();
+      assertThat(analysis.getCycles()).isEqualTo(2);
+      assertThat(analysis.getFeedbackEdges()).containsOnly(graph.getEdge(b, a), graph.getEdge(b, c));
+      assertThat(analysis.getTangles()).isEqualTo(3);
+    }
+  }
+
+  /**
+   * Several components, each with overlapping cycles, connected by edges, which are not part of any cycle.
+   */
+  @Test
+  public void should_find_same_cycles_and_feedback_edges_as_search_in_whole_graph() {
+    List<Resource> packages = Lists.newArrayList();
+    for (int i = 0; i < 15; i++) {
+      packages.add(new Directory("p" + (char) ('a' + i)));
+    }
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    for (int component = 0; component < 3; component++) {
+      int first = component * 5;
+      for (int i = 0; i < 5; i++) {
+        for (int j = 0; j < 5; j++) {
+          if (i != j && (i + 2 * j + component) % 3 != 0) {
+            graph.addEdge(new Dependency(packages.get(first + i), packages.get(first + j)).setWeight(1 + (3 * i + j + component) % 7));
+          }
+        }
+      }
+      if (component > 0) {
+        graph.addEdge(new Dependency(packages.get(first), packages.get(first - 1)).setWeight(1));
+      }
+    }
+
+    IncrementalCyclesAndFESSolver<Resource> wholeGraphSolver = new IncrementalCyclesAndFESSolver<Resource>(graph, packages);
+    CyclesAnalysis analysis = CyclesAnalysis.analyze(graph, packages, false, Long.MAX_VALUE, 0);
+    assertThat(analysis.getCycles()).isEqualTo(wholeGraphSolver.getCycles().size());
+    assertThat(analysis.getFeedbackEdges()).isEqualTo(wholeGraphSolver.getFeedbackEdgeSet());
+    assertThat(analysis.getTangles()).isEqualTo(wholeGraphSolver.getWeightOfFeedbackEdgeSet());
+
+    MinimumFeedbackEdgeSetSolver minimumSolver = new MinimumFeedbackEdgeSetSolver(wholeGraphSolver.getCycles());
+    analysis = CyclesAnalysis.analyze(graph, packages, true, Long.MAX_VALUE, 0);
+    assertThat(analysis.getCycles()).isEqualTo(wholeGraphSolver.getCycles().size());
+    assertThat(analysis.getFeedbackEdges()).isEqualTo(minimumSolver.getEdges());
+    assertThat(analysis.getTangles()).isEqualTo(minimumSolver.getWeightOfFeedbackEdgeSet());
+  }
+
+  @Test
+  public void should_approximate_feedback_edges_when_budget_is_exceeded() {
+    DirectedGraph<Resource, Dependency> graph = graph();
+    for (CyclesAnalysis analysis : Arrays.asList(
+      CyclesAnalysis.analyze(graph, resources, true, 0, 0),
+      CyclesAnalysis.analyze(graph, resources, true, Long.MAX_VALUE, 1))) {
+      assertThat(analysis.isApproximate()).isTrue();
+      assertThat(analysis.getFeedbackEdges()).isNotEmpty();
+
+      DirectedGraph<Resource, Dependency> remaining = new DirectedGraph<Resource, Dependency>();
+      for (Dependency dependency : graph.getEdges(resources)) {
+        if (!analysis.getFeedbackEdges().contains(dependency)) {
+          remaining.addEdge(dependency);
+        }
+      }
+      assertThat(StronglyConnectedComponents.nonTrivial(remaining, resources)).isEmpty();
+    }
+  }
+
+  @Test
+  public void should_not_search_cycles_in_acyclic_graph() {
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    graph.addEdge(new Dependency(a, b).setWeight(1));
+    CyclesAnalysis analysis = CyclesAnalysis.analyze(graph, resources, true, 0, 1);
+    assertThat(analysis.isApproximate()).isFalse();
+    assertThat(analysis.getCycles()).isEqualTo(0);
+    assertThat(analysis.getFeedbackEdges()).isEmpty();
+    assertThat(analysis.getTangles()).isEqualTo(0);
+  }
+
+}
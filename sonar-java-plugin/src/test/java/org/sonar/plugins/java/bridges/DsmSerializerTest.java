@@ -0,0 +1,110 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.sonar.api.design.Dependency;
+import org.sonar.api.resources.Directory;
+import org.sonar.api.resources.Resource;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.Dsm;
+import org.sonar.graph.DsmTopologicalSorter;
+import org.sonar.graph.Edge;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class DsmSerializerTest {
+
+  @Test
+  public void should_serialize_empty_cells() {
+    Resource a = resource(1);
+    Resource b = resource(2);
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    graph.addEdge(new Dependency(a, b).setWeight(3).setId(10L));
+
+    String json = DsmSerializer.serialize(graph, Lists.newArrayList(b, a), Collections.<Edge>emptySet());
+    assertThat(json).isEqualTo("[{\"i\":1,\"n\":\"null\",\"q\":\"DIR\",\"v\":[{},{}]},{\"i\":2,\"n\":\"null\",\"q\":\"DIR\",\"v\":[{\"i\":10,\"w\":3},{}]}]");
+  }
+
+  @Test
+  public void should_serialize_like_dense_dsm() {
+    Random random = new Random(42);
+    for (int iteration = 0; iteration < 200; iteration++) {
+      int size = random.nextInt(iteration < 100 ? 10 : 700);
+      List<Resource> resources = Lists.newArrayList();
+      for (int i = 0; i < size; i++) {
+        resources.add(resource(i));
+      }
+      // edges backward in a random order are feedback edges or have no weight, so that graph without them is acyclic
+      List<Resource> topologicalOrder = Lists.newArrayList(resources);
+      Collections.shuffle(topologicalOrder, random);
+      DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+      Set<Edge> feedbackEdges = Sets.newHashSet();
+      for (int e = 0; e < size * 3; e++) {
+        int from = random.nextInt(size);
+        int to = random.nextInt(size);
+        if (from == to || graph.hasEdge(topologicalOrder.get(from), topologicalOrder.get(to))) {
+          continue;
+        }
+        Dependency dependency = new Dependency(topologicalOrder.get(from), topologicalOrder.get(to)).setId((long) e).setWeight(1 + random.nextInt(5));
+        if (from > to) {
+          if (random.nextBoolean()) {
+            feedbackEdges.add(dependency);
+          } else {
+            dependency.setWeight(0);
+          }
+        }
+        graph.addEdge(dependency);
+      }
+      // edge to vertex outside of sources
+      if (size > 0) {
+        graph.addEdge(new Dependency(resources.get(0), resource(-1)).setWeight(1));
+      }
+
+      Dsm<Resource> dsm = new Dsm<Resource>(graph, resources, feedbackEdges);
+      DsmTopologicalSorter.sort(dsm);
+      assertThat(DsmSerializer.serialize(graph, resources, feedbackEdges)).isEqualTo(DsmSerializer.serialize(dsm));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void should_fail_on_cycle() {
+    Resource a = resource(1);
+    Resource b = resource(2);
+    DirectedGraph<Resource, Dependency> graph = new DirectedGraph<Resource, Dependency>();
+    graph.addEdge(new Dependency(a, b).setWeight(1));
+    graph.addEdge(new Dependency(b, a).setWeight(1));
+    DsmSerializer.serialize(graph, Lists.newArrayList(a, b), Collections.<Edge>emptySet());
+  }
+
+  private static Resource resource(int id) {
+    Resource resource = new Directory("r" + id);
+    resource.setId(id);
+    return resource;
+  }
+
+}
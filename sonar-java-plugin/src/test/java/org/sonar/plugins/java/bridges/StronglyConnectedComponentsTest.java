@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) 2012 SonarSource
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.java.bridges;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.graph.DirectedGraph;
+import org.sonar.graph.StringEdge;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class StronglyConnectedComponentsTest {
+
+  @Test
+  public void should_find_components_with_cycles() {
+    DirectedGraph<String, StringEdge> graph = DirectedGraph.createStringDirectedGraph();
+    graph.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+    graph.addEdge("C", "D");
+    graph.addEdge("D", "E").addEdge("E", "D");
+    graph.addEdge("E", "F");
+    graph.addEdge("G", "G");
+
+    List<Set<String>> components = StronglyConnectedComponents.nonTrivial(graph, Arrays.asList("A", "B", "C", "D", "E", "F", "G"));
+
+    assertThat(components).containsOnly(ImmutableSet.of("A", "B", "C"), ImmutableSet.of("D", "E"), ImmutableSet.of("G"));
+  }
+
+  @Test
+  public void should_keep_order_of_given_vertices() {
+    DirectedGraph<String, StringEdge> graph = DirectedGraph.createStringDirectedGraph();
+    graph.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+    graph.addEdge("C", "D");
+    graph.addEdge("D", "E").addEdge("E", "D");
+    graph.addEdge("G", "G");
+
+    List<Set<String>> components = StronglyConnectedComponents.nonTrivial(graph, Arrays.asList("D", "C", "G", "A", "E", "B", "F"));
+
+    assertThat(components).hasSize(3);
+    assertThat(Lists.newArrayList(components.get(0))).containsExactly("D", "E");
+    assertThat(Lists.newArrayList(components.get(1))).containsExactly("C", "A", "B");
+    assertThat(Lists.newArrayList(components.get(2))).containsExactly("G");
+  }
+
+  @Test
+  public void should_only_consider_given_vertices() {
+    DirectedGraph<String, StringEdge> graph = DirectedGraph.createStringDirectedGraph();
+    graph.addEdge("A", "B").addEdge("B", "C").addEdge("C", "A");
+    graph.addEdge("A", "D").addEdge("D", "A");
+
+    assertThat(StronglyConnectedComponents.nonTrivial(graph, Arrays.asList("A", "D"))).containsOnly(ImmutableSet.of("A", "D"));
+    assertThat(StronglyConnectedComponents.nonTrivial(graph, Arrays.asList("B", "C", "D"))).isEmpty();
+  }
+
+  @Test
+  public void should_not_overflow_stack_on_long_paths() {
+    DirectedGraph<String, StringEdge> graph = DirectedGraph.createStringDirectedGraph();
+    String[] vertices = new String[100000];
+    for (int i = 0; i < vertices.length; i++) {
+      vertices[i] = "V" + i;
+      if (i > 0) {
+        graph.addEdge(vertices[i - 1], vertices[i]);
+      }
+    }
+    graph.addEdge(vertices[vertices.length - 1], vertices[0]);
+
+    List<Set<String>> components = StronglyConnectedComponents.nonTrivial(graph, Arrays.asList(vertices));
+
+    assertThat(components).hasSize(1);
+    assertThat(components.get(0)).hasSize(vertices.length);
+  }
+
+}